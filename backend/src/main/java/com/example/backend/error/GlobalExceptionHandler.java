@@ -21,6 +21,30 @@ public class GlobalExceptionHandler {
                                 .body(createBody(HttpStatus.NOT_FOUND, exception.getMessage()));
         }
 
+        @ExceptionHandler(JobNotFoundException.class)
+        public ResponseEntity<Map<String, Object>> handleJobNotFound(JobNotFoundException exception) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                .body(createBody(HttpStatus.NOT_FOUND, exception.getMessage()));
+        }
+
+        @ExceptionHandler(UploadNotFoundException.class)
+        public ResponseEntity<Map<String, Object>> handleUploadNotFound(UploadNotFoundException exception) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                .body(createBody(HttpStatus.NOT_FOUND, exception.getMessage()));
+        }
+
+        @ExceptionHandler(JobRejectedException.class)
+        public ResponseEntity<Map<String, Object>> handleJobRejected(JobRejectedException exception) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .body(createBody(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage()));
+        }
+
+        @ExceptionHandler(RepoBusyException.class)
+        public ResponseEntity<Map<String, Object>> handleRepoBusy(RepoBusyException exception) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                                .body(createBody(HttpStatus.CONFLICT, exception.getMessage()));
+        }
+
         @ExceptionHandler(MethodArgumentNotValidException.class)
         public ResponseEntity<Map<String, Object>> handleValidation(MethodArgumentNotValidException exception) {
                 Map<String, Object> body = createBody(HttpStatus.BAD_REQUEST, "Validation failed");
@@ -0,0 +1,8 @@
+package com.example.backend.error;
+
+public class JobNotFoundException extends RuntimeException {
+
+        public JobNotFoundException(String message) {
+                super(message);
+        }
+}
@@ -0,0 +1,8 @@
+package com.example.backend.error;
+
+public class JobRejectedException extends RuntimeException {
+
+        public JobRejectedException(String message) {
+                super(message);
+        }
+}
@@ -0,0 +1,8 @@
+package com.example.backend.error;
+
+public class RepoBusyException extends RuntimeException {
+
+        public RepoBusyException(String message) {
+                super(message);
+        }
+}
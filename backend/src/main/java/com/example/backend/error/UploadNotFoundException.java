@@ -0,0 +1,8 @@
+package com.example.backend.error;
+
+public class UploadNotFoundException extends RuntimeException {
+
+        public UploadNotFoundException(String message) {
+                super(message);
+        }
+}
@@ -0,0 +1,33 @@
+package com.example.backend.git.controller;
+
+import com.example.backend.git.dto.ChangePreviewResponse;
+import com.example.backend.git.dto.FileDiffResponse;
+import com.example.backend.git.service.ChangePreviewService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/repos/{repoId}/changes")
+public class ChangePreviewController {
+
+        private final ChangePreviewService changePreviewService;
+
+        public ChangePreviewController(ChangePreviewService changePreviewService) {
+                this.changePreviewService = changePreviewService;
+        }
+
+        @GetMapping
+        public ChangePreviewResponse changes(@PathVariable String repoId, @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "100") int limit) {
+                return changePreviewService.changes(repoId, cursor, limit);
+        }
+
+        @GetMapping("/diff")
+        public FileDiffResponse diff(@PathVariable String repoId, @RequestParam String path,
+                        @RequestParam(required = false) Integer maxBytes) {
+                return changePreviewService.diff(repoId, path, maxBytes);
+        }
+}
@@ -0,0 +1,36 @@
+package com.example.backend.git.controller;
+
+import com.example.backend.error.InvalidRequestException;
+import com.example.backend.git.dto.LatencyStatsResponse;
+import com.example.backend.git.service.OperationHistory;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/history")
+public class HistoryController {
+
+        private final OperationHistory operationHistory;
+
+        public HistoryController(OperationHistory operationHistory) {
+                this.operationHistory = operationHistory;
+        }
+
+        @GetMapping("/latency")
+        public List<LatencyStatsResponse> latency(@RequestParam(required = false) String repoId,
+                        @RequestParam(required = false) String operation,
+                        @RequestParam(defaultValue = "7d") String window) {
+                Duration duration;
+                try {
+                        duration = DurationStyle.detectAndParse(window);
+                } catch (IllegalArgumentException exception) {
+                        throw new InvalidRequestException("時間範圍格式錯誤: " + window);
+                }
+                return operationHistory.latency(repoId, operation, duration);
+        }
+}
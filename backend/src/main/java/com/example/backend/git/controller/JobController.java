@@ -0,0 +1,36 @@
+package com.example.backend.git.controller;
+
+import com.example.backend.git.dto.JobResponse;
+import com.example.backend.git.service.JobService;
+import java.util.List;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+        private final JobService jobService;
+
+        public JobController(JobService jobService) {
+                this.jobService = jobService;
+        }
+
+        @GetMapping
+        public List<JobResponse> activeJobs() {
+                return jobService.activeJobs();
+        }
+
+        @GetMapping("/{jobId}")
+        public JobResponse getJob(@PathVariable String jobId) {
+                return jobService.getJob(jobId);
+        }
+
+        @PostMapping("/{jobId}/cancel")
+        public JobResponse cancel(@PathVariable String jobId) {
+                return jobService.cancel(jobId);
+        }
+}
@@ -0,0 +1,24 @@
+package com.example.backend.git.controller;
+
+import com.example.backend.git.dto.RepoLockStatusResponse;
+import com.example.backend.git.service.RepoLockRegistry;
+import java.util.List;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/locks")
+public class LockController {
+
+        private final RepoLockRegistry repoLockRegistry;
+
+        public LockController(RepoLockRegistry repoLockRegistry) {
+                this.repoLockRegistry = repoLockRegistry;
+        }
+
+        @GetMapping
+        public List<RepoLockStatusResponse> list() {
+                return repoLockRegistry.snapshot();
+        }
+}
@@ -1,41 +1,130 @@
 package com.example.backend.git.controller;
 
+import com.example.backend.git.dto.BatchCommitRequest;
+import com.example.backend.git.dto.CancelResponse;
+import com.example.backend.git.dto.ChangeProfileRequest;
 import com.example.backend.git.dto.CommitRequest;
-import com.example.backend.git.dto.CommitResponse;
 import com.example.backend.git.dto.CreateRepoRequest;
-import com.example.backend.git.dto.RepoSummaryResponse;
+import com.example.backend.git.dto.JobResponse;
+import com.example.backend.git.dto.RepoPageResponse;
+import com.example.backend.git.dto.RepoQuery;
+import com.example.backend.git.dto.RepoStatusResponse;
+import com.example.backend.git.service.BatchCommitService;
+import com.example.backend.git.service.CommitCoalescer;
+import com.example.backend.git.service.GitCommandRunner;
+import com.example.backend.git.service.JobService;
 import com.example.backend.git.service.RepoService;
+import com.example.backend.git.service.RepoStatusService;
 import jakarta.validation.Valid;
+import java.net.URI;
 import java.util.List;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/repos")
 public class RepoController {
 
         private final RepoService repoService;
+        private final JobService jobService;
+        private final BatchCommitService batchCommitService;
+        private final GitCommandRunner gitCommandRunner;
+        private final CommitCoalescer commitCoalescer;
+        private final RepoStatusService repoStatusService;
 
-        public RepoController(RepoService repoService) {
+        public RepoController(RepoService repoService, JobService jobService, BatchCommitService batchCommitService,
+                        GitCommandRunner gitCommandRunner, CommitCoalescer commitCoalescer,
+                        RepoStatusService repoStatusService) {
                 this.repoService = repoService;
+                this.jobService = jobService;
+                this.batchCommitService = batchCommitService;
+                this.gitCommandRunner = gitCommandRunner;
+                this.commitCoalescer = commitCoalescer;
+                this.repoStatusService = repoStatusService;
         }
 
         @GetMapping
-        public List<RepoSummaryResponse> list() {
-                return repoService.listRepositories();
+        public ResponseEntity<RepoPageResponse> list(@RequestParam(required = false) String project,
+                        @RequestParam(required = false) String repository,
+                        @RequestParam(required = false) String branch,
+                        @RequestParam(required = false) String q,
+                        @RequestParam(defaultValue = "id") String sort,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "50") int size,
+                        WebRequest webRequest) {
+                if (webRequest.checkNotModified(eTag(repoService.repositoryListVersion()))) {
+                        return null;
+                }
+                RepoPageResponse response = repoService.listRepositories(
+                                new RepoQuery(project, repository, branch, q, sort, page, size));
+                return ResponseEntity.ok().eTag(eTag(response.version())).cacheControl(CacheControl.noCache())
+                                .body(response);
+        }
+
+        @GetMapping("/status")
+        public List<RepoStatusResponse> statuses(@RequestParam(required = false) List<String> ids) {
+                return repoStatusService.statuses(ids);
+        }
+
+        @GetMapping("/{repoId}/status")
+        public RepoStatusResponse status(@PathVariable String repoId) {
+                return repoStatusService.status(repoId);
         }
 
         @PostMapping
-        public RepoSummaryResponse addRepository(@Valid @RequestBody CreateRepoRequest request) {
-                return repoService.addRepository(request);
+        public ResponseEntity<JobResponse> addRepository(@Valid @RequestBody CreateRepoRequest request) {
+                String folderName = repoService.resolveFolderName(request);
+                return accepted(jobService.submit("add-repository", folderName,
+                                tracker -> repoService.addRepository(request, tracker)));
         }
 
         @PostMapping("/{repoId}/commit-and-push")
-        public CommitResponse commitAndPush(@PathVariable String repoId, @Valid @RequestBody CommitRequest request) {
-                return repoService.commitAndPush(repoId, request);
+        public ResponseEntity<JobResponse> commitAndPush(@PathVariable String repoId,
+                        @Valid @RequestBody CommitRequest request) {
+                repoService.requireRepository(repoId);
+                return accepted(commitCoalescer.submit(repoId, request));
+        }
+
+        @PostMapping("/{repoId}/profile")
+        public ResponseEntity<JobResponse> changeProfile(@PathVariable String repoId,
+                        @Valid @RequestBody ChangeProfileRequest request) {
+                repoService.requireRepository(repoId);
+                return accepted(jobService.submit("change-profile", repoId,
+                                tracker -> repoService.changeProfile(repoId, request.profile(), tracker)));
+        }
+
+        @PostMapping("/{repoId}/profile/probe")
+        public ResponseEntity<JobResponse> probeProfile(@PathVariable String repoId) {
+                repoService.requireRepository(repoId);
+                return accepted(jobService.submit("probe-profile", repoId, tracker -> repoService.probeProfile(repoId, tracker)));
+        }
+
+        @PostMapping("/{repoId}/cancel")
+        public CancelResponse cancel(@PathVariable String repoId) {
+                List<JobResponse> jobs = jobService.cancelRepository(repoId);
+                return new CancelResponse(repoId, jobs, gitCommandRunner.cancel(repoId));
+        }
+
+        @PostMapping("/batch/commit-and-push")
+        public ResponseEntity<JobResponse> batchCommitAndPush(@Valid @RequestBody BatchCommitRequest request) {
+                List<String> repoIds = batchCommitService.resolveTargets(request);
+                return accepted(jobService.submit("batch-commit-and-push", null,
+                                tracker -> batchCommitService.commitAndPush(repoIds, request, tracker)));
+        }
+
+        private static String eTag(String version) {
+                return "\"repos-" + version + "\"";
+        }
+
+        private ResponseEntity<JobResponse> accepted(JobResponse job) {
+                return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.id())).body(job);
         }
 }
@@ -0,0 +1,103 @@
+package com.example.backend.git.controller;
+
+import com.example.backend.error.InvalidRequestException;
+import com.example.backend.git.dto.CommitRequest;
+import com.example.backend.git.dto.StartUploadRequest;
+import com.example.backend.git.dto.UploadResponse;
+import com.example.backend.git.dto.UploadSessionResponse;
+import com.example.backend.git.service.CommitCoalescer;
+import com.example.backend.git.service.UploadService;
+import com.example.backend.git.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.net.URI;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/repos/{repoId}")
+public class UploadController {
+
+        private final UploadService uploadService;
+        private final UploadSessionService uploadSessionService;
+        private final CommitCoalescer commitCoalescer;
+
+        public UploadController(UploadService uploadService, UploadSessionService uploadSessionService,
+                        CommitCoalescer commitCoalescer) {
+                this.uploadService = uploadService;
+                this.uploadSessionService = uploadSessionService;
+                this.commitCoalescer = commitCoalescer;
+        }
+
+        @PutMapping("/files/{*path}")
+        public ResponseEntity<UploadResponse> upload(@PathVariable String repoId, @PathVariable String path,
+                        @RequestParam(required = false) String commitMessage, HttpServletRequest request) throws IOException {
+                validateCommitMessage(commitMessage);
+                UploadResponse response = uploadService.upload(repoId, path, request.getContentLengthLong(),
+                                request.getInputStream());
+                return ResponseEntity.status(HttpStatus.CREATED).body(withCommit(repoId, response, commitMessage));
+        }
+
+        @PostMapping("/uploads")
+        public ResponseEntity<UploadSessionResponse> startUpload(@PathVariable String repoId,
+                        @Valid @RequestBody StartUploadRequest request, @RequestParam(required = false) String commitMessage) {
+                validateCommitMessage(commitMessage);
+                UploadSessionResponse session = uploadSessionService.start(repoId, request);
+                if (session.result() != null) {
+                        UploadResponse result = withCommit(repoId, session.result(), commitMessage);
+                        return ResponseEntity.status(HttpStatus.CREATED).body(new UploadSessionResponse(null, repoId,
+                                        result.path(), result.size(), result.size(), session.received(), null, null, result));
+                }
+                return ResponseEntity.created(URI.create("/api/repos/" + repoId + "/uploads/" + session.id())).body(session);
+        }
+
+        @GetMapping("/uploads/{uploadId}")
+        public UploadSessionResponse uploadStatus(@PathVariable String repoId, @PathVariable String uploadId) {
+                return uploadSessionService.status(repoId, uploadId);
+        }
+
+        @PutMapping("/uploads/{uploadId}")
+        public UploadSessionResponse uploadChunk(@PathVariable String repoId, @PathVariable String uploadId,
+                        @RequestParam long offset, HttpServletRequest request) throws IOException {
+                return uploadSessionService.writeChunk(repoId, uploadId, offset, request.getContentLengthLong(),
+                                request.getInputStream());
+        }
+
+        @PostMapping("/uploads/{uploadId}/complete")
+        public ResponseEntity<UploadResponse> completeUpload(@PathVariable String repoId, @PathVariable String uploadId,
+                        @RequestParam(required = false) String commitMessage) {
+                validateCommitMessage(commitMessage);
+                UploadResponse response = uploadSessionService.complete(repoId, uploadId);
+                return ResponseEntity.status(HttpStatus.CREATED).body(withCommit(repoId, response, commitMessage));
+        }
+
+        @DeleteMapping("/uploads/{uploadId}")
+        public ResponseEntity<Void> abortUpload(@PathVariable String repoId, @PathVariable String uploadId) {
+                uploadSessionService.abort(repoId, uploadId);
+                return ResponseEntity.noContent().build();
+        }
+
+        private void validateCommitMessage(String commitMessage) {
+                if (StringUtils.hasText(commitMessage) && commitMessage.trim().length() > 200) {
+                        throw new InvalidRequestException("Commit 訊息過長");
+                }
+        }
+
+        private UploadResponse withCommit(String repoId, UploadResponse response, String commitMessage) {
+                if (!StringUtils.hasText(commitMessage)) {
+                        return response;
+                }
+                return response.withCommitJob(commitCoalescer.submit(repoId, new CommitRequest(commitMessage.trim())));
+        }
+}
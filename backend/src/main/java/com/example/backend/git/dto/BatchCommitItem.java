@@ -0,0 +1,12 @@
+package com.example.backend.git.dto;
+
+import java.util.List;
+
+public record BatchCommitItem(
+                String repoId,
+                boolean success,
+                boolean committed,
+                String message,
+                long durationMillis,
+                List<StepTiming> steps) {
+}
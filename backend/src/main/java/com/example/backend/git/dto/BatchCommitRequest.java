@@ -0,0 +1,15 @@
+package com.example.backend.git.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record BatchCommitRequest(
+                List<String> repoIds,
+                String project,
+                String branch,
+                @NotBlank(message = "請輸入 Commit 訊息") @Size(max = 200, message = "Commit 訊息過長") String message,
+                @Min(value = 1, message = "平行數量至少為 1") @Max(value = 64, message = "平行數量過大") Integer parallelism) {
+}
@@ -0,0 +1,12 @@
+package com.example.backend.git.dto;
+
+import java.util.List;
+
+public record BatchCommitResponse(
+                int total,
+                int succeeded,
+                int failed,
+                int parallelism,
+                long durationMillis,
+                List<BatchCommitItem> results) {
+}
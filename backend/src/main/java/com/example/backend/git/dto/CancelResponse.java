@@ -0,0 +1,9 @@
+package com.example.backend.git.dto;
+
+import java.util.List;
+
+public record CancelResponse(
+                String repoId,
+                List<JobResponse> jobs,
+                int terminatedCommands) {
+}
@@ -0,0 +1,14 @@
+package com.example.backend.git.dto;
+
+import com.example.backend.git.model.ChangedFile;
+import java.util.List;
+
+public record ChangePreviewResponse(
+                String repoId,
+                String yearBranchPath,
+                int totalFiles,
+                long insertions,
+                long deletions,
+                List<ChangedFile> files,
+                String nextCursor) {
+}
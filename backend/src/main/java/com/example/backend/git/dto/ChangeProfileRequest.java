@@ -0,0 +1,7 @@
+package com.example.backend.git.dto;
+
+import com.example.backend.git.model.PerformanceProfile;
+import jakarta.validation.constraints.NotNull;
+
+public record ChangeProfileRequest(@NotNull(message = "請選擇效能設定檔") PerformanceProfile profile) {
+}
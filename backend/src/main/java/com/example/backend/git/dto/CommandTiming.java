@@ -0,0 +1,4 @@
+package com.example.backend.git.dto;
+
+public record CommandTiming(String subcommand, String exit, long durationMillis) {
+}
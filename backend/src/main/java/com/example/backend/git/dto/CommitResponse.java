@@ -1,4 +1,8 @@
 package com.example.backend.git.dto;
 
-public record CommitResponse(boolean committed, String message) {
+import java.util.List;
+
+public record CommitResponse(boolean committed, String message, long remoteAgeMillis, List<String> lfsFiles,
+                long lfsBytes, int pushAttempts, int coalescedRequests, List<StepTiming> steps,
+                List<String> skippedSteps) {
 }
@@ -1,8 +1,11 @@
 package com.example.backend.git.dto;
 
+import com.example.backend.git.model.CloneMode;
+import com.example.backend.git.model.PerformanceProfile;
 import jakarta.validation.constraints.NotBlank;
 
-public record CreateRepoRequest(@NotBlank(message = "請提供 Repository URL") String url, String branch) {
+public record CreateRepoRequest(@NotBlank(message = "請提供 Repository URL") String url, String branch,
+                CloneMode cloneMode, PerformanceProfile profile) {
 
         public String normalizedBranch() {
                 if (branch == null) {
@@ -0,0 +1,9 @@
+package com.example.backend.git.dto;
+
+public record FileDiffResponse(
+                String repoId,
+                String path,
+                boolean binary,
+                boolean truncated,
+                String diff) {
+}
@@ -0,0 +1,22 @@
+package com.example.backend.git.dto;
+
+import com.example.backend.git.model.JobState;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public record JobResponse(
+                String id,
+                String type,
+                String repoId,
+                JobState state,
+                String currentStep,
+                List<StepTiming> steps,
+                Object result,
+                String error,
+                Map<String, String> errorDetails,
+                Instant submittedAt,
+                Instant startedAt,
+                Instant finishedAt,
+                boolean stuck) {
+}
@@ -0,0 +1,13 @@
+package com.example.backend.git.dto;
+
+public record LatencyStatsResponse(
+                String repoId,
+                String operation,
+                long count,
+                long failures,
+                long p50Millis,
+                long p95Millis,
+                long p99Millis,
+                long maxMillis,
+                long transferredBytes) {
+}
@@ -0,0 +1,8 @@
+package com.example.backend.git.dto;
+
+import com.example.backend.git.model.PerformanceProfile;
+import java.util.List;
+
+public record ProfileChangeResponse(String repoId, PerformanceProfile previous, PerformanceProfile current,
+                List<String> settings, ProfileProbe before, ProfileProbe after) {
+}
@@ -0,0 +1,4 @@
+package com.example.backend.git.dto;
+
+public record ProfileProbe(long statusMillis, long addMillis, int rounds) {
+}
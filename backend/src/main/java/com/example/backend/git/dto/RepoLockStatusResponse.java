@@ -0,0 +1,11 @@
+package com.example.backend.git.dto;
+
+public record RepoLockStatusResponse(
+                String repoId,
+                boolean locked,
+                int queueLength,
+                long acquisitions,
+                long timeouts,
+                long averageWaitMillis,
+                long maxWaitMillis) {
+}
@@ -0,0 +1,12 @@
+package com.example.backend.git.dto;
+
+import java.util.List;
+
+public record RepoPageResponse(
+                List<RepoSummaryResponse> items,
+                int page,
+                int size,
+                long totalItems,
+                int totalPages,
+                String version) {
+}
@@ -0,0 +1,11 @@
+package com.example.backend.git.dto;
+
+public record RepoQuery(
+                String project,
+                String repository,
+                String branch,
+                String q,
+                String sort,
+                int page,
+                int size) {
+}
@@ -0,0 +1,23 @@
+package com.example.backend.git.dto;
+
+import java.time.Instant;
+
+public record RepoStatusResponse(
+                String repoId,
+                String yearBranchPath,
+                String branch,
+                String upstream,
+                Integer ahead,
+                Integer behind,
+                boolean clean,
+                int changedFiles,
+                int staged,
+                int unstaged,
+                int untracked,
+                int conflicted,
+                long objectBytes,
+                Instant lastFetchedAt,
+                Instant checkedAt,
+                boolean cached,
+                String error) {
+}
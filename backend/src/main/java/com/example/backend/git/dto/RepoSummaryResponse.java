@@ -1,5 +1,8 @@
 package com.example.backend.git.dto;
 
+import com.example.backend.git.model.CloneMode;
+import com.example.backend.git.model.PerformanceProfile;
+
 public record RepoSummaryResponse(
                 String id,
                 String project,
@@ -7,5 +10,8 @@ public record RepoSummaryResponse(
                 String branch,
                 String url,
                 String path,
-                String yearBranchPath) {
+                String yearBranchPath,
+                CloneMode cloneMode,
+                PerformanceProfile profile,
+                String baseRepository) {
 }
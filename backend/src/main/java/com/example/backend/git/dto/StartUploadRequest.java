@@ -0,0 +1,11 @@
+package com.example.backend.git.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public record StartUploadRequest(@NotBlank(message = "請指定上傳檔案的路徑與檔名") String path,
+                @NotNull(message = "請提供檔案大小") @PositiveOrZero(message = "檔案大小不可為負數") Long size,
+                @Pattern(regexp = "[0-9a-fA-F]{64}", message = "SHA-256 格式錯誤") String sha256) {
+}
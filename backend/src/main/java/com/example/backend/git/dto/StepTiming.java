@@ -0,0 +1,4 @@
+package com.example.backend.git.dto;
+
+public record StepTiming(String name, long durationMillis) {
+}
@@ -0,0 +1,9 @@
+package com.example.backend.git.dto;
+
+public record UploadResponse(String repoId, String path, long size, String sha256, boolean deduplicated,
+                long durationMillis, JobResponse commitJob) {
+
+        public UploadResponse withCommitJob(JobResponse job) {
+                return new UploadResponse(repoId, path, size, sha256, deduplicated, durationMillis, job);
+        }
+}
@@ -0,0 +1,17 @@
+package com.example.backend.git.dto;
+
+import com.example.backend.git.model.ByteRange;
+import java.time.Instant;
+import java.util.List;
+
+public record UploadSessionResponse(
+                String id,
+                String repoId,
+                String path,
+                long size,
+                long receivedBytes,
+                List<ByteRange> received,
+                String chunkSha256,
+                Instant expiresAt,
+                UploadResponse result) {
+}
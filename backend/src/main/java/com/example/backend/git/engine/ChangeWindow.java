@@ -0,0 +1,57 @@
+package com.example.backend.git.engine;
+
+import com.example.backend.git.model.ChangeListing;
+import com.example.backend.git.model.ChangedFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 依 git 的路徑順序（UTF-8 位元組）保留游標之後的前 limit 筆變更，其餘只計數。
+ */
+final class ChangeWindow {
+
+        private final byte[] after;
+        private final int limit;
+        private final List<ChangedFile> files = new ArrayList<>();
+        private int remaining;
+        private int total;
+
+        ChangeWindow(String afterPath, int limit) {
+                this.after = afterPath == null ? null : afterPath.getBytes(StandardCharsets.UTF_8);
+                this.limit = limit;
+        }
+
+        /**
+         * 記錄一筆變更；保留於視窗內時回傳其位置，否則回傳 -1。
+         */
+        int offer(ChangedFile file) {
+                total++;
+                if (after != null && Arrays.compareUnsigned(file.path().getBytes(StandardCharsets.UTF_8), after) <= 0) {
+                        return -1;
+                }
+                remaining++;
+                if (files.size() >= limit) {
+                        return -1;
+                }
+                files.add(file);
+                return files.size() - 1;
+        }
+
+        int size() {
+                return files.size();
+        }
+
+        ChangedFile get(int position) {
+                return files.get(position);
+        }
+
+        void set(int position, ChangedFile file) {
+                files.set(position, file);
+        }
+
+        ChangeListing toListing(long insertions, long deletions) {
+                return new ChangeListing(List.copyOf(files), remaining, total, insertions, deletions);
+        }
+}
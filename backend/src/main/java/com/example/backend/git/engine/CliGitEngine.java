@@ -0,0 +1,328 @@
+package com.example.backend.git.engine;
+
+import com.example.backend.git.model.ChangeListing;
+import com.example.backend.git.model.ChangedFile;
+import com.example.backend.git.model.FileDiff;
+import com.example.backend.git.model.StatusSummary;
+import com.example.backend.git.model.WorkingTreeStatus;
+import com.example.backend.git.service.GitCommandRunner;
+import com.example.backend.git.service.NulRecordSplitter;
+import com.example.backend.git.service.PatService;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+@Component
+public class CliGitEngine implements GitEngine {
+
+        private static final String EMPTY_TREE = "4b825dc642cb6eb9a060e54bf8d69288fbee4904";
+
+        private final GitCommandRunner gitCommandRunner;
+        private final PatService patService;
+
+        public CliGitEngine(GitCommandRunner gitCommandRunner, PatService patService) {
+                this.gitCommandRunner = gitCommandRunner;
+                this.patService = patService;
+        }
+
+        @Override
+        public String name() {
+                return "cli";
+        }
+
+        @Override
+        public void cloneRepository(Path parentDirectory, String url, String folderName) {
+                gitCommandRunner.runAndEnsureSuccess(parentDirectory, gitCommandRunner.command("git", "clone", "--progress", url, folderName),
+                                patService.buildGitEnvironment(), "無法 clone 遠端 Repository");
+        }
+
+        public void cloneSparse(Path parentDirectory, String url, String folderName, List<String> sparsePaths) {
+                gitCommandRunner.runAndEnsureSuccess(parentDirectory,
+                                gitCommandRunner.command("git", "clone", "--progress", "--filter=blob:none", "--sparse", url,
+                                                folderName),
+                                patService.buildGitEnvironment(), "無法 clone 遠端 Repository");
+                setSparseCheckout(parentDirectory.resolve(folderName), sparsePaths);
+        }
+
+        public void cloneBase(Path parentDirectory, String url, String folderName) {
+                gitCommandRunner.runAndEnsureSuccess(parentDirectory,
+                                gitCommandRunner.command("git", "clone", "--progress", "--bare", url, folderName),
+                                patService.buildGitEnvironment(), "無法 clone 遠端 Repository");
+                Path base = parentDirectory.resolve(folderName);
+                setConfig(base, "remote.origin.fetch", "+refs/heads/*:refs/remotes/origin/*");
+                gitCommandRunner.runAndEnsureSuccess(base, gitCommandRunner.command("git", "fetch", "--progress", "origin"),
+                                patService.buildGitEnvironment(), "無法抓取遠端分支");
+        }
+
+        public void addWorktree(Path base, Path worktree, String branch, String startPoint) {
+                gitCommandRunner.runAndEnsureSuccess(base,
+                                gitCommandRunner.command("git", "worktree", "add", "-B", branch, worktree.toString(), startPoint),
+                                Map.of(), "無法建立分支 " + branch + " 的工作目錄");
+        }
+
+        public void pruneWorktrees(Path base) {
+                gitCommandRunner.run(base, gitCommandRunner.command("git", "worktree", "prune"), Map.of());
+        }
+
+        public void setSparseCheckout(Path repository, List<String> sparsePaths) {
+                List<String> command = gitCommandRunner.command("git", "sparse-checkout", "set", "--cone");
+                command.addAll(sparsePaths);
+                gitCommandRunner.runAndEnsureSuccess(repository, command, patService.buildGitEnvironment(),
+                                "無法設定 sparse checkout 範圍");
+        }
+
+        public Optional<String> lfsVersion() {
+                GitCommandRunner.CommandResult result = gitCommandRunner.run(null,
+                                gitCommandRunner.command("git", "lfs", "version"), Map.of());
+                return result.isSuccess() ? Optional.of(result.stdout().trim()) : Optional.empty();
+        }
+
+        public void installLfs(Path repository) {
+                gitCommandRunner.runAndEnsureSuccess(repository,
+                                gitCommandRunner.command("git", "lfs", "install", "--local", "--skip-smudge"), Map.of(),
+                                "無法在 Repository 啟用 Git LFS");
+        }
+
+        public List<String> stagedFiles(Path repository, String pathspec) {
+                List<String> files = new ArrayList<>();
+                GitCommandRunner.CommandResult result = gitCommandRunner.run(repository,
+                                gitCommandRunner.command("git", "-c", "core.quotePath=false", "diff", "--cached", "--name-only",
+                                                "--diff-filter=AMR", "--", pathspec),
+                                Map.of(), (channel, line) -> {
+                                        if (channel == GitCommandRunner.Channel.STDOUT) {
+                                                files.add(line);
+                                        }
+                                });
+                if (!result.isSuccess()) {
+                        throw gitCommandRunner.failure(result, "無法列出暫存的檔案");
+                }
+                return files;
+        }
+
+        @Override
+        public void setConfig(Path repository, String key, String value) {
+                gitCommandRunner.runAndEnsureSuccess(repository, gitCommandRunner.command("git", "config", key, value), Map.of(),
+                                "無法設定 " + key);
+        }
+
+        public void unsetConfig(Path repository, String key) {
+                GitCommandRunner.CommandResult result = gitCommandRunner.run(repository,
+                                gitCommandRunner.command("git", "config", "--unset-all", key), Map.of());
+                if (!result.isSuccess() && result.exitCode() != 5) {
+                        throw gitCommandRunner.failure(result, "無法移除設定 " + key);
+                }
+        }
+
+        public void updateIndex(Path repository, List<String> options) {
+                List<String> command = gitCommandRunner.command("git", "update-index");
+                command.addAll(options);
+                gitCommandRunner.runAndEnsureSuccess(repository, command, Map.of(), "無法更新 index 格式");
+        }
+
+        public void writeCommitGraph(Path repository) {
+                gitCommandRunner.runAndEnsureSuccess(repository,
+                                gitCommandRunner.command("git", "commit-graph", "write", "--reachable", "--changed-paths"),
+                                Map.of(), "無法寫入 commit-graph");
+        }
+
+        public boolean fsmonitorSupported(Path repository) {
+                GitCommandRunner.CommandResult result = gitCommandRunner.run(repository,
+                                gitCommandRunner.command("git", "fsmonitor--daemon", "status"), Map.of());
+                return result.exitCode() != 128 && !result.stderr().contains("not supported");
+        }
+
+        public void addDryRun(Path repository, String pathspec) {
+                gitCommandRunner.runAndEnsureSuccess(repository,
+                                gitCommandRunner.command("git", "add", "--dry-run", "--", pathspec), Map.of(), "無法加入變更");
+        }
+
+        @Override
+        public Optional<String> remoteBranchHead(Path repository, String branch) {
+                GitCommandRunner.CommandResult lsRemote = gitCommandRunner.run(repository,
+                                gitCommandRunner.command("git", "ls-remote", "--heads", "origin", branch),
+                                patService.buildGitEnvironment());
+                if (!lsRemote.isSuccess() || !StringUtils.hasText(lsRemote.stdout())) {
+                        return Optional.empty();
+                }
+                String line = lsRemote.stdout().lines().findFirst().orElse("");
+                int separator = line.indexOf('\t');
+                return Optional.of(separator > 0 ? line.substring(0, separator) : line.trim());
+        }
+
+        @Override
+        public void fetch(Path repository, String branch) {
+                gitCommandRunner.runAndEnsureSuccess(repository, gitCommandRunner.command("git", "fetch", "--progress", "origin", branch),
+                                patService.buildGitEnvironment(), "無法抓取遠端分支 " + branch);
+        }
+
+        @Override
+        public Optional<String> resolveRef(Path repository, String ref) {
+                GitCommandRunner.CommandResult result = gitCommandRunner.run(repository,
+                                gitCommandRunner.command("git", "rev-parse", "--verify", "--quiet", ref + "^{commit}"), Map.of());
+                if (!result.isSuccess() || !StringUtils.hasText(result.stdout())) {
+                        return Optional.empty();
+                }
+                return Optional.of(result.stdout().trim());
+        }
+
+        @Override
+        public void checkout(Path repository, String branch) {
+                gitCommandRunner.runAndEnsureSuccess(repository, gitCommandRunner.command("git", "checkout", branch),
+                                patService.buildGitEnvironment(), "無法切換到分支 " + branch);
+        }
+
+        @Override
+        public void checkoutNewBranch(Path repository, String branch, String startPoint) {
+                gitCommandRunner.runAndEnsureSuccess(repository,
+                                gitCommandRunner.command("git", "checkout", "-b", branch, startPoint),
+                                patService.buildGitEnvironment(), "無法建立新分支 " + branch);
+        }
+
+        @Override
+        public void mergeFastForward(Path repository, String ref) {
+                gitCommandRunner.runAndEnsureSuccess(repository, gitCommandRunner.command("git", "merge", "--ff-only", ref),
+                                patService.buildGitEnvironment(), "遠端已有更新且無法 fast-forward，請手動處理後重試。");
+        }
+
+        public void rebase(Path repository, String upstream) {
+                GitCommandRunner.CommandResult result = gitCommandRunner.run(repository,
+                                gitCommandRunner.command("git", "rebase", "--autostash", upstream), Map.of());
+                if (!result.isSuccess()) {
+                        gitCommandRunner.run(repository, gitCommandRunner.command("git", "rebase", "--abort"), Map.of());
+                        throw gitCommandRunner.failure(result, "無法將本機 Commit 重新套用到遠端最新版本，請手動處理後重試。");
+                }
+        }
+
+        @Override
+        public void add(Path repository, String pathspec) {
+                gitCommandRunner.runAndEnsureSuccess(repository, gitCommandRunner.command("git", "add", "--", pathspec),
+                                Map.of(), "無法加入變更");
+        }
+
+        @Override
+        public WorkingTreeStatus status(Path repository, String pathspec) {
+                return streamStatus(repository, pathspec, true).toWorkingTreeStatus();
+        }
+
+        /**
+         * 供查詢用的狀態：以 {@code --no-optional-locks} 執行，不會和進行中的作業搶 index.lock。
+         */
+        public StatusSummary statusSummary(Path repository, String pathspec) {
+                return streamStatus(repository, pathspec, false);
+        }
+
+        public long objectStoreBytes(Path repository) {
+                GitCommandRunner.CommandResult result = gitCommandRunner.run(repository,
+                                gitCommandRunner.command("git", "count-objects", "-v"), Map.of());
+                if (!result.isSuccess()) {
+                        throw gitCommandRunner.failure(result, "無法取得 Repository 大小");
+                }
+                long kibibytes = 0;
+                for (String line : result.stdout().split("\n")) {
+                        if (line.startsWith("size: ") || line.startsWith("size-pack: ")) {
+                                kibibytes += Long.parseLong(line.substring(line.indexOf(' ') + 1).trim());
+                        }
+                }
+                return kibibytes * 1024;
+        }
+
+        /**
+         * 列出 HEAD 與工作目錄之間已追蹤檔案的變更（相當於 {@code git add} 後會提交的內容），只保留 afterPath 之後的前 limit 筆。
+         */
+        public ChangeListing trackedChanges(Path repository, String pathspec, String afterPath, int limit) {
+                String base = resolveRef(repository, "HEAD").orElse(EMPTY_TREE);
+                DiffSummaryParser parser = new DiffSummaryParser(new ChangeWindow(afterPath, limit));
+                NulRecordSplitter splitter = new NulRecordSplitter(parser);
+                GitCommandRunner.CommandResult result = gitCommandRunner.stream(repository,
+                                gitCommandRunner.command("git", "--no-optional-locks", "diff", base, "--raw", "--numstat", "-z",
+                                                "--no-renames", "--", pathspec),
+                                Map.of(), splitter);
+                if (!result.isSuccess()) {
+                        throw gitCommandRunner.failure(result, "無法列出變更的檔案");
+                }
+                splitter.finish();
+                return parser.result();
+        }
+
+        public ChangeListing untrackedFiles(Path repository, String pathspec, String afterPath, int limit) {
+                ChangeWindow window = new ChangeWindow(afterPath, limit);
+                NulRecordSplitter splitter = new NulRecordSplitter(path -> {
+                        if (!path.isEmpty()) {
+                                window.offer(new ChangedFile(path, "A", null, null, false, true));
+                        }
+                });
+                GitCommandRunner.CommandResult result = gitCommandRunner.stream(repository,
+                                gitCommandRunner.command("git", "--no-optional-locks", "ls-files", "--others", "--exclude-standard",
+                                                "-z", "--", pathspec),
+                                Map.of(), splitter);
+                if (!result.isSuccess()) {
+                        throw gitCommandRunner.failure(result, "無法列出新增的檔案");
+                }
+                splitter.finish();
+                return window.toListing(0, 0);
+        }
+
+        public boolean existsInHead(Path repository, String path) {
+                return gitCommandRunner.run(repository, gitCommandRunner.command("git", "cat-file", "-e", "HEAD:" + path),
+                                Map.of()).isSuccess();
+        }
+
+        /**
+         * 取得單一檔案相對 HEAD 的 diff（新檔案則與空檔比較），輸出超過 maxBytes 時提前終止 git 並標記為截斷。
+         */
+        public FileDiff fileDiff(Path repository, String path, boolean newFile, int maxBytes) {
+                List<String> command = newFile
+                                ? gitCommandRunner.command("git", "--no-optional-locks", "diff", "--no-index", "--no-color",
+                                                "--no-ext-diff", "--", "/dev/null", path)
+                                : gitCommandRunner.command("git", "--no-optional-locks", "diff", "--no-color", "--no-ext-diff",
+                                                resolveRef(repository, "HEAD").orElse(EMPTY_TREE), "--", path);
+                DiffCollector collector = new DiffCollector(maxBytes);
+                GitCommandRunner.CommandResult result = gitCommandRunner.stream(repository, command, Map.of(), collector);
+                if (!result.isSuccess() && !(newFile && result.exitCode() == 1)) {
+                        throw gitCommandRunner.failure(result, "無法取得檔案差異: " + path);
+                }
+                return collector.result();
+        }
+
+        private StatusSummary streamStatus(Path repository, String pathspec, boolean optionalLocks) {
+                List<String> command = optionalLocks ? gitCommandRunner.command("git")
+                                : gitCommandRunner.command("git", "--no-optional-locks");
+                command.addAll(List.of("status", "--porcelain=v2", "-z", "--branch", "--untracked-files=all", "--", pathspec));
+                PorcelainStatusParser parser = new PorcelainStatusParser();
+                NulRecordSplitter splitter = new NulRecordSplitter(parser);
+                GitCommandRunner.CommandResult result = gitCommandRunner.stream(repository, command, Map.of(), splitter);
+                if (!result.isSuccess()) {
+                        throw gitCommandRunner.failure(result, "無法檢查變更狀態");
+                }
+                splitter.finish();
+                return parser.result();
+        }
+
+        @Override
+        public void commit(Path repository, String message) {
+                gitCommandRunner.runAndEnsureSuccess(repository, gitCommandRunner.command("git", "commit", "-m", message),
+                                Map.of(), "Commit 失敗");
+        }
+
+        @Override
+        public void push(Path repository, String branch, boolean setUpstream) {
+                if (setUpstream) {
+                        gitCommandRunner.runAndEnsureSuccess(repository,
+                                        gitCommandRunner.command("git", "push", "--progress", "--set-upstream", "origin", branch),
+                                        patService.buildGitEnvironment(), "無法推送新分支");
+                        return;
+                }
+                gitCommandRunner.runAndEnsureSuccess(repository, gitCommandRunner.command("git", "push", "--progress", "origin", branch),
+                                patService.buildGitEnvironment(), "Push 失敗");
+        }
+
+        @Override
+        public void undoLastCommit(Path repository) {
+                gitCommandRunner.runAndEnsureSuccess(repository, gitCommandRunner.command("git", "reset", "--soft", "HEAD~1"),
+                                Map.of(), "無法復原本機 Commit");
+        }
+}
@@ -0,0 +1,42 @@
+package com.example.backend.git.engine;
+
+import com.example.backend.git.model.FileDiff;
+import com.example.backend.git.service.GitCommandRunner;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 收集單一檔案的 diff 輸出，超過 maxBytes 時停止讀取並截斷到最後一個完整行。
+ */
+final class DiffCollector implements GitCommandRunner.OutputListener {
+
+        private final int maxBytes;
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        private boolean truncated;
+
+        DiffCollector(int maxBytes) {
+                this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public boolean onOutput(byte[] buffer, int length) {
+                int accepted = Math.min(length, maxBytes - output.size());
+                output.write(buffer, 0, accepted);
+                if (accepted < length) {
+                        truncated = true;
+                        return false;
+                }
+                return true;
+        }
+
+        FileDiff result() {
+                String diff = output.toString(StandardCharsets.UTF_8);
+                if (truncated) {
+                        int lastNewline = diff.lastIndexOf('\n');
+                        diff = lastNewline < 0 ? "" : diff.substring(0, lastNewline + 1);
+                }
+                boolean binary = diff.startsWith("Binary files ") || diff.contains("\nBinary files ")
+                                || diff.contains("\nGIT binary patch");
+                return new FileDiff(diff, binary, truncated);
+        }
+}
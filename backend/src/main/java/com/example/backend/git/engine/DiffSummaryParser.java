@@ -0,0 +1,65 @@
+package com.example.backend.git.engine;
+
+import com.example.backend.git.model.ChangeListing;
+import com.example.backend.git.model.ChangedFile;
+import java.util.function.Consumer;
+
+/**
+ * 逐筆解析 {@code git diff --raw --numstat -z --no-renames} 的紀錄。git 先輸出所有 raw 紀錄（標頭與路徑各一筆），
+ * 再以相同順序輸出 numstat，因此第 n 筆 numstat 對應第 n 個檔案；只有視窗內的檔案會保留下來。
+ */
+final class DiffSummaryParser implements Consumer<String> {
+
+        private final ChangeWindow window;
+        private String pendingStatus;
+        private int rawCount;
+        private int numstatCount;
+        private int windowStart = -1;
+        private long insertions;
+        private long deletions;
+
+        DiffSummaryParser(ChangeWindow window) {
+                this.window = window;
+        }
+
+        @Override
+        public void accept(String record) {
+                if (pendingStatus != null) {
+                        int position = window.offer(new ChangedFile(record, pendingStatus, null, null, false, false));
+                        if (position == 0) {
+                                windowStart = rawCount;
+                        }
+                        rawCount++;
+                        pendingStatus = null;
+                } else if (record.startsWith(":")) {
+                        String status = record.substring(record.lastIndexOf(' ') + 1);
+                        pendingStatus = status.isEmpty() ? "M" : status.substring(0, 1);
+                } else {
+                        numstat(record);
+                }
+        }
+
+        ChangeListing result() {
+                return window.toListing(insertions, deletions);
+        }
+
+        private void numstat(String record) {
+                int first = record.indexOf('\t');
+                int second = first < 0 ? -1 : record.indexOf('\t', first + 1);
+                if (second < 0) {
+                        return;
+                }
+                boolean binary = record.startsWith("-\t");
+                int added = binary ? 0 : Integer.parseInt(record.substring(0, first));
+                int removed = binary ? 0 : Integer.parseInt(record.substring(first + 1, second));
+                insertions += added;
+                deletions += removed;
+                int position = windowStart < 0 ? -1 : numstatCount - windowStart;
+                numstatCount++;
+                if (position >= 0 && position < window.size()) {
+                        ChangedFile file = window.get(position);
+                        window.set(position, new ChangedFile(file.path(), file.status(), binary ? null : added,
+                                        binary ? null : removed, binary, false));
+                }
+        }
+}
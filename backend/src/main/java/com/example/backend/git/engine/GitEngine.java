@@ -0,0 +1,36 @@
+package com.example.backend.git.engine;
+
+import com.example.backend.git.model.WorkingTreeStatus;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface GitEngine {
+
+        String name();
+
+        void cloneRepository(Path parentDirectory, String url, String folderName);
+
+        void setConfig(Path repository, String key, String value);
+
+        Optional<String> remoteBranchHead(Path repository, String branch);
+
+        void fetch(Path repository, String branch);
+
+        Optional<String> resolveRef(Path repository, String ref);
+
+        void checkout(Path repository, String branch);
+
+        void checkoutNewBranch(Path repository, String branch, String startPoint);
+
+        void mergeFastForward(Path repository, String ref);
+
+        void add(Path repository, String pathspec);
+
+        WorkingTreeStatus status(Path repository, String pathspec);
+
+        void commit(Path repository, String message);
+
+        void push(Path repository, String branch, boolean setUpstream);
+
+        void undoLastCommit(Path repository);
+}
@@ -0,0 +1,28 @@
+package com.example.backend.git.engine;
+
+import com.example.backend.git.service.GitMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class GitEngineConfiguration {
+
+        private static final Logger logger = LoggerFactory.getLogger(GitEngineConfiguration.class);
+
+        @Bean
+        @Primary
+        public GitEngine gitEngine(@Value("${git-uploader.git.engine:cli}") String engine, CliGitEngine cliGitEngine,
+                        JGitEngine jGitEngine, GitMetrics gitMetrics) {
+                GitEngine selected = switch (engine.trim().toLowerCase()) {
+                        case "cli" -> cliGitEngine;
+                        case "jgit" -> new MeteredGitEngine(jGitEngine, gitMetrics);
+                        default -> throw new IllegalStateException("不支援的 git-uploader.git.engine: " + engine);
+                };
+                logger.info("Using {} git engine", selected.name());
+                return selected;
+        }
+}
@@ -0,0 +1,260 @@
+package com.example.backend.git.engine;
+
+import com.example.backend.error.GitOperationException;
+import com.example.backend.git.model.WorkingTreeStatus;
+import com.example.backend.git.service.GitTimeouts;
+import com.example.backend.git.service.PatService;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.eclipse.jgit.api.CreateBranchCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.MergeCommand;
+import org.eclipse.jgit.api.MergeResult;
+import org.eclipse.jgit.api.ResetCommand;
+import org.eclipse.jgit.api.Status;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.BranchTrackingStatus;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.EmptyProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.PushResult;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.RemoteRefUpdate;
+import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+public class JGitEngine implements GitEngine {
+
+        private static final String REMOTE = "origin";
+
+        private static final EmptyProgressMonitor INTERRUPTIBLE = new EmptyProgressMonitor() {
+                @Override
+                public boolean isCancelled() {
+                        return Thread.currentThread().isInterrupted();
+                }
+        };
+
+        private final PatService patService;
+        private final GitTimeouts timeouts;
+
+        public JGitEngine(PatService patService, GitTimeouts timeouts) {
+                this.patService = patService;
+                this.timeouts = timeouts;
+        }
+
+        @Override
+        public String name() {
+                return "jgit";
+        }
+
+        @Override
+        public void cloneRepository(Path parentDirectory, String url, String folderName) {
+                CredentialsProvider credentials = credentials();
+                try (Git ignored = Git.cloneRepository().setURI(url).setDirectory(parentDirectory.resolve(folderName).toFile())
+                                .setCredentialsProvider(credentials).setTimeout(timeoutSeconds("clone"))
+                                .setProgressMonitor(INTERRUPTIBLE).call()) {
+                        // clone 完成後立即釋放 repository
+                } catch (GitAPIException exception) {
+                        throw failure("無法 clone 遠端 Repository", "clone " + url, exception);
+                }
+        }
+
+        @Override
+        public void setConfig(Path repository, String key, String value) {
+                int first = key.indexOf('.');
+                int last = key.lastIndexOf('.');
+                if (first < 0) {
+                        throw new GitOperationException("無法設定 " + key, "config " + key, "", "設定名稱格式錯誤");
+                }
+                String section = key.substring(0, first);
+                String subsection = first == last ? null : key.substring(first + 1, last);
+                String name = key.substring(last + 1);
+                try (Git git = open(repository)) {
+                        StoredConfig config = git.getRepository().getConfig();
+                        config.setString(section, subsection, name, value);
+                        config.save();
+                } catch (IOException exception) {
+                        throw failure("無法設定 " + key, "config " + key, exception);
+                }
+        }
+
+        @Override
+        public Optional<String> remoteBranchHead(Path repository, String branch) {
+                try (Git git = open(repository)) {
+                        return git.lsRemote().setRemote(REMOTE).setHeads(true).setCredentialsProvider(credentials())
+                                        .setTimeout(timeoutSeconds("ls-remote")).call()
+                                        .stream().filter(ref -> ref.getName().equals(Constants.R_HEADS + branch))
+                                        .map(ref -> ref.getObjectId().name()).findFirst();
+                } catch (GitAPIException exception) {
+                        return Optional.empty();
+                }
+        }
+
+        @Override
+        public void fetch(Path repository, String branch) {
+                try (Git git = open(repository)) {
+                        git.fetch().setRemote(REMOTE)
+                                        .setRefSpecs(new RefSpec("+" + Constants.R_HEADS + branch + ":" + Constants.R_REMOTES
+                                                        + REMOTE + "/" + branch))
+                                        .setCredentialsProvider(credentials()).setTimeout(timeoutSeconds("fetch"))
+                                        .setProgressMonitor(INTERRUPTIBLE).call();
+                } catch (GitAPIException exception) {
+                        throw failure("無法抓取遠端分支 " + branch, "fetch " + REMOTE + " " + branch, exception);
+                }
+        }
+
+        @Override
+        public Optional<String> resolveRef(Path repository, String ref) {
+                try (Git git = open(repository)) {
+                        return Optional.ofNullable(git.getRepository().resolve(ref + "^{commit}")).map(ObjectId::name);
+                } catch (IOException exception) {
+                        return Optional.empty();
+                }
+        }
+
+        @Override
+        public void checkout(Path repository, String branch) {
+                try (Git git = open(repository)) {
+                        boolean local = git.getRepository().exactRef(Constants.R_HEADS + branch) != null;
+                        boolean remote = git.getRepository().exactRef(Constants.R_REMOTES + REMOTE + "/" + branch) != null;
+                        if (!local && remote) {
+                                git.checkout().setName(branch).setCreateBranch(true).setStartPoint(REMOTE + "/" + branch)
+                                                .setUpstreamMode(CreateBranchCommand.SetupUpstreamMode.TRACK).call();
+                                return;
+                        }
+                        git.checkout().setName(branch).call();
+                } catch (GitAPIException | IOException exception) {
+                        throw failure("無法切換到分支 " + branch, "checkout " + branch, exception);
+                }
+        }
+
+        @Override
+        public void checkoutNewBranch(Path repository, String branch, String startPoint) {
+                try (Git git = open(repository)) {
+                        git.checkout().setName(branch).setCreateBranch(true).setStartPoint(startPoint)
+                                        .setUpstreamMode(CreateBranchCommand.SetupUpstreamMode.TRACK).call();
+                } catch (GitAPIException exception) {
+                        throw failure("無法建立新分支 " + branch, "checkout -b " + branch + " " + startPoint, exception);
+                }
+        }
+
+        @Override
+        public void mergeFastForward(Path repository, String ref) {
+                String message = "遠端已有更新且無法 fast-forward，請手動處理後重試。";
+                try (Git git = open(repository)) {
+                        ObjectId target = git.getRepository().resolve(ref);
+                        if (target == null) {
+                                throw new GitOperationException(message, "merge --ff-only " + ref, "", "找不到參照 " + ref);
+                        }
+                        MergeResult result = git.merge().include(target).setFastForward(MergeCommand.FastForwardMode.FF_ONLY)
+                                        .call();
+                        if (!result.getMergeStatus().isSuccessful()) {
+                                throw new GitOperationException(message, "merge --ff-only " + ref, "",
+                                                result.getMergeStatus().toString());
+                        }
+                } catch (GitAPIException | IOException exception) {
+                        throw failure(message, "merge --ff-only " + ref, exception);
+                }
+        }
+
+        @Override
+        public void add(Path repository, String pathspec) {
+                try (Git git = open(repository)) {
+                        git.add().addFilepattern(pathspec).call();
+                        git.add().addFilepattern(pathspec).setUpdate(true).call();
+                } catch (GitAPIException exception) {
+                        throw failure("無法加入變更", "add -- " + pathspec, exception);
+                }
+        }
+
+        @Override
+        public WorkingTreeStatus status(Path repository, String pathspec) {
+                try (Git git = open(repository)) {
+                        Status status = git.status().addPath(pathspec).call();
+                        String fullBranch = git.getRepository().getFullBranch();
+                        String branch = fullBranch != null && fullBranch.startsWith(Constants.R_HEADS)
+                                        ? Repository.shortenRefName(fullBranch)
+                                        : null;
+                        BranchTrackingStatus tracking = branch == null ? null
+                                        : BranchTrackingStatus.of(git.getRepository(), branch);
+                        boolean clean = status.getUntracked().isEmpty() && !status.hasUncommittedChanges();
+                        return new WorkingTreeStatus(branch, clean, tracking != null && tracking.getBehindCount() == 0);
+                } catch (GitAPIException | IOException exception) {
+                        throw failure("無法檢查變更狀態", "status -- " + pathspec, exception);
+                }
+        }
+
+        @Override
+        public void commit(Path repository, String message) {
+                try (Git git = open(repository)) {
+                        git.commit().setMessage(message).call();
+                } catch (GitAPIException exception) {
+                        throw failure("Commit 失敗", "commit", exception);
+                }
+        }
+
+        @Override
+        public void push(Path repository, String branch, boolean setUpstream) {
+                String errorMessage = setUpstream ? "無法推送新分支" : "Push 失敗";
+                try (Git git = open(repository)) {
+                        Iterable<PushResult> results = git.push().setRemote(REMOTE)
+                                        .setRefSpecs(new RefSpec(Constants.R_HEADS + branch + ":" + Constants.R_HEADS + branch))
+                                        .setCredentialsProvider(credentials()).setTimeout(timeoutSeconds("push"))
+                                        .setProgressMonitor(INTERRUPTIBLE).call();
+                        for (PushResult result : results) {
+                                for (RemoteRefUpdate update : result.getRemoteUpdates()) {
+                                        if (update.getStatus() != RemoteRefUpdate.Status.OK
+                                                        && update.getStatus() != RemoteRefUpdate.Status.UP_TO_DATE) {
+                                                throw new GitOperationException(errorMessage, "push " + REMOTE + " " + branch,
+                                                                result.getMessages(), update.getStatus() + " " + update.getMessage());
+                                        }
+                                }
+                        }
+                        if (setUpstream) {
+                                StoredConfig config = git.getRepository().getConfig();
+                                config.setString(ConfigConstants.CONFIG_BRANCH_SECTION, branch, ConfigConstants.CONFIG_KEY_REMOTE,
+                                                REMOTE);
+                                config.setString(ConfigConstants.CONFIG_BRANCH_SECTION, branch, ConfigConstants.CONFIG_KEY_MERGE,
+                                                Constants.R_HEADS + branch);
+                                config.save();
+                        }
+                } catch (GitAPIException | IOException exception) {
+                        throw failure(errorMessage, "push " + REMOTE + " " + branch, exception);
+                }
+        }
+
+        @Override
+        public void undoLastCommit(Path repository) {
+                try (Git git = open(repository)) {
+                        git.reset().setMode(ResetCommand.ResetType.SOFT).setRef(Constants.HEAD + "~1").call();
+                } catch (GitAPIException exception) {
+                        throw failure("無法復原本機 Commit", "reset --soft HEAD~1", exception);
+                }
+        }
+
+        private Git open(Path repository) {
+                try {
+                        return Git.open(repository.toFile());
+                } catch (IOException exception) {
+                        throw failure("無法開啟 Repository", "open " + repository, exception);
+                }
+        }
+
+        private int timeoutSeconds(String subcommand) {
+                return (int) Math.min(Integer.MAX_VALUE, timeouts.forSubcommand(subcommand).toSeconds());
+        }
+
+        private CredentialsProvider credentials() {
+                return new UsernamePasswordCredentialsProvider("pat", patService.requirePat());
+        }
+
+        private GitOperationException failure(String message, String command, Exception exception) {
+                return new GitOperationException(message, "jgit " + command, "", exception.getMessage());
+        }
+}
@@ -0,0 +1,89 @@
+package com.example.backend.git.engine;
+
+import com.example.backend.git.model.WorkingTreeStatus;
+import com.example.backend.git.service.GitMetrics;
+import java.nio.file.Path;
+import java.util.Optional;
+
+class MeteredGitEngine implements GitEngine {
+
+        private final GitEngine delegate;
+        private final GitMetrics gitMetrics;
+
+        MeteredGitEngine(GitEngine delegate, GitMetrics gitMetrics) {
+                this.delegate = delegate;
+                this.gitMetrics = gitMetrics;
+        }
+
+        @Override
+        public String name() {
+                return delegate.name();
+        }
+
+        @Override
+        public void cloneRepository(Path parentDirectory, String url, String folderName) {
+                gitMetrics.time(name(), "clone", parentDirectory.resolve(folderName),
+                                () -> delegate.cloneRepository(parentDirectory, url, folderName));
+        }
+
+        @Override
+        public void setConfig(Path repository, String key, String value) {
+                gitMetrics.time(name(), "config", repository, () -> delegate.setConfig(repository, key, value));
+        }
+
+        @Override
+        public Optional<String> remoteBranchHead(Path repository, String branch) {
+                return gitMetrics.time(name(), "ls-remote", repository, () -> delegate.remoteBranchHead(repository, branch));
+        }
+
+        @Override
+        public void fetch(Path repository, String branch) {
+                gitMetrics.time(name(), "fetch", repository, () -> delegate.fetch(repository, branch));
+        }
+
+        @Override
+        public Optional<String> resolveRef(Path repository, String ref) {
+                return gitMetrics.time(name(), "rev-parse", repository, () -> delegate.resolveRef(repository, ref));
+        }
+
+        @Override
+        public void checkout(Path repository, String branch) {
+                gitMetrics.time(name(), "checkout", repository, () -> delegate.checkout(repository, branch));
+        }
+
+        @Override
+        public void checkoutNewBranch(Path repository, String branch, String startPoint) {
+                gitMetrics.time(name(), "checkout", repository,
+                                () -> delegate.checkoutNewBranch(repository, branch, startPoint));
+        }
+
+        @Override
+        public void mergeFastForward(Path repository, String ref) {
+                gitMetrics.time(name(), "merge", repository, () -> delegate.mergeFastForward(repository, ref));
+        }
+
+        @Override
+        public void add(Path repository, String pathspec) {
+                gitMetrics.time(name(), "add", repository, () -> delegate.add(repository, pathspec));
+        }
+
+        @Override
+        public WorkingTreeStatus status(Path repository, String pathspec) {
+                return gitMetrics.time(name(), "status", repository, () -> delegate.status(repository, pathspec));
+        }
+
+        @Override
+        public void commit(Path repository, String message) {
+                gitMetrics.time(name(), "commit", repository, () -> delegate.commit(repository, message));
+        }
+
+        @Override
+        public void push(Path repository, String branch, boolean setUpstream) {
+                gitMetrics.time(name(), "push", repository, () -> delegate.push(repository, branch, setUpstream));
+        }
+
+        @Override
+        public void undoLastCommit(Path repository) {
+                gitMetrics.time(name(), "reset", repository, () -> delegate.undoLastCommit(repository));
+        }
+}
@@ -0,0 +1,84 @@
+package com.example.backend.git.engine;
+
+import com.example.backend.git.model.StatusSummary;
+import java.util.function.Consumer;
+
+/**
+ * 逐筆解析 {@code git status --porcelain=v2 -z --branch} 的紀錄，只累計計數，不保留檔案清單。
+ * 改名紀錄（{@code 2}）之後緊接一筆原始路徑，會直接略過。
+ */
+final class PorcelainStatusParser implements Consumer<String> {
+
+        private String branch;
+        private String upstream;
+        private Integer ahead;
+        private Integer behind;
+        private int changedFiles;
+        private int staged;
+        private int unstaged;
+        private int untracked;
+        private int conflicted;
+        private boolean skipOriginalPath;
+
+        @Override
+        public void accept(String record) {
+                if (skipOriginalPath) {
+                        skipOriginalPath = false;
+                        return;
+                }
+                if (record.isEmpty()) {
+                        return;
+                }
+                switch (record.charAt(0)) {
+                        case '#' -> header(record);
+                        case '1' -> changed(record);
+                        case '2' -> {
+                                changed(record);
+                                skipOriginalPath = true;
+                        }
+                        case 'u' -> {
+                                changedFiles++;
+                                conflicted++;
+                        }
+                        case '?' -> {
+                                changedFiles++;
+                                untracked++;
+                        }
+                        default -> {
+                        }
+                }
+        }
+
+        StatusSummary result() {
+                return new StatusSummary(branch, upstream, ahead, behind, changedFiles, staged, unstaged, untracked,
+                                conflicted);
+        }
+
+        private void header(String record) {
+                if (record.startsWith("# branch.head ")) {
+                        String head = record.substring("# branch.head ".length());
+                        branch = "(detached)".equals(head) ? null : head;
+                } else if (record.startsWith("# branch.upstream ")) {
+                        upstream = record.substring("# branch.upstream ".length());
+                } else if (record.startsWith("# branch.ab ")) {
+                        String[] counts = record.substring("# branch.ab ".length()).split(" ");
+                        if (counts.length == 2) {
+                                ahead = Math.abs(Integer.parseInt(counts[0]));
+                                behind = Math.abs(Integer.parseInt(counts[1]));
+                        }
+                }
+        }
+
+        private void changed(String record) {
+                changedFiles++;
+                if (record.length() < 4) {
+                        return;
+                }
+                if (record.charAt(2) != '.') {
+                        staged++;
+                }
+                if (record.charAt(3) != '.') {
+                        unstaged++;
+                }
+        }
+}
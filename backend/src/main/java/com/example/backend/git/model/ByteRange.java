@@ -0,0 +1,8 @@
+package com.example.backend.git.model;
+
+public record ByteRange(long start, long end) {
+
+        public long length() {
+                return end - start;
+        }
+}
@@ -0,0 +1,15 @@
+package com.example.backend.git.model;
+
+import java.util.List;
+
+/**
+ * 一段依路徑排序的變更清單：files 為游標之後的前幾筆，remaining 為游標之後的總筆數，
+ * total / insertions / deletions 為整個範圍的統計。
+ */
+public record ChangeListing(
+                List<ChangedFile> files,
+                int remaining,
+                int total,
+                long insertions,
+                long deletions) {
+}
@@ -0,0 +1,10 @@
+package com.example.backend.git.model;
+
+public record ChangedFile(
+                String path,
+                String status,
+                Integer insertions,
+                Integer deletions,
+                boolean binary,
+                boolean untracked) {
+}
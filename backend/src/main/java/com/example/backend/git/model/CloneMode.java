@@ -0,0 +1,7 @@
+package com.example.backend.git.model;
+
+public enum CloneMode {
+        FULL,
+        SPARSE,
+        WORKTREE
+}
@@ -0,0 +1,4 @@
+package com.example.backend.git.model;
+
+public record FileDiff(String diff, boolean binary, boolean truncated) {
+}
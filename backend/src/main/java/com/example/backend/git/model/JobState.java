@@ -0,0 +1,13 @@
+package com.example.backend.git.model;
+
+public enum JobState {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED,
+        CANCELLED;
+
+        public boolean isFinished() {
+                return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+}
@@ -0,0 +1,10 @@
+package com.example.backend.git.model;
+
+import com.example.backend.git.dto.CommandTiming;
+import com.example.backend.git.dto.StepTiming;
+import java.time.Instant;
+import java.util.List;
+
+public record OperationRecord(Instant finishedAt, String repoId, String operation, JobState outcome, long durationMillis,
+                List<StepTiming> steps, List<CommandTiming> commands, long transferredBytes, String error) {
+}
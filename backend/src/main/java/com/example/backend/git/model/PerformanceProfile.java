@@ -0,0 +1,6 @@
+package com.example.backend.git.model;
+
+public enum PerformanceProfile {
+        STANDARD,
+        LARGE
+}
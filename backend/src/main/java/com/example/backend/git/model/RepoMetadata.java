@@ -1,7 +1,23 @@
 package com.example.backend.git.model;
 
 import java.time.Instant;
+import java.util.List;
 
 public record RepoMetadata(String url, String project, String repository, String branch, String branchFolder,
-                Instant createdAt) {
+                Instant createdAt, CloneMode cloneMode, List<String> sparsePaths, PerformanceProfile profile,
+                String baseRepository) {
+
+        public RepoMetadata withSparsePaths(List<String> paths) {
+                return new RepoMetadata(url, project, repository, branch, branchFolder, createdAt, cloneMode, List.copyOf(paths),
+                                profile, baseRepository);
+        }
+
+        public RepoMetadata withProfile(PerformanceProfile value) {
+                return new RepoMetadata(url, project, repository, branch, branchFolder, createdAt, cloneMode, sparsePaths, value,
+                                baseRepository);
+        }
+
+        public PerformanceProfile effectiveProfile() {
+                return profile != null ? profile : PerformanceProfile.STANDARD;
+        }
 }
@@ -0,0 +1,21 @@
+package com.example.backend.git.model;
+
+public record StatusSummary(
+                String branch,
+                String upstream,
+                Integer ahead,
+                Integer behind,
+                int changedFiles,
+                int staged,
+                int unstaged,
+                int untracked,
+                int conflicted) {
+
+        public boolean clean() {
+                return changedFiles == 0;
+        }
+
+        public WorkingTreeStatus toWorkingTreeStatus() {
+                return new WorkingTreeStatus(branch, clean(), behind != null && behind == 0);
+        }
+}
@@ -0,0 +1,12 @@
+package com.example.backend.git.model;
+
+import java.time.Instant;
+import java.util.List;
+
+public record UploadSessionState(String id, String repoId, String path, long size, String sha256,
+                List<ByteRange> received, Instant createdAt, Instant updatedAt) {
+
+        public UploadSessionState withReceived(List<ByteRange> ranges, Instant now) {
+                return new UploadSessionState(id, repoId, path, size, sha256, List.copyOf(ranges), createdAt, now);
+        }
+}
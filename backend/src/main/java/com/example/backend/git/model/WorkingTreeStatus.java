@@ -0,0 +1,4 @@
+package com.example.backend.git.model;
+
+public record WorkingTreeStatus(String branch, boolean clean, boolean upToDateWithUpstream) {
+}
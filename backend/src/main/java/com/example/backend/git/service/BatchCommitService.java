@@ -0,0 +1,137 @@
+package com.example.backend.git.service;
+
+import com.example.backend.error.InvalidRequestException;
+import com.example.backend.git.dto.BatchCommitItem;
+import com.example.backend.git.dto.BatchCommitRequest;
+import com.example.backend.git.dto.BatchCommitResponse;
+import com.example.backend.git.dto.CommitRequest;
+import com.example.backend.git.dto.CommitResponse;
+import com.example.backend.git.model.JobState;
+import com.example.backend.git.model.RepoMetadata;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+@Service
+public class BatchCommitService {
+
+        private static final Logger logger = LoggerFactory.getLogger(BatchCommitService.class);
+
+        private final RepoService repoService;
+        private final RepoMetadataIndex repoMetadataIndex;
+        private final OperationHistory operationHistory;
+        private final int defaultParallelism;
+        private final int maxParallelism;
+
+        public BatchCommitService(RepoService repoService, RepoMetadataIndex repoMetadataIndex,
+                        OperationHistory operationHistory, @Value("${git-uploader.batch.parallelism:4}") int defaultParallelism,
+                        @Value("${git-uploader.batch.max-parallelism:16}") int maxParallelism) {
+                this.repoService = repoService;
+                this.repoMetadataIndex = repoMetadataIndex;
+                this.operationHistory = operationHistory;
+                this.defaultParallelism = defaultParallelism;
+                this.maxParallelism = maxParallelism;
+        }
+
+        public List<String> resolveTargets(BatchCommitRequest request) {
+                if (request.repoIds() != null && !request.repoIds().isEmpty()) {
+                        return List.copyOf(new LinkedHashSet<>(request.repoIds()));
+                }
+                if (!StringUtils.hasText(request.project()) && !StringUtils.hasText(request.branch())) {
+                        throw new InvalidRequestException("請指定 Repository 清單或 project / branch 篩選條件");
+                }
+                List<String> repoIds = new ArrayList<>();
+                repoMetadataIndex.entries().forEach((repoId, metadata) -> {
+                        if (matches(metadata, request)) {
+                                repoIds.add(repoId);
+                        }
+                });
+                if (repoIds.isEmpty()) {
+                        throw new InvalidRequestException("沒有符合條件的 Repository");
+                }
+                return repoIds;
+        }
+
+        public BatchCommitResponse commitAndPush(List<String> repoIds, BatchCommitRequest request,
+                        OperationTracker tracker) {
+                int requested = request.parallelism() != null ? request.parallelism() : defaultParallelism;
+                int parallelism = Math.max(1, Math.min(requested, maxParallelism));
+                CommitRequest commitRequest = new CommitRequest(request.message());
+                Semaphore permits = new Semaphore(parallelism);
+                long started = System.nanoTime();
+                logger.info("Starting batch commitAndPush for {} repositories with parallelism {}", repoIds.size(),
+                                parallelism);
+
+                List<BatchCommitItem> results = new ArrayList<>();
+                try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                        List<Future<BatchCommitItem>> futures = repoIds.stream()
+                                        .map(repoId -> executor.submit(() -> commitOne(repoId, commitRequest, permits, tracker)))
+                                        .toList();
+                        for (int index = 0; index < futures.size(); index++) {
+                                results.add(await(repoIds.get(index), futures.get(index)));
+                        }
+                }
+
+                int succeeded = (int) results.stream().filter(BatchCommitItem::success).count();
+                return new BatchCommitResponse(results.size(), succeeded, results.size() - succeeded, parallelism,
+                                (System.nanoTime() - started) / 1_000_000, results);
+        }
+
+        private BatchCommitItem commitOne(String repoId, CommitRequest commitRequest, Semaphore permits,
+                        OperationTracker tracker) {
+                try {
+                        permits.acquire();
+                } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        return new BatchCommitItem(repoId, false, false, "批次作業已中斷", 0, List.of());
+                }
+                OperationTracker repoTracker = new OperationTracker();
+                long started = System.nanoTime();
+                try {
+                        CommitResponse response = tracker.step("commit:" + repoId, () -> repoTracker
+                                        .attach(() -> repoService.commitAndPush(repoId, commitRequest, repoTracker)));
+                        long durationMillis = (System.nanoTime() - started) / 1_000_000;
+                        operationHistory.record(repoId, "commit-and-push", repoTracker, JobState.SUCCEEDED, durationMillis,
+                                        null);
+                        return new BatchCommitItem(repoId, true, response.committed(), response.message(), durationMillis,
+                                        repoTracker.getSteps());
+                } catch (RuntimeException exception) {
+                        logger.warn("Batch commitAndPush failed for repository {}: {}", repoId, exception.getMessage());
+                        long durationMillis = (System.nanoTime() - started) / 1_000_000;
+                        operationHistory.record(repoId, "commit-and-push", repoTracker, JobState.FAILED, durationMillis,
+                                        exception.getMessage());
+                        return new BatchCommitItem(repoId, false, false, exception.getMessage(), durationMillis,
+                                        repoTracker.getSteps());
+                } finally {
+                        permits.release();
+                }
+        }
+
+        private BatchCommitItem await(String repoId, Future<BatchCommitItem> future) {
+                try {
+                        return future.get();
+                } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        return new BatchCommitItem(repoId, false, false, "批次作業已中斷", 0, List.of());
+                } catch (ExecutionException exception) {
+                        return new BatchCommitItem(repoId, false, false, exception.getCause().getMessage(), 0, List.of());
+                }
+        }
+
+        private boolean matches(RepoMetadata metadata, BatchCommitRequest request) {
+                if (StringUtils.hasText(request.project()) && !request.project().trim().equalsIgnoreCase(metadata.project())) {
+                        return false;
+                }
+                return !StringUtils.hasText(request.branch()) || request.branch().trim().equalsIgnoreCase(metadata.branch());
+        }
+}
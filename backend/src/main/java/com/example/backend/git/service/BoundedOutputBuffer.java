@@ -0,0 +1,78 @@
+package com.example.backend.git.service;
+
+import java.nio.charset.StandardCharsets;
+
+final class BoundedOutputBuffer {
+
+        private final byte[] head;
+        private final byte[] tail;
+        private int headLength;
+        private int tailStart;
+        private int tailLength;
+        private long totalBytes;
+
+        BoundedOutputBuffer(int headCapacity, int tailCapacity) {
+                this.head = new byte[headCapacity];
+                this.tail = new byte[tailCapacity];
+        }
+
+        synchronized void write(byte[] buffer, int offset, int length) {
+                totalBytes += length;
+                int toHead = Math.min(length, head.length - headLength);
+                if (toHead > 0) {
+                        System.arraycopy(buffer, offset, head, headLength, toHead);
+                        headLength += toHead;
+                        offset += toHead;
+                        length -= toHead;
+                }
+                if (length <= 0 || tail.length == 0) {
+                        return;
+                }
+                if (length >= tail.length) {
+                        System.arraycopy(buffer, offset + length - tail.length, tail, 0, tail.length);
+                        tailStart = 0;
+                        tailLength = tail.length;
+                        return;
+                }
+                int writePosition = (tailStart + tailLength) % tail.length;
+                int firstPart = Math.min(length, tail.length - writePosition);
+                System.arraycopy(buffer, offset, tail, writePosition, firstPart);
+                System.arraycopy(buffer, offset + firstPart, tail, 0, length - firstPart);
+                int overflow = tailLength + length - tail.length;
+                if (overflow > 0) {
+                        tailStart = (tailStart + overflow) % tail.length;
+                        tailLength = tail.length;
+                } else {
+                        tailLength += length;
+                }
+        }
+
+        synchronized long getTotalBytes() {
+                return totalBytes;
+        }
+
+        synchronized boolean isTruncated() {
+                return totalBytes > headLength + tailLength;
+        }
+
+        @Override
+        public synchronized String toString() {
+                long skipped = totalBytes - headLength - tailLength;
+                if (skipped == 0) {
+                        byte[] combined = new byte[headLength + tailLength];
+                        System.arraycopy(head, 0, combined, 0, headLength);
+                        copyTail(combined, headLength);
+                        return new String(combined, StandardCharsets.UTF_8);
+                }
+                byte[] ordered = new byte[tailLength];
+                copyTail(ordered, 0);
+                return new String(head, 0, headLength, StandardCharsets.UTF_8) + "\n...（省略 " + skipped + " bytes）...\n"
+                                + new String(ordered, StandardCharsets.UTF_8);
+        }
+
+        private void copyTail(byte[] target, int offset) {
+                int firstPart = Math.min(tailLength, tail.length - tailStart);
+                System.arraycopy(tail, tailStart, target, offset, firstPart);
+                System.arraycopy(tail, 0, target, offset + firstPart, tailLength - firstPart);
+        }
+}
@@ -0,0 +1,219 @@
+package com.example.backend.git.service;
+
+import com.example.backend.error.InvalidRequestException;
+import com.example.backend.git.dto.ChangePreviewResponse;
+import com.example.backend.git.dto.FileDiffResponse;
+import com.example.backend.git.engine.CliGitEngine;
+import com.example.backend.git.model.ChangeListing;
+import com.example.backend.git.model.ChangedFile;
+import com.example.backend.git.model.FileDiff;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 預覽 commit-and-push 會提交的內容：提交範圍內已追蹤檔案相對 HEAD 的變更加上未追蹤的新檔案。
+ * git 輸出逐筆解析，只保留目前頁面的檔案；下一頁以游標（上一頁最後一個路徑）接續。
+ */
+@Service
+public class ChangePreviewService {
+
+        private static final int MAX_PAGE_SIZE = 1000;
+        private static final int BINARY_SNIFF_BYTES = 8000;
+        private static final long LINE_COUNT_LIMIT_BYTES = 16L * 1024 * 1024;
+
+        private final RepoService repoService;
+        private final CliGitEngine cliGitEngine;
+        private final int defaultDiffBytes;
+        private final int maxDiffBytes;
+
+        public ChangePreviewService(RepoService repoService, CliGitEngine cliGitEngine,
+                        @Value("${git-uploader.preview.diff-bytes:256KB}") DataSize defaultDiffBytes,
+                        @Value("${git-uploader.preview.max-diff-bytes:4MB}") DataSize maxDiffBytes) {
+                this.repoService = repoService;
+                this.cliGitEngine = cliGitEngine;
+                this.maxDiffBytes = (int) Math.min(Integer.MAX_VALUE - 8, maxDiffBytes.toBytes());
+                this.defaultDiffBytes = (int) Math.min(this.maxDiffBytes, defaultDiffBytes.toBytes());
+        }
+
+        public ChangePreviewResponse changes(String repoId, String cursor, int limit) {
+                if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                        throw new InvalidRequestException("每頁筆數需介於 1 到 " + MAX_PAGE_SIZE + " 之間");
+                }
+                Path repoDirectory = repoService.requireRepository(repoId);
+                String scope = repoService.resolveCommitScope(repoId);
+                String after = decodeCursor(cursor);
+                ChangeListing tracked = cliGitEngine.trackedChanges(repoDirectory, scope, after, limit);
+                ChangeListing untracked = cliGitEngine.untrackedFiles(repoDirectory, scope, after, limit);
+
+                List<ChangedFile> files = merge(tracked.files(), untracked.files(), limit);
+                List<ChangedFile> page = new ArrayList<>(files.size());
+                for (ChangedFile file : files) {
+                        page.add(file.untracked() ? describeUntracked(repoDirectory, file) : file);
+                }
+                boolean hasMore = tracked.remaining() + untracked.remaining() > page.size();
+                String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1).path()) : null;
+                return new ChangePreviewResponse(repoId, scope, tracked.total() + untracked.total(), tracked.insertions(),
+                                tracked.deletions(), List.copyOf(page), nextCursor);
+        }
+
+        public FileDiffResponse diff(String repoId, String path, Integer maxBytes) {
+                if (!StringUtils.hasText(path)) {
+                        throw new InvalidRequestException("請指定要預覽的檔案路徑");
+                }
+                int limit = maxBytes == null ? defaultDiffBytes : maxBytes;
+                if (limit < 1 || limit > maxDiffBytes) {
+                        throw new InvalidRequestException("maxBytes 需介於 1 到 " + maxDiffBytes + " 之間");
+                }
+                Path repoDirectory = repoService.requireRepository(repoId);
+                Path scopeDirectory = repoDirectory.resolve(repoService.resolveCommitScope(repoId)).normalize();
+                Path file;
+                try {
+                        file = repoDirectory.resolve(path).normalize();
+                } catch (InvalidPathException exception) {
+                        throw new InvalidRequestException("檔案路徑格式錯誤: " + path);
+                }
+                if (!file.startsWith(scopeDirectory) || file.equals(scopeDirectory)) {
+                        throw new InvalidRequestException("只能預覽提交範圍內的檔案: " + path);
+                }
+                String relativePath = repoDirectory.relativize(file).toString().replace('\\', '/');
+                boolean regularFile = Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS);
+                boolean exists = regularFile || Files.isSymbolicLink(file);
+                if (exists && !parentInside(scopeDirectory, file)) {
+                        throw new InvalidRequestException("只能預覽提交範圍內的檔案: " + path);
+                }
+                boolean newFile = !cliGitEngine.existsInHead(repoDirectory, relativePath);
+                if (newFile && !exists) {
+                        throw new InvalidRequestException("檔案沒有變更: " + relativePath);
+                }
+                // 符號連結交給 git 以連結本身（目標路徑）比較，不讀取它指向的檔案
+                if (regularFile && isBinary(file)) {
+                        return new FileDiffResponse(repoId, relativePath, true, false, "");
+                }
+                FileDiff diff = cliGitEngine.fileDiff(repoDirectory, relativePath, newFile, limit);
+                return new FileDiffResponse(repoId, relativePath, diff.binary(), diff.truncated(),
+                                diff.binary() ? "" : diff.diff());
+        }
+
+        /**
+         * 上層目錄可能是指向提交範圍外的符號連結，以實際路徑確認檔案仍位於提交範圍內。
+         */
+        private static boolean parentInside(Path scopeDirectory, Path file) {
+                try {
+                        return file.getParent().toRealPath().startsWith(scopeDirectory.toRealPath());
+                } catch (IOException exception) {
+                        return false;
+                }
+        }
+
+        private static List<ChangedFile> merge(List<ChangedFile> first, List<ChangedFile> second, int limit) {
+                List<ChangedFile> merged = new ArrayList<>(Math.min(limit, first.size() + second.size()));
+                int left = 0;
+                int right = 0;
+                while (merged.size() < limit && (left < first.size() || right < second.size())) {
+                        if (right >= second.size() || (left < first.size()
+                                        && compare(first.get(left).path(), second.get(right).path()) <= 0)) {
+                                merged.add(first.get(left++));
+                        } else {
+                                merged.add(second.get(right++));
+                        }
+                }
+                return merged;
+        }
+
+        private static int compare(String left, String right) {
+                return Arrays.compareUnsigned(left.getBytes(StandardCharsets.UTF_8), right.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private ChangedFile describeUntracked(Path repoDirectory, ChangedFile file) {
+                Path path;
+                try {
+                        path = repoDirectory.resolve(file.path());
+                } catch (InvalidPathException exception) {
+                        return file;
+                }
+                if (Files.isSymbolicLink(path)) {
+                        // 與 git diff --numstat 相同，新增的符號連結計為一行（連結目標）
+                        return new ChangedFile(file.path(), file.status(), 1, 0, false, true);
+                }
+                if (!Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS)) {
+                        return file;
+                }
+                if (isBinary(path)) {
+                        return new ChangedFile(file.path(), file.status(), null, null, true, true);
+                }
+                Integer lines = countLines(path);
+                return new ChangedFile(file.path(), file.status(), lines, lines == null ? null : 0, false, true);
+        }
+
+        /**
+         * 與 git 相同的判斷方式：前 8000 個位元組內出現 NUL 即視為二進位檔，不讀取其餘內容。
+         */
+        private static boolean isBinary(Path file) {
+                try (InputStream input = Files.newInputStream(file, LinkOption.NOFOLLOW_LINKS)) {
+                        byte[] head = input.readNBytes(BINARY_SNIFF_BYTES);
+                        for (byte value : head) {
+                                if (value == 0) {
+                                        return true;
+                                }
+                        }
+                        return false;
+                } catch (IOException exception) {
+                        return false;
+                }
+        }
+
+        private static Integer countLines(Path file) {
+                try {
+                        if (Files.size(file) > LINE_COUNT_LIMIT_BYTES) {
+                                return null;
+                        }
+                        int lines = 0;
+                        int last = '\n';
+                        byte[] buffer = new byte[8192];
+                        try (InputStream input = Files.newInputStream(file, LinkOption.NOFOLLOW_LINKS)) {
+                                int read;
+                                while ((read = input.read(buffer)) != -1) {
+                                        for (int index = 0; index < read; index++) {
+                                                if (buffer[index] == '\n') {
+                                                        lines++;
+                                                }
+                                        }
+                                        if (read > 0) {
+                                                last = buffer[read - 1];
+                                        }
+                                }
+                        }
+                        return last == '\n' ? lines : lines + 1;
+                } catch (IOException exception) {
+                        return null;
+                }
+        }
+
+        private static String encodeCursor(String path) {
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(path.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static String decodeCursor(String cursor) {
+                if (!StringUtils.hasText(cursor)) {
+                        return null;
+                }
+                try {
+                        return new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+                } catch (IllegalArgumentException exception) {
+                        throw new InvalidRequestException("分頁游標格式錯誤");
+                }
+        }
+}
@@ -0,0 +1,195 @@
+package com.example.backend.git.service;
+
+import com.example.backend.error.GitOperationException;
+import com.example.backend.git.dto.CommitRequest;
+import com.example.backend.git.dto.CommitResponse;
+import com.example.backend.git.dto.JobResponse;
+import com.example.backend.git.model.JobState;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 將同一 Repository 在 coalesce-window 內送達的 commit-and-push 請求合併為一次 Commit 與一次 Push。
+ * 每個批次只在工作執行緒池佔用一個執行緒：它等到視窗結束後代表整批提交；各請求登記為不佔執行緒的工作，
+ * 批次完成時取得相同結果，視窗結束前取消的請求會從批次撤回。工作指標與作業歷程每個批次只記錄一次。
+ */
+@Component
+public class CommitCoalescer {
+
+        private static final Logger logger = LoggerFactory.getLogger(CommitCoalescer.class);
+        private static final String JOB_TYPE = "commit-and-push";
+
+        private final RepoService repoService;
+        private final JobService jobService;
+        private final Duration window;
+        private final int maxRequests;
+        private final Map<String, Batch> openBatches = new ConcurrentHashMap<>();
+
+        public CommitCoalescer(RepoService repoService, JobService jobService,
+                        @Value("${git-uploader.commit.coalesce-window:0s}") Duration window,
+                        @Value("${git-uploader.commit.coalesce-max-requests:50}") int maxRequests) {
+                this.repoService = repoService;
+                this.jobService = jobService;
+                this.window = window;
+                this.maxRequests = Math.max(1, maxRequests);
+        }
+
+        public JobResponse submit(String repoId, CommitRequest request) {
+                if (window.isZero() || window.isNegative()) {
+                        return jobService.submit(JOB_TYPE, repoId, tracker -> repoService.commitAndPush(repoId, request, tracker));
+                }
+                Ticket ticket = enqueue(repoId, request);
+                return jobService.follow(JOB_TYPE, repoId, ticket.batch.tracker, ticket.result,
+                                () -> withdraw(ticket.batch, ticket));
+        }
+
+        private Ticket enqueue(String repoId, CommitRequest request) {
+                synchronized (openBatches) {
+                        Batch batch = openBatches.get(repoId);
+                        if (batch == null || batch.requests.size() >= maxRequests) {
+                                Batch created = new Batch(repoId, System.nanoTime() + window.toNanos());
+                                jobService.dispatch(() -> run(created));
+                                batch = created;
+                                openBatches.put(repoId, batch);
+                        }
+                        Ticket ticket = new Ticket(request, batch);
+                        batch.requests.add(ticket);
+                        return ticket;
+                }
+        }
+
+        private void run(Batch batch) {
+                try {
+                        batch.tracker.step("coalesce", () -> awaitDeadline(batch));
+                } catch (GitOperationException exception) {
+                        close(batch).forEach(ticket -> ticket.result.completeExceptionally(exception));
+                        record(batch, Instant.now(), JobState.FAILED, exception.getMessage());
+                        return;
+                }
+                List<Ticket> requests = close(batch);
+                if (requests.isEmpty()) {
+                        logger.info("All coalesced commit requests for repository {} were cancelled", batch.repoId);
+                        return;
+                }
+                CommitRequest combined = combine(requests);
+                if (requests.size() > 1) {
+                        logger.info("Coalesced {} commit requests for repository: {}", requests.size(), batch.repoId);
+                }
+                Instant started = Instant.now();
+                try {
+                        CommitResponse response = batch.tracker
+                                        .attach(() -> repoService.commitAndPush(batch.repoId, combined, batch.tracker));
+                        if (requests.size() > 1 && response.committed()) {
+                                response = new CommitResponse(true,
+                                                response.message() + "此 Commit 合併了 " + requests.size() + " 個提交請求。",
+                                                response.remoteAgeMillis(), response.lfsFiles(), response.lfsBytes(),
+                                                response.pushAttempts(), requests.size(), response.steps(),
+                                                response.skippedSteps());
+                        }
+                        CommitResponse result = response;
+                        record(batch, started, JobState.SUCCEEDED, null);
+                        requests.forEach(ticket -> ticket.result.complete(result));
+                } catch (RuntimeException exception) {
+                        record(batch, started, JobState.FAILED, exception.getMessage());
+                        requests.forEach(ticket -> ticket.result.completeExceptionally(exception));
+                }
+        }
+
+        /**
+         * 排隊時間為批次建立到開始提交（包含合併視窗），執行時間只計算提交本身。
+         */
+        private void record(Batch batch, Instant started, JobState state, String error) {
+                jobService.record(JOB_TYPE, batch.repoId, batch.tracker, state, Duration.between(batch.createdAt, started),
+                                Duration.between(started, Instant.now()), error);
+        }
+
+        private void awaitDeadline(Batch batch) {
+                try {
+                        long remaining = batch.deadline - System.nanoTime();
+                        if (remaining > 0) {
+                                TimeUnit.NANOSECONDS.sleep(remaining);
+                        }
+                } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        throw new GitOperationException("等待合併提交時已被取消", JOB_TYPE, "", "");
+                }
+        }
+
+        private List<Ticket> close(Batch batch) {
+                synchronized (openBatches) {
+                        openBatches.remove(batch.repoId, batch);
+                        batch.closed = true;
+                        return List.copyOf(batch.requests);
+                }
+        }
+
+        /**
+         * 視窗結束前取消的請求從批次移除並以取消結束；批次已開始提交時無法撤回，請求照常取得提交結果。
+         */
+        private void withdraw(Batch batch, Ticket ticket) {
+                synchronized (openBatches) {
+                        if (batch.closed || !batch.requests.remove(ticket)) {
+                                return;
+                        }
+                }
+                ticket.result.cancel(false);
+        }
+
+        private static CommitRequest combine(List<Ticket> requests) {
+                Set<String> messages = new LinkedHashSet<>();
+                Boolean rebaseRetry = null;
+                for (Ticket ticket : requests) {
+                        messages.add(ticket.request.message().trim());
+                        if (rebaseRetry == null) {
+                                rebaseRetry = ticket.request.rebaseRetry();
+                        }
+                }
+                List<String> lines = new ArrayList<>(messages);
+                String message = lines.get(0);
+                if (lines.size() > 1) {
+                        message += lines.subList(1, lines.size()).stream().map(line -> "- " + line)
+                                        .collect(Collectors.joining("\n", "\n\n", ""));
+                }
+                return new CommitRequest(message, rebaseRetry);
+        }
+
+        private static final class Ticket {
+
+                private final CommitRequest request;
+                private final Batch batch;
+                private final CompletableFuture<CommitResponse> result = new CompletableFuture<>();
+
+                private Ticket(CommitRequest request, Batch batch) {
+                        this.request = request;
+                        this.batch = batch;
+                }
+        }
+
+        private static final class Batch {
+
+                private final String repoId;
+                private final long deadline;
+                private final Instant createdAt = Instant.now();
+                private final OperationTracker tracker = new OperationTracker();
+                private final List<Ticket> requests = new ArrayList<>();
+                private boolean closed;
+
+                private Batch(String repoId, long deadline) {
+                        this.repoId = repoId;
+                        this.deadline = deadline;
+                }
+        }
+}
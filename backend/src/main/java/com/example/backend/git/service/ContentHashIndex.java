@@ -0,0 +1,109 @@
+package com.example.backend.git.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ContentHashIndex {
+
+        private static final Logger logger = LoggerFactory.getLogger(ContentHashIndex.class);
+        private static final int READ_BUFFER_BYTES = 1024 * 1024;
+
+        private final Map<Path, CachedHash> hashes = new ConcurrentHashMap<>();
+
+        public Optional<Path> findDuplicate(Path folder, long size, String sha256) {
+                if (!Files.isDirectory(folder)) {
+                        return Optional.empty();
+                }
+                try (Stream<Path> files = Files.walk(folder)) {
+                        return files.filter(Files::isRegularFile)
+                                        .filter(file -> !Files.isSymbolicLink(file))
+                                        .filter(file -> sizeOf(file) == size)
+                                        .filter(file -> sha256.equals(hashOf(file).orElse(null)))
+                                        .findFirst();
+                } catch (IOException | RuntimeException exception) {
+                        logger.debug("Duplicate lookup failed in {}: {}", folder, exception.getMessage());
+                        return Optional.empty();
+                }
+        }
+
+        /**
+         * file 目前的內容是否仍為 sha256；大小與修改時間未變時直接使用快取的雜湊。
+         */
+        public boolean matches(Path file, long size, String sha256) {
+                return Files.isRegularFile(file) && sizeOf(file) == size && sha256.equals(hashOf(file).orElse(null));
+        }
+
+        public void remember(Path file, String sha256) {
+                try {
+                        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        hashes.put(file, new CachedHash(attributes.size(), attributes.lastModifiedTime().toMillis(), sha256));
+                } catch (IOException exception) {
+                        hashes.remove(file);
+                }
+        }
+
+        public static String sha256(Path file) throws IOException {
+                MessageDigest digest = newDigest();
+                ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                        while (channel.read(buffer) != -1) {
+                                buffer.flip();
+                                digest.update(buffer);
+                                buffer.clear();
+                        }
+                }
+                return HexFormat.of().formatHex(digest.digest());
+        }
+
+        public static MessageDigest newDigest() {
+                try {
+                        return MessageDigest.getInstance("SHA-256");
+                } catch (NoSuchAlgorithmException exception) {
+                        throw new IllegalStateException(exception);
+                }
+        }
+
+        private Optional<String> hashOf(Path file) {
+                try {
+                        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        long modified = attributes.lastModifiedTime().toMillis();
+                        CachedHash cached = hashes.get(file);
+                        if (cached != null && cached.size() == attributes.size() && cached.modified() == modified) {
+                                return Optional.of(cached.sha256());
+                        }
+                        String sha256 = sha256(file);
+                        hashes.put(file, new CachedHash(attributes.size(), modified, sha256));
+                        return Optional.of(sha256);
+                } catch (IOException exception) {
+                        hashes.remove(file);
+                        return Optional.empty();
+                }
+        }
+
+        private long sizeOf(Path file) {
+                try {
+                        return Files.size(file);
+                } catch (IOException exception) {
+                        return -1;
+                }
+        }
+
+        private record CachedHash(long size, long modified, String sha256) {
+        }
+}
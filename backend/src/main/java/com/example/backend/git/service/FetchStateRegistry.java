@@ -0,0 +1,35 @@
+package com.example.backend.git.service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FetchStateRegistry {
+
+        private final Map<String, Instant> lastFetched = new ConcurrentHashMap<>();
+        private final Map<String, Instant> lastActive = new ConcurrentHashMap<>();
+
+        public void recordFetch(String repoId) {
+                lastFetched.put(repoId, Instant.now());
+        }
+
+        public Optional<Instant> lastFetch(String repoId) {
+                return Optional.ofNullable(lastFetched.get(repoId));
+        }
+
+        public void markActive(String repoId) {
+                lastActive.put(repoId, Instant.now());
+        }
+
+        public Optional<Instant> lastActive(String repoId) {
+                return Optional.ofNullable(lastActive.get(repoId));
+        }
+
+        public void forget(String repoId) {
+                lastFetched.remove(repoId);
+                lastActive.remove(repoId);
+        }
+}
@@ -0,0 +1,255 @@
+package com.example.backend.git.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 以 OS 檔案鎖（{@link FileChannel#lock()}）協調共用 repos/ 目錄的多個 git-uploader 節點。
+ * Repository 鎖定以 repos/.locks 下的租約檔表示：持有者定期續約，逾期未續約的租約視為失效並可由其他節點接手；
+ * OS 檔案鎖只在讀寫租約檔的瞬間持有。PAT 與 metadata 等共用檔案以同一機制鎖定後原子替換。
+ */
+@Service
+public class FileLockService {
+
+        private static final Logger logger = LoggerFactory.getLogger(FileLockService.class);
+        private static final Map<Path, Object> MONITORS = new ConcurrentHashMap<>();
+
+        private final Path locksRoot;
+        private final boolean leasesEnabled;
+        private final Duration leaseTimeout;
+        private final Duration renewInterval;
+        private final String nodeId;
+        private final Map<String, Lease> heldLeases = new ConcurrentHashMap<>();
+        private ScheduledExecutorService renewer;
+
+        public FileLockService(WorkspaceService workspaceService,
+                        @Value("${git-uploader.locks.file-leases:true}") boolean leasesEnabled,
+                        @Value("${git-uploader.locks.lease-timeout:2m}") Duration leaseTimeout,
+                        @Value("${git-uploader.locks.renew-interval:30s}") Duration renewInterval) {
+                this.locksRoot = workspaceService.getReposRoot().resolve(".locks");
+                this.leasesEnabled = leasesEnabled;
+                this.leaseTimeout = leaseTimeout;
+                this.renewInterval = renewInterval;
+                this.nodeId = ProcessHandle.current().pid() + "@" + hostName() + "/"
+                                + UUID.randomUUID().toString().substring(0, 8);
+                try {
+                        Files.createDirectories(locksRoot);
+                } catch (IOException exception) {
+                        throw new IllegalStateException("無法建立鎖定目錄: " + exception.getMessage(), exception);
+                }
+        }
+
+        @PostConstruct
+        void start() {
+                if (!leasesEnabled || renewInterval.isZero() || renewInterval.isNegative()) {
+                        return;
+                }
+                renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "file-lease-renewer");
+                        thread.setDaemon(true);
+                        return thread;
+                });
+                renewer.scheduleWithFixedDelay(this::renewAll, renewInterval.toMillis(), renewInterval.toMillis(),
+                                TimeUnit.MILLISECONDS);
+                logger.info("File leases enabled for node {} (timeout {}, renew every {})", nodeId, leaseTimeout,
+                                renewInterval);
+        }
+
+        @PreDestroy
+        void stop() {
+                if (renewer != null) {
+                        renewer.shutdownNow();
+                }
+                heldLeases.values().forEach(Lease::close);
+        }
+
+        public String nodeId() {
+                return nodeId;
+        }
+
+        /**
+         * 嘗試取得名為 name 的跨節點租約；租約由其他節點持有且尚未逾期時回傳 empty。停用租約時一律成功。
+         */
+        public Optional<Lease> tryAcquireLease(String name) {
+                if (!leasesEnabled) {
+                        return Optional.of(new Lease(this, name, null));
+                }
+                Path file = locksRoot.resolve(fileName(name) + ".lease");
+                long now = System.currentTimeMillis();
+                LeaseState[] previous = new LeaseState[1];
+                LeaseState state = update(file, current -> {
+                        previous[0] = current;
+                        if (current == null || current.expiresAt() < now || current.owner().equals(nodeId)) {
+                                return new LeaseState(nodeId, now + leaseTimeout.toMillis());
+                        }
+                        return current;
+                });
+                if (!state.owner().equals(nodeId)) {
+                        return Optional.empty();
+                }
+                if (previous[0] != null && !previous[0].owner().equals(nodeId)) {
+                        logger.warn("Recovered expired lease {} from {}", name, previous[0].owner());
+                }
+                Lease lease = new Lease(this, name, file);
+                heldLeases.put(name, lease);
+                return Optional.of(lease);
+        }
+
+        public Optional<String> leaseOwner(String name) {
+                Path file = locksRoot.resolve(fileName(name) + ".lease");
+                if (!leasesEnabled || !Files.exists(file)) {
+                        return Optional.empty();
+                }
+                LeaseState state = update(file, UnaryOperator.identity());
+                return state == null || state.expiresAt() < System.currentTimeMillis() ? Optional.empty()
+                                : Optional.of(state.owner());
+        }
+
+        /**
+         * 在跨節點的檔案鎖保護下寫入暫存檔後原子替換 target，其他節點不會讀到寫到一半的內容。
+         */
+        public void writeAtomically(Path target, String lockName, byte[] content) throws IOException {
+                Path lockFile = locksRoot.resolve(fileName(lockName) + ".lock");
+                synchronized (monitor(lockFile)) {
+                        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+                                        StandardOpenOption.WRITE); FileLock lock = channel.lock()) {
+                                Path temporary = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+                                try {
+                                        Files.write(temporary, content);
+                                        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE,
+                                                        StandardCopyOption.REPLACE_EXISTING);
+                                } finally {
+                                        Files.deleteIfExists(temporary);
+                                }
+                        }
+                }
+        }
+
+        private void renewAll() {
+                for (Lease lease : heldLeases.values()) {
+                        try {
+                                long expiresAt = System.currentTimeMillis() + leaseTimeout.toMillis();
+                                LeaseState state = update(lease.file, current -> current != null && current.owner().equals(nodeId)
+                                                ? new LeaseState(nodeId, expiresAt) : current);
+                                if (state == null || !state.owner().equals(nodeId)) {
+                                        logger.warn("Lease {} was taken over by {}", lease.name, state == null ? "nobody" : state.owner());
+                                        heldLeases.remove(lease.name, lease);
+                                }
+                        } catch (RuntimeException exception) {
+                                logger.warn("Unable to renew lease {}: {}", lease.name, exception.getMessage());
+                        }
+                }
+        }
+
+        private void release(Lease lease) {
+                if (lease.file == null) {
+                        return;
+                }
+                heldLeases.remove(lease.name, lease);
+                try {
+                        update(lease.file, current -> current != null && current.owner().equals(nodeId) ? null : current);
+                } catch (RuntimeException exception) {
+                        logger.warn("Unable to release lease {}: {}", lease.name, exception.getMessage());
+                }
+        }
+
+        private LeaseState update(Path file, UnaryOperator<LeaseState> change) {
+                synchronized (monitor(file)) {
+                        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                        StandardOpenOption.WRITE); FileLock lock = channel.lock()) {
+                                LeaseState current = read(channel);
+                                LeaseState next = change.apply(current);
+                                if (!Objects.equals(current, next)) {
+                                        channel.truncate(0);
+                                        if (next != null) {
+                                                channel.write(ByteBuffer.wrap((next.owner() + "\n" + next.expiresAt() + "\n")
+                                                                .getBytes(StandardCharsets.UTF_8)), 0);
+                                        }
+                                        channel.force(false);
+                                }
+                                return next;
+                        } catch (IOException exception) {
+                                throw new IllegalStateException("無法存取鎖定檔 " + file.getFileName() + ": " + exception.getMessage(),
+                                                exception);
+                        }
+                }
+        }
+
+        private static LeaseState read(FileChannel channel) throws IOException {
+                ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), 4096));
+                int read;
+                do {
+                        read = channel.read(buffer, buffer.position());
+                } while (read > 0 && buffer.hasRemaining());
+                String[] lines = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).split("\n");
+                if (lines.length < 2 || lines[0].isBlank()) {
+                        return null;
+                }
+                try {
+                        return new LeaseState(lines[0].trim(), Long.parseLong(lines[1].trim()));
+                } catch (NumberFormatException exception) {
+                        return null;
+                }
+        }
+
+        private Object monitor(Path file) {
+                return MONITORS.computeIfAbsent(file, key -> new Object());
+        }
+
+        private static String fileName(String name) {
+                return name.replaceAll("[^A-Za-z0-9._-]", "_");
+        }
+
+        private static String hostName() {
+                try {
+                        return InetAddress.getLocalHost().getHostName();
+                } catch (IOException exception) {
+                        return "unknown";
+                }
+        }
+
+        private record LeaseState(String owner, long expiresAt) {
+        }
+
+        public static final class Lease implements AutoCloseable {
+
+                private final FileLockService owner;
+                private final String name;
+                private final Path file;
+
+                private Lease(FileLockService owner, String name, Path file) {
+                        this.owner = owner;
+                        this.name = name;
+                        this.file = file;
+                }
+
+                @Override
+                public void close() {
+                        owner.release(this);
+                }
+        }
+}
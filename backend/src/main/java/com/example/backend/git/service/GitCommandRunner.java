@@ -1,16 +1,25 @@
 package com.example.backend.git.service;
 
 import com.example.backend.error.GitOperationException;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
@@ -18,8 +27,45 @@ import org.springframework.util.StringUtils;
 public class GitCommandRunner {
 
         private static final Logger logger = LoggerFactory.getLogger(GitCommandRunner.class);
+        private static final int READ_BUFFER_SIZE = 8192;
+        private static final int MAX_LINE_BYTES = 8192;
+        private static final long DRAIN_GRACE_MILLIS = 5000;
+        private static final Pattern TRANSFER_SUMMARY = Pattern
+                        .compile("(?:Writing|Receiving) objects: 100% \\(\\d+/\\d+\\), ([0-9.]+) (bytes|KiB|MiB|GiB)");
+
+        private final int captureBytes;
+        private final GitMetrics gitMetrics;
+        private final GitTimeouts timeouts;
+        private final Map<Process, RunningCommand> runningCommands = new ConcurrentHashMap<>();
+
+        public GitCommandRunner(@Value("${git-uploader.git.output-capture-bytes:32768}") int captureBytes,
+                        GitMetrics gitMetrics, GitTimeouts timeouts) {
+                this.captureBytes = captureBytes;
+                this.gitMetrics = gitMetrics;
+                this.timeouts = timeouts;
+        }
 
         public CommandResult run(Path workingDirectory, List<String> command, Map<String, String> environmentOverrides) {
+                return run(workingDirectory, command, environmentOverrides, null);
+        }
+
+        public CommandResult run(Path workingDirectory, List<String> command, Map<String, String> environmentOverrides,
+                        LineListener lineListener) {
+                return execute(workingDirectory, command, environmentOverrides, lineListener, null);
+        }
+
+        /**
+         * 執行 git 指令並把 stdout 原始位元組依讀取順序交給 outputListener 增量處理，不需等待或保留完整輸出；
+         * 結果中的 stdout 僅為截斷後的摘要。listener 回傳 false 時提前終止指令並視為成功（{@code stoppedEarly}）；
+         * listener 丟出例外時停止傳遞後續輸出，並在指令結束後重新丟出。
+         */
+        public CommandResult stream(Path workingDirectory, List<String> command, Map<String, String> environmentOverrides,
+                        OutputListener outputListener) {
+                return execute(workingDirectory, command, environmentOverrides, null, outputListener);
+        }
+
+        private CommandResult execute(Path workingDirectory, List<String> command, Map<String, String> environmentOverrides,
+                        LineListener lineListener, OutputListener outputListener) {
                 logger.info("Running command: {} in directory: {}", String.join(" ", command), workingDirectory);
                 ProcessBuilder builder = new ProcessBuilder(command);
                 if (workingDirectory != null) {
@@ -31,42 +77,124 @@ public class GitCommandRunner {
                         environment.putAll(environmentOverrides);
                 }
                 builder.redirectErrorStream(false);
+                String subcommand = GitMetrics.subcommand(command);
+                String repo = "clone".equals(subcommand) ? command.get(command.size() - 1)
+                                : GitMetrics.repoTag(workingDirectory);
+                Duration timeout = timeouts.forSubcommand(subcommand);
+                GitMetrics.Sample sample = gitMetrics.start("cli", subcommand, repo);
+                String exitLabel = "error";
+                Process process = null;
+                RunningCommand running = null;
                 try {
-                        Process process = builder.start();
-                        String stdout = readFully(process.getInputStream());
-                        String stderr = readFully(process.getErrorStream());
+                        process = builder.start();
+                        running = new RunningCommand(repo, String.join(" ", command), Instant.now(), process);
+                        runningCommands.put(process, running);
+                        process.getOutputStream().close();
+                        BoundedOutputBuffer stdout = new BoundedOutputBuffer(captureBytes / 2, captureBytes / 2);
+                        BoundedOutputBuffer stderr = new BoundedOutputBuffer(captureBytes / 2, captureBytes / 2);
+                        AtomicReference<RuntimeException> listenerFailure = new AtomicReference<>();
+                        RunningCommand current = running;
+                        Thread stdoutDrainer = drain(process.getInputStream(), stdout, Channel.STDOUT, lineListener,
+                                        outputListener, listenerFailure, () -> current.terminate(Outcome.STOPPED));
+                        Thread stderrDrainer = drain(process.getErrorStream(), stderr, Channel.STDERR, lineListener, null,
+                                        listenerFailure, null);
+                        if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                                running.terminate(Outcome.TIMEOUT);
+                        }
                         int exitCode = process.waitFor();
-                        logger.info("Command finished with exit code: {}", exitCode);
-                        if (StringUtils.hasText(stdout)) {
-                            logger.info("Stdout:\n{}", stdout);
+                        stdoutDrainer.join(DRAIN_GRACE_MILLIS);
+                        stderrDrainer.join(DRAIN_GRACE_MILLIS);
+                        boolean stopped = running.outcome == Outcome.STOPPED;
+                        CommandResult result = new CommandResult(exitCode, stdout.toString().trim(), stderr.toString().trim(),
+                                        new ArrayList<>(command), stdout.getTotalBytes(), stderr.getTotalBytes(), stopped);
+                        if (running.outcome != null && !stopped) {
+                                exitLabel = running.outcome.label;
+                                String message = running.outcome == Outcome.TIMEOUT
+                                                ? "git " + subcommand + " 執行超過 " + timeout.toSeconds() + " 秒，已強制終止"
+                                                : "git " + subcommand + " 已被取消";
+                                logger.warn("{}: {}", message, result.getCommandLine());
+                                throw gitMetrics.recordFailure(new GitOperationException(message, result.getCommandLine(),
+                                                result.stdout(), result.stderr()), running.outcome.failureType);
+                        }
+                        exitLabel = stopped ? Outcome.STOPPED.label : String.valueOf(exitCode);
+                        if (listenerFailure.get() != null) {
+                                throw listenerFailure.get();
+                        }
+                        gitMetrics.recordOutput(subcommand, result.stdoutBytes(), result.stderrBytes());
+                        long transferred = transferredBytes(result.stderr());
+                        if (transferred > 0) {
+                                OperationTracker.current().ifPresent(tracker -> tracker.addTransferredBytes(transferred));
                         }
-                        if (StringUtils.hasText(stderr)) {
-                            logger.warn("Stderr:\n{}", stderr);
+                        logger.info("Command finished with exit code: {}{} (stdout {} bytes, stderr {} bytes)", exitCode,
+                                        stopped ? " after output was no longer needed" : "", result.stdoutBytes(),
+                                        result.stderrBytes());
+                        if (StringUtils.hasText(result.stdout())) {
+                                logger.debug("Stdout:\n{}", result.stdout());
                         }
-                        return new CommandResult(exitCode, stdout, stderr, new ArrayList<>(command));
+                        if (StringUtils.hasText(result.stderr())) {
+                                if (result.isSuccess()) {
+                                        logger.debug("Stderr:\n{}", result.stderr());
+                                } else {
+                                        logger.warn("Stderr:\n{}", result.stderr());
+                                }
+                        }
+                        return result;
                 } catch (InterruptedException exception) {
+                        if (running != null) {
+                                running.terminate(Outcome.CANCELLED);
+                        }
+                        exitLabel = Outcome.CANCELLED.label;
                         Thread.currentThread().interrupt();
                         throw new GitOperationException("執行 git 指令被中斷", String.join(" ", command), "",
                                         exception.getMessage());
                 } catch (IOException exception) {
                         throw new GitOperationException("執行 git 指令失敗: " + exception.getMessage(),
                                         String.join(" ", command), "", exception.getMessage());
+                } finally {
+                        if (process != null) {
+                                runningCommands.remove(process);
+                        }
+                        gitMetrics.stop(sample, exitLabel);
                 }
         }
 
+        /**
+         * 終止指定 Repository 目前執行中的所有 git 指令（含其子程序），回傳被終止的指令數量。
+         */
+        public int cancel(String repoId) {
+                int cancelled = 0;
+                for (RunningCommand running : runningCommands.values()) {
+                        if (running.repo.equals(repoId)) {
+                                running.terminate(Outcome.CANCELLED);
+                                cancelled++;
+                        }
+                }
+                return cancelled;
+        }
+
+        public List<RunningCommandInfo> runningCommands(String repoId) {
+                return runningCommands.values().stream().filter(running -> running.repo.equals(repoId))
+                                .map(running -> new RunningCommandInfo(running.commandLine, running.startedAt)).toList();
+        }
+
         public void runAndEnsureSuccess(Path workingDirectory, List<String> command,
                         Map<String, String> environmentOverrides, String errorMessage) {
                 CommandResult result = run(workingDirectory, command, environmentOverrides);
                 if (!result.isSuccess()) {
-                        throw new GitOperationException(errorMessage, result.getCommandLine(), result.stdout(),
-                                        result.stderr());
+                        throw failure(result, errorMessage);
                 }
         }
 
-        public record CommandResult(int exitCode, String stdout, String stderr, List<String> command) {
+        public GitOperationException failure(CommandResult result, String errorMessage) {
+                return gitMetrics.recordFailure(new GitOperationException(errorMessage, result.getCommandLine(),
+                                result.stdout(), result.stderr()));
+        }
+
+        public record CommandResult(int exitCode, String stdout, String stderr, List<String> command, long stdoutBytes,
+                        long stderrBytes, boolean stoppedEarly) {
 
                 public boolean isSuccess() {
-                        return exitCode == 0;
+                        return exitCode == 0 || stoppedEarly;
                 }
 
                 public String getCommandLine() {
@@ -74,12 +202,143 @@ public class GitCommandRunner {
                 }
         }
 
-        private String readFully(InputStream inputStream) throws IOException {
-                byte[] buffer = inputStream.readAllBytes();
-                if (buffer.length == 0) {
-                        return "";
+        public record RunningCommandInfo(String commandLine, Instant startedAt) {
+        }
+
+        public enum Channel {
+                STDOUT,
+                STDERR
+        }
+
+        @FunctionalInterface
+        public interface LineListener {
+
+                void onLine(Channel channel, String line);
+        }
+
+        @FunctionalInterface
+        public interface OutputListener {
+
+                /**
+                 * 回傳 false 表示不再需要後續輸出。
+                 */
+                boolean onOutput(byte[] buffer, int length);
+        }
+
+        private enum Outcome {
+                TIMEOUT("timeout", GitMetrics.FailureType.TIMEOUT),
+                CANCELLED("cancelled", GitMetrics.FailureType.CANCELLED),
+                STOPPED("stopped", null);
+
+                private final String label;
+                private final GitMetrics.FailureType failureType;
+
+                Outcome(String label, GitMetrics.FailureType failureType) {
+                        this.label = label;
+                        this.failureType = failureType;
+                }
+        }
+
+        private static final class RunningCommand {
+
+                private final String repo;
+                private final String commandLine;
+                private final Instant startedAt;
+                private final Process process;
+                private volatile Outcome outcome;
+
+                private RunningCommand(String repo, String commandLine, Instant startedAt, Process process) {
+                        this.repo = repo;
+                        this.commandLine = commandLine;
+                        this.startedAt = startedAt;
+                        this.process = process;
+                }
+
+                private void terminate(Outcome reason) {
+                        if (outcome == null) {
+                                outcome = reason;
+                        }
+                        List<ProcessHandle> descendants = process.descendants().toList();
+                        process.destroyForcibly();
+                        descendants.forEach(ProcessHandle::destroyForcibly);
+                }
+        }
+
+        private Thread drain(InputStream inputStream, BoundedOutputBuffer capture, Channel channel,
+                        LineListener lineListener, OutputListener outputListener, AtomicReference<RuntimeException> failure,
+                        Runnable stop) {
+                return Thread.ofVirtual().name("git-" + channel.name().toLowerCase()).start(() -> {
+                        ByteArrayOutputStream line = lineListener == null ? null : new ByteArrayOutputStream();
+                        byte[] buffer = new byte[READ_BUFFER_SIZE];
+                        boolean stopped = false;
+                        try (inputStream) {
+                                int read;
+                                while ((read = inputStream.read(buffer)) != -1) {
+                                        capture.write(buffer, 0, read);
+                                        if (outputListener != null && failure.get() == null && !stopped) {
+                                                try {
+                                                        if (!outputListener.onOutput(buffer, read)) {
+                                                                stopped = true;
+                                                                stop.run();
+                                                        }
+                                                } catch (RuntimeException exception) {
+                                                        failure.compareAndSet(null, exception);
+                                                }
+                                        }
+                                        if (line != null) {
+                                                splitLines(buffer, read, line, channel, lineListener);
+                                        }
+                                }
+                                if (line != null && line.size() > 0) {
+                                        emitLine(line, channel, lineListener);
+                                }
+                        } catch (IOException exception) {
+                                logger.debug("Stopped reading {}: {}", channel, exception.getMessage());
+                        }
+                });
+        }
+
+        private void splitLines(byte[] buffer, int length, ByteArrayOutputStream line, Channel channel,
+                        LineListener lineListener) {
+                for (int index = 0; index < length; index++) {
+                        byte value = buffer[index];
+                        if (value == '\n' || value == '\r') {
+                                if (line.size() > 0) {
+                                        emitLine(line, channel, lineListener);
+                                }
+                                continue;
+                        }
+                        line.write(value);
+                        if (line.size() >= MAX_LINE_BYTES) {
+                                emitLine(line, channel, lineListener);
+                        }
+                }
+        }
+
+        private void emitLine(ByteArrayOutputStream line, Channel channel, LineListener lineListener) {
+                String text = line.toString(StandardCharsets.UTF_8);
+                line.reset();
+                try {
+                        lineListener.onLine(channel, text);
+                } catch (RuntimeException exception) {
+                        logger.debug("Line listener failed: {}", exception.getMessage());
+                }
+        }
+
+        static long transferredBytes(String stderr) {
+                Matcher matcher = TRANSFER_SUMMARY.matcher(stderr);
+                long bytes = 0;
+                while (matcher.find()) {
+                        double amount = Double.parseDouble(matcher.group(1));
+                        int shift = switch (matcher.group(2)) {
+                                case "KiB" -> 10;
+                                case "MiB" -> 20;
+                                case "GiB" -> 30;
+                                default -> 0;
+                        };
+                        bytes = Math.round(amount * (1L << shift));
                 }
-                return new String(buffer, StandardCharsets.UTF_8).trim();
+                return bytes;
         }
 
         public List<String> command(String... parts) {
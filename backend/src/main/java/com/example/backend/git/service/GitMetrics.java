@@ -0,0 +1,160 @@
+package com.example.backend.git.service;
+
+import com.example.backend.error.GitOperationException;
+import com.example.backend.git.model.JobState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+@Component
+public class GitMetrics {
+
+        private final MeterRegistry registry;
+        private final Map<String, AtomicInteger> inFlight;
+
+        public GitMetrics(MeterRegistry registry) {
+                this.registry = registry;
+                this.inFlight = Map.of("clone", new AtomicInteger(), "push", new AtomicInteger());
+                inFlight.forEach((subcommand, counter) -> Gauge.builder("git.command.active", counter, AtomicInteger::get)
+                                .description("執行中的 git 指令數量").tag("subcommand", subcommand).register(registry));
+        }
+
+        public Sample start(String engine, String subcommand, String repo) {
+                AtomicInteger counter = inFlight.get(subcommand);
+                if (counter != null) {
+                        counter.incrementAndGet();
+                }
+                return new Sample(Timer.start(registry), engine, subcommand, repo);
+        }
+
+        public void stop(Sample sample, String exitCode) {
+                AtomicInteger counter = inFlight.get(sample.subcommand());
+                if (counter != null) {
+                        counter.decrementAndGet();
+                }
+                long nanos = sample.timer().stop(Timer.builder("git.command").description("git 指令執行時間")
+                                .tag("engine", sample.engine()).tag("subcommand", sample.subcommand())
+                                .tag("exit", exitCode).tag("repo", sample.repo()).register(registry));
+                OperationTracker.current().ifPresent(
+                                tracker -> tracker.recordCommand(sample.subcommand(), exitCode, nanos / 1_000_000));
+        }
+
+        public <T> T time(String engine, String subcommand, Path repository, Supplier<T> action) {
+                Sample sample = start(engine, subcommand, repoTag(repository));
+                String exitCode = "error";
+                try {
+                        T result = action.get();
+                        exitCode = "0";
+                        return result;
+                } catch (GitOperationException exception) {
+                        throw recordFailure(exception);
+                } finally {
+                        stop(sample, exitCode);
+                }
+        }
+
+        public void time(String engine, String subcommand, Path repository, Runnable action) {
+                time(engine, subcommand, repository, () -> {
+                        action.run();
+                        return null;
+                });
+        }
+
+        public void recordOutput(String subcommand, long stdoutBytes, long stderrBytes) {
+                outputSummary(subcommand, "stdout").record(stdoutBytes);
+                outputSummary(subcommand, "stderr").record(stderrBytes);
+        }
+
+        public GitOperationException recordFailure(GitOperationException exception) {
+                return recordFailure(exception, FailureType.of(exception));
+        }
+
+        public GitOperationException recordFailure(GitOperationException exception, FailureType type) {
+                Counter.builder("git.operation.failures").description("GitOperationException 發生次數")
+                                .tag("subcommand", subcommand(Arrays.asList(exception.getCommand().split(" "))))
+                                .tag("type", type.label).register(registry).increment();
+                return exception;
+        }
+
+        public void recordJob(String type, JobState state, Duration queued, Duration execution) {
+                Timer.builder("git.job.queued").description("背景工作排隊時間").tag("type", type).register(registry)
+                                .record(queued);
+                Timer.builder("git.job").description("背景工作執行時間").tag("type", type).tag("state", state.name())
+                                .register(registry).record(execution);
+        }
+
+        public void recordStuckJob(String type) {
+                Counter.builder("git.job.stuck").description("執行時間超過預期的背景工作數量").tag("type", type)
+                                .register(registry).increment();
+        }
+
+        public static String subcommand(List<String> command) {
+                for (int index = 1; index < command.size(); index++) {
+                        String part = command.get(index);
+                        if (part.equals("-c") || part.equals("-C")) {
+                                index++;
+                        } else if (!part.startsWith("-")) {
+                                return part;
+                        }
+                }
+                return "unknown";
+        }
+
+        public static String repoTag(Path directory) {
+                if (directory == null || directory.getFileName() == null) {
+                        return "none";
+                }
+                return directory.getFileName().toString();
+        }
+
+        private DistributionSummary outputSummary(String subcommand, String stream) {
+                return DistributionSummary.builder("git.command.output").description("git 指令輸出大小").baseUnit("bytes")
+                                .tag("subcommand", subcommand).tag("stream", stream).register(registry);
+        }
+
+        /**
+         * git.operation.failures 的 type 標籤只使用固定的幾種值，不取自錯誤訊息（訊息含秒數、次數等變動內容）。
+         */
+        public enum FailureType {
+                TIMEOUT("timeout"),
+                CANCELLED("cancelled"),
+                REJECTED("rejected"),
+                AUTH("auth"),
+                OTHER("other");
+
+                private static final List<String> REJECTED_MARKERS = List.of("rejected", "non-fast-forward", "fetch first");
+                private static final List<String> AUTH_MARKERS = List.of("authentication failed", "could not read username",
+                                "terminal prompts disabled", "not authorized", "returned error: 401", "returned error: 403");
+
+                private final String label;
+
+                FailureType(String label) {
+                        this.label = label;
+                }
+
+                static FailureType of(GitOperationException exception) {
+                        String output = (exception.getStderr() + "\n" + exception.getStdout()).toLowerCase(Locale.ROOT);
+                        if (AUTH_MARKERS.stream().anyMatch(output::contains)) {
+                                return AUTH;
+                        }
+                        if (REJECTED_MARKERS.stream().anyMatch(output::contains)) {
+                                return REJECTED;
+                        }
+                        return OTHER;
+                }
+        }
+
+        public record Sample(Timer.Sample timer, String engine, String subcommand, String repo) {
+        }
+}
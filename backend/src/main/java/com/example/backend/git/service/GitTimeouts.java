@@ -0,0 +1,38 @@
+package com.example.backend.git.service;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class GitTimeouts {
+
+        private final Duration clone;
+        private final Duration fetch;
+        private final Duration push;
+        private final Duration local;
+
+        public GitTimeouts(@Value("${git-uploader.git.timeouts.clone:1h}") Duration clone,
+                        @Value("${git-uploader.git.timeouts.fetch:10m}") Duration fetch,
+                        @Value("${git-uploader.git.timeouts.push:30m}") Duration push,
+                        @Value("${git-uploader.git.timeouts.local:10m}") Duration local) {
+                this.clone = clone;
+                this.fetch = fetch;
+                this.push = push;
+                this.local = local;
+        }
+
+        public static GitTimeouts defaults() {
+                return new GitTimeouts(Duration.ofHours(1), Duration.ofMinutes(10), Duration.ofMinutes(30),
+                                Duration.ofMinutes(10));
+        }
+
+        public Duration forSubcommand(String subcommand) {
+                return switch (subcommand) {
+                        case "clone" -> clone;
+                        case "fetch", "ls-remote", "pull" -> fetch;
+                        case "push" -> push;
+                        default -> local;
+                };
+        }
+}
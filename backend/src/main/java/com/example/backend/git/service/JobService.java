@@ -0,0 +1,306 @@
+package com.example.backend.git.service;
+
+import com.example.backend.error.GitOperationException;
+import com.example.backend.error.JobNotFoundException;
+import com.example.backend.error.JobRejectedException;
+import com.example.backend.git.dto.JobResponse;
+import com.example.backend.git.model.JobState;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class JobService {
+
+        private static final Logger logger = LoggerFactory.getLogger(JobService.class);
+
+        private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+        private final ThreadPoolExecutor executor;
+        private final Duration retention;
+        private final GitMetrics gitMetrics;
+        private final OperationHistory operationHistory;
+
+        public JobService(@Value("${git-uploader.jobs.pool-size:4}") int poolSize,
+                        @Value("${git-uploader.jobs.queue-capacity:50}") int queueCapacity,
+                        @Value("${git-uploader.jobs.retention:1h}") Duration retention, GitMetrics gitMetrics,
+                        OperationHistory operationHistory) {
+                AtomicInteger threadCounter = new AtomicInteger();
+                this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                                        Thread thread = new Thread(runnable, "git-job-" + threadCounter.incrementAndGet());
+                                        thread.setDaemon(true);
+                                        return thread;
+                                }, new ThreadPoolExecutor.AbortPolicy());
+                this.retention = retention;
+                this.gitMetrics = gitMetrics;
+                this.operationHistory = operationHistory;
+        }
+
+        public JobResponse submit(String type, String repoId, Function<OperationTracker, Object> work) {
+                evictExpired();
+                Job job = new Job(UUID.randomUUID().toString(), type, repoId);
+                jobs.put(job.id, job);
+                try {
+                        executor.execute(() -> execute(job, work));
+                } catch (RejectedExecutionException exception) {
+                        jobs.remove(job.id);
+                        throw new JobRejectedException("工作佇列已滿，請稍後再試");
+                }
+                logger.info("Submitted {} job {} for repository: {}", type, job.id, repoId);
+                return job.toResponse();
+        }
+
+        /**
+         * 登記一個不佔用工作執行緒的工作：由 result 完成時結束，進度顯示 tracker 的步驟。
+         * 結束前被取消時執行 onCancel，由呼叫端撤回工作並讓 result 以取消結束。
+         * 這類工作不記錄指標與作業歷程，由實際執行的一方以 {@link #record} 記錄一次。
+         */
+        public JobResponse follow(String type, String repoId, OperationTracker tracker, CompletableFuture<?> result,
+                        Runnable onCancel) {
+                evictExpired();
+                Job job = new Job(UUID.randomUUID().toString(), type, repoId, tracker, onCancel, false);
+                job.startedAt = Instant.now();
+                job.state = JobState.RUNNING;
+                jobs.put(job.id, job);
+                result.whenComplete((value, failure) -> {
+                        if (failure == null) {
+                                job.succeed(value);
+                        } else {
+                                fail(job, failure instanceof CompletionException && failure.getCause() != null
+                                                ? failure.getCause() : failure);
+                        }
+                        finished(job);
+                });
+                logger.info("Submitted {} job {} for repository: {}", type, job.id, repoId);
+                return job.toResponse();
+        }
+
+        /**
+         * 以工作執行緒池執行不對外顯示為工作的背景作業，佇列已滿時與 {@link #submit} 一樣拒絕。
+         */
+        public void dispatch(Runnable task) {
+                try {
+                        executor.execute(task);
+                } catch (RejectedExecutionException exception) {
+                        throw new JobRejectedException("工作佇列已滿，請稍後再試");
+                }
+        }
+
+        /**
+         * 記錄一次作業的工作指標與作業歷程。
+         */
+        public void record(String type, String repoId, OperationTracker tracker, JobState state, Duration queued,
+                        Duration execution, String error) {
+                gitMetrics.recordJob(type, state, queued, execution);
+                operationHistory.record(repoId, type, tracker, state, execution.toMillis(), error);
+        }
+
+        public JobResponse getJob(String jobId) {
+                Job job = jobs.get(jobId);
+                if (job == null) {
+                        throw new JobNotFoundException("找不到指定的工作: " + jobId);
+                }
+                return job.toResponse();
+        }
+
+        public JobResponse cancel(String jobId) {
+                Job job = jobs.get(jobId);
+                if (job == null) {
+                        throw new JobNotFoundException("找不到指定的工作: " + jobId);
+                }
+                job.cancel();
+                return job.toResponse();
+        }
+
+        public List<JobResponse> cancelRepository(String repoId) {
+                List<Job> active = jobs.values().stream()
+                                .filter(job -> repoId.equals(job.repoId) && !job.state.isFinished()).toList();
+                List<JobResponse> cancelled = new ArrayList<>(active.size());
+                for (Job job : active) {
+                        job.cancel();
+                        cancelled.add(job.toResponse());
+                }
+                return cancelled;
+        }
+
+        public List<JobResponse> activeJobs() {
+                return jobs.values().stream().filter(job -> !job.state.isFinished())
+                                .sorted(Comparator.comparing(job -> job.submittedAt)).map(Job::toResponse).toList();
+        }
+
+        /**
+         * 將執行超過 threshold 的工作標記為 stuck，只回傳本次新標記的工作，避免重複回報。
+         */
+        public List<JobResponse> markStuck(Duration threshold) {
+                Instant cutoff = Instant.now().minus(threshold);
+                List<Job> running = jobs.values().stream()
+                                .filter(job -> job.state == JobState.RUNNING && !job.stuck && job.startedAt.isBefore(cutoff))
+                                .toList();
+                List<JobResponse> marked = new ArrayList<>(running.size());
+                for (Job job : running) {
+                        job.stuck = true;
+                        marked.add(job.toResponse());
+                }
+                return marked;
+        }
+
+        @PreDestroy
+        void shutdown() {
+                executor.shutdownNow();
+        }
+
+        private void execute(Job job, Function<OperationTracker, Object> work) {
+                job.startedAt = Instant.now();
+                if (!job.start()) {
+                        job.finish(JobState.CANCELLED, "工作已取消", Map.of());
+                        logger.info("Job {} was cancelled before it started", job.id);
+                        return;
+                }
+                try {
+                        job.succeed(job.tracker.attach(() -> work.apply(job.tracker)));
+                } catch (RuntimeException exception) {
+                        fail(job, exception);
+                } finally {
+                        job.detach();
+                }
+                finished(job);
+        }
+
+        private void fail(Job job, Throwable exception) {
+                if (exception instanceof CancellationException) {
+                        job.fail("工作已取消", Map.of());
+                } else if (exception instanceof GitOperationException gitException) {
+                        Map<String, String> details = new LinkedHashMap<>();
+                        details.put("command", gitException.getCommand());
+                        if (gitException.getStdout() != null && !gitException.getStdout().isBlank()) {
+                                details.put("stdout", gitException.getStdout());
+                        }
+                        if (gitException.getStderr() != null && !gitException.getStderr().isBlank()) {
+                                details.put("stderr", gitException.getStderr());
+                        }
+                        job.fail(gitException.getMessage(), details);
+                } else {
+                        if (!job.cancelRequested) {
+                                logger.warn("Job {} failed", job.id, exception);
+                        }
+                        job.fail(exception.getMessage(), Map.of());
+                }
+        }
+
+        private void finished(Job job) {
+                if (job.recorded) {
+                        record(job.type, job.repoId, job.tracker, job.state, Duration.between(job.submittedAt, job.startedAt),
+                                        Duration.between(job.startedAt, job.finishedAt), job.error);
+                }
+                logger.info("Job {} finished with state: {}", job.id, job.state);
+        }
+
+        private void evictExpired() {
+                Instant threshold = Instant.now().minus(retention);
+                jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+        }
+
+        private static final class Job {
+
+                private final String id;
+                private final String type;
+                private final String repoId;
+                private final Instant submittedAt = Instant.now();
+                private final OperationTracker tracker;
+                private final Runnable onCancel;
+                private final boolean recorded;
+                private volatile JobState state = JobState.QUEUED;
+                private volatile Object result;
+                private volatile String error;
+                private volatile Map<String, String> errorDetails = Map.of();
+                private volatile Instant startedAt;
+                private volatile Instant finishedAt;
+                private volatile boolean stuck;
+                private volatile boolean cancelRequested;
+                private Thread worker;
+
+                private Job(String id, String type, String repoId) {
+                        this(id, type, repoId, new OperationTracker(), () -> {
+                        }, true);
+                }
+
+                private Job(String id, String type, String repoId, OperationTracker tracker, Runnable onCancel,
+                                boolean recorded) {
+                        this.id = id;
+                        this.type = type;
+                        this.repoId = repoId;
+                        this.tracker = tracker;
+                        this.onCancel = onCancel;
+                        this.recorded = recorded;
+                }
+
+                private synchronized boolean start() {
+                        if (cancelRequested) {
+                                return false;
+                        }
+                        worker = Thread.currentThread();
+                        state = JobState.RUNNING;
+                        return true;
+                }
+
+                private void cancel() {
+                        synchronized (this) {
+                                if (state.isFinished() || cancelRequested) {
+                                        return;
+                                }
+                                cancelRequested = true;
+                                if (worker != null) {
+                                        worker.interrupt();
+                                }
+                                logger.info("Cancellation requested for job {}", id);
+                        }
+                        onCancel.run();
+                }
+
+                private synchronized void detach() {
+                        worker = null;
+                        Thread.interrupted();
+                }
+
+                private void succeed(Object value) {
+                        this.result = value;
+                        finish(JobState.SUCCEEDED, null, Map.of());
+                }
+
+                private void fail(String message, Map<String, String> details) {
+                        finish(cancelRequested ? JobState.CANCELLED : JobState.FAILED, message, details);
+                }
+
+                private void finish(JobState finalState, String message, Map<String, String> details) {
+                        this.error = message;
+                        this.errorDetails = details;
+                        this.finishedAt = Instant.now();
+                        this.state = finalState;
+                }
+
+                private JobResponse toResponse() {
+                        return new JobResponse(id, type, repoId, state, tracker.getCurrentStep(), tracker.getSteps(), result,
+                                        error, errorDetails, submittedAt, startedAt, finishedAt, stuck);
+                }
+        }
+}
@@ -0,0 +1,165 @@
+package com.example.backend.git.service;
+
+import com.example.backend.error.InvalidRequestException;
+import com.example.backend.git.engine.CliGitEngine;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+public class LfsRouter {
+
+        private static final Logger logger = LoggerFactory.getLogger(LfsRouter.class);
+        private static final String ATTRIBUTES_FILE = ".gitattributes";
+        private static final String LFS_ATTRIBUTES = " filter=lfs diff=lfs merge=lfs -text";
+
+        private final CliGitEngine cliGitEngine;
+        private final boolean enabled;
+        private final long thresholdBytes;
+        private final Set<String> extensions;
+        private final int concurrentTransfers;
+        private final Set<Path> installed = ConcurrentHashMap.newKeySet();
+        private volatile Boolean available;
+
+        public LfsRouter(CliGitEngine cliGitEngine, @Value("${git-uploader.lfs.enabled:false}") boolean enabled,
+                        @Value("${git-uploader.lfs.threshold:50MB}") DataSize threshold,
+                        @Value("${git-uploader.lfs.extensions:}") List<String> extensions,
+                        @Value("${git-uploader.lfs.concurrent-transfers:8}") int concurrentTransfers) {
+                this.cliGitEngine = cliGitEngine;
+                this.enabled = enabled;
+                this.thresholdBytes = threshold.toBytes();
+                this.extensions = extensions.stream().map(extension -> extension.trim().replaceFirst("^\\*?\\.", ""))
+                                .filter(extension -> !extension.isEmpty()).map(extension -> extension.toLowerCase(Locale.ROOT))
+                                .collect(Collectors.toUnmodifiableSet());
+                this.concurrentTransfers = concurrentTransfers;
+        }
+
+        public boolean isEnabled() {
+                return enabled;
+        }
+
+        /**
+         * 找出提交範圍內符合大小或副檔名規則的檔案，啟用 Repository 的 LFS 並補齊 {@code .gitattributes}。
+         * 沒有符合的檔案或主機未安裝 git-lfs 時回傳 empty，呼叫端照一般流程提交。
+         */
+        public Optional<Map<String, Long>> prepare(Path repoDirectory, String commitScope) {
+                Path scopeDirectory = repoDirectory.resolve(commitScope);
+                Map<String, Long> candidates = candidates(scopeDirectory);
+                if (candidates.isEmpty()) {
+                        return Optional.empty();
+                }
+                if (!isAvailable()) {
+                        logger.warn("{} file(s) in {} match the LFS policy but git-lfs is not installed; committing as regular blobs",
+                                        candidates.size(), repoDirectory.getFileName());
+                        return Optional.empty();
+                }
+                if (installed.add(repoDirectory)) {
+                        try {
+                                cliGitEngine.installLfs(repoDirectory);
+                                cliGitEngine.setConfig(repoDirectory, "lfs.concurrenttransfers",
+                                                String.valueOf(concurrentTransfers));
+                        } catch (RuntimeException exception) {
+                                installed.remove(repoDirectory);
+                                throw exception;
+                        }
+                }
+                updateAttributes(scopeDirectory, candidates.keySet());
+                Map<String, Long> routed = new LinkedHashMap<>();
+                candidates.forEach((path, size) -> routed.put(commitScope + "/" + path, size));
+                return Optional.of(routed);
+        }
+
+        private Map<String, Long> candidates(Path scopeDirectory) {
+                Map<String, Long> candidates = new LinkedHashMap<>();
+                if (!Files.isDirectory(scopeDirectory)) {
+                        return candidates;
+                }
+                try (Stream<Path> files = Files.walk(scopeDirectory)) {
+                        files.filter(Files::isRegularFile)
+                                        .filter(file -> !file.getFileName().toString().equals(ATTRIBUTES_FILE))
+                                        .forEach(file -> {
+                                                long size = sizeOf(file);
+                                                if (size >= thresholdBytes || extensions.contains(extensionOf(file))) {
+                                                        candidates.put(scopeDirectory.relativize(file).toString().replace('\\', '/'),
+                                                                        size);
+                                                }
+                                        });
+                } catch (IOException exception) {
+                        throw new InvalidRequestException("無法掃描提交目錄: " + exception.getMessage());
+                }
+                return candidates;
+        }
+
+        private void updateAttributes(Path scopeDirectory, Set<String> paths) {
+                Path attributesFile = scopeDirectory.resolve(ATTRIBUTES_FILE);
+                try {
+                        String content = Files.exists(attributesFile) ? Files.readString(attributesFile, StandardCharsets.UTF_8)
+                                        : "";
+                        Set<String> existing = new LinkedHashSet<>(content.lines().toList());
+                        List<String> added = new ArrayList<>();
+                        for (String path : paths) {
+                                String extension = extensionOf(Path.of(path));
+                                String line = extensions.contains(extension)
+                                                ? "*." + escape(path.substring(path.length() - extension.length())) + LFS_ATTRIBUTES
+                                                : "/" + escape(path) + LFS_ATTRIBUTES;
+                                if (existing.add(line)) {
+                                        added.add(line);
+                                }
+                        }
+                        if (!added.isEmpty()) {
+                                String separator = content.isEmpty() || content.endsWith("\n") ? "" : "\n";
+                                Files.writeString(attributesFile, separator + String.join("\n", added) + "\n",
+                                                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                        }
+                } catch (IOException exception) {
+                        throw new InvalidRequestException("無法更新 .gitattributes: " + exception.getMessage());
+                }
+        }
+
+        private boolean isAvailable() {
+                Boolean result = available;
+                if (result == null) {
+                        Optional<String> version = cliGitEngine.lfsVersion();
+                        version.ifPresent(value -> logger.info("Using {}", value));
+                        result = version.isPresent();
+                        available = result;
+                }
+                return result;
+        }
+
+        private static String escape(String pattern) {
+                return pattern.replaceAll("([\\\\*?\\[])", "\\\\$1").replace(" ", "[[:space:]]");
+        }
+
+        private static String extensionOf(Path file) {
+                String name = file.getFileName().toString();
+                int dot = name.lastIndexOf('.');
+                return dot <= 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+        }
+
+        private static long sizeOf(Path file) {
+                try {
+                        return Files.size(file);
+                } catch (IOException exception) {
+                        return 0;
+                }
+        }
+}
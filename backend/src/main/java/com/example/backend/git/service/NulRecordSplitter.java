@@ -0,0 +1,68 @@
+package com.example.backend.git.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * 將 git {@code -z} 輸出依 NUL 切成紀錄並逐筆交給 consumer，只保留目前尚未結束的一筆。
+ * 超過 maxRecordBytes 的紀錄會截斷，其餘位元組略過直到下一個 NUL。
+ */
+public final class NulRecordSplitter implements GitCommandRunner.OutputListener {
+
+        private static final int DEFAULT_MAX_RECORD_BYTES = 64 * 1024;
+
+        private final Consumer<String> consumer;
+        private final int maxRecordBytes;
+        private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+        private boolean truncated;
+
+        public NulRecordSplitter(Consumer<String> consumer) {
+                this(consumer, DEFAULT_MAX_RECORD_BYTES);
+        }
+
+        public NulRecordSplitter(Consumer<String> consumer, int maxRecordBytes) {
+                this.consumer = consumer;
+                this.maxRecordBytes = maxRecordBytes;
+        }
+
+        @Override
+        public boolean onOutput(byte[] buffer, int length) {
+                int start = 0;
+                for (int index = 0; index < length; index++) {
+                        if (buffer[index] == 0) {
+                                append(buffer, start, index - start);
+                                emit();
+                                start = index + 1;
+                        }
+                }
+                append(buffer, start, length - start);
+                return true;
+        }
+
+        /**
+         * 輸出結束後呼叫，送出最後一筆沒有以 NUL 結尾的紀錄。
+         */
+        public void finish() {
+                if (record.size() > 0 || truncated) {
+                        emit();
+                }
+        }
+
+        private void append(byte[] buffer, int offset, int length) {
+                int accepted = Math.min(length, maxRecordBytes - record.size());
+                if (accepted > 0) {
+                        record.write(buffer, offset, accepted);
+                }
+                if (accepted < length) {
+                        truncated = true;
+                }
+        }
+
+        private void emit() {
+                String value = record.toString(StandardCharsets.UTF_8);
+                record.reset();
+                truncated = false;
+                consumer.accept(value);
+        }
+}
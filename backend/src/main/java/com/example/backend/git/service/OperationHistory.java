@@ -0,0 +1,252 @@
+package com.example.backend.git.service;
+
+import com.example.backend.git.dto.LatencyStatsResponse;
+import com.example.backend.git.model.JobState;
+import com.example.backend.git.model.OperationRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+@Service
+public class OperationHistory {
+
+        private static final Logger logger = LoggerFactory.getLogger(OperationHistory.class);
+        private static final String FILE_NAME = "operations.jsonl";
+
+        private final Path directory;
+        private final ObjectMapper objectMapper;
+        private final boolean enabled;
+        private final long maxFileBytes;
+        private final int maxFiles;
+        private final BlockingQueue<OperationRecord> queue;
+        private final Object fileLock = new Object();
+        private Thread writerThread;
+        private volatile boolean running;
+
+        public OperationHistory(WorkspaceService workspaceService, ObjectMapper objectMapper,
+                        @Value("${git-uploader.history.enabled:true}") boolean enabled,
+                        @Value("${git-uploader.history.max-file-size:10MB}") DataSize maxFileSize,
+                        @Value("${git-uploader.history.max-files:5}") int maxFiles,
+                        @Value("${git-uploader.history.queue-capacity:10000}") int queueCapacity) {
+                this.directory = workspaceService.getDataDirectory().resolve("history");
+                this.objectMapper = objectMapper;
+                this.enabled = enabled;
+                this.maxFileBytes = maxFileSize.toBytes();
+                this.maxFiles = Math.max(1, maxFiles);
+                this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        }
+
+        @PostConstruct
+        void start() {
+                if (!enabled) {
+                        logger.info("Operation history is disabled");
+                        return;
+                }
+                running = true;
+                writerThread = new Thread(this::writeLoop, "operation-history");
+                writerThread.setDaemon(true);
+                writerThread.start();
+        }
+
+        @PreDestroy
+        void stop() throws InterruptedException {
+                if (writerThread == null) {
+                        return;
+                }
+                running = false;
+                writerThread.interrupt();
+                writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        /**
+         * 將完成的作業排入背景寫入佇列，呼叫端不會等待磁碟 I/O；佇列已滿時捨棄並計數。
+         */
+        public void record(String repoId, String operation, OperationTracker tracker, JobState outcome, long durationMillis,
+                        String error) {
+                if (!running || repoId == null) {
+                        return;
+                }
+                OperationRecord record = new OperationRecord(Instant.now(), repoId, operation, outcome, durationMillis,
+                                tracker.getSteps(), tracker.getCommands(), tracker.getTransferredBytes(), error);
+                if (!queue.offer(record)) {
+                        logger.warn("Operation history queue is full, dropped {} for repository {}", operation, repoId);
+                }
+        }
+
+        public List<LatencyStatsResponse> latency(String repoId, String operation, Duration window) {
+                Instant since = Instant.now().minus(window);
+                Map<List<String>, Accumulator> groups = new HashMap<>();
+                synchronized (fileLock) {
+                        for (Path file : files()) {
+                                readInto(file, since, repoId, operation, groups);
+                        }
+                }
+                return groups.entrySet().stream()
+                                .map(entry -> entry.getValue().toResponse(entry.getKey().get(0), entry.getKey().get(1)))
+                                .sorted(Comparator.comparing(LatencyStatsResponse::repoId)
+                                                .thenComparing(LatencyStatsResponse::operation))
+                                .toList();
+        }
+
+        private void writeLoop() {
+                List<OperationRecord> batch = new ArrayList<>();
+                while (running || !queue.isEmpty()) {
+                        try {
+                                OperationRecord first = queue.poll(1, TimeUnit.SECONDS);
+                                if (first == null) {
+                                        continue;
+                                }
+                                batch.add(first);
+                        } catch (InterruptedException exception) {
+                                if (queue.isEmpty()) {
+                                        break;
+                                }
+                        }
+                        queue.drainTo(batch);
+                        try {
+                                append(batch);
+                        } catch (IOException | RuntimeException exception) {
+                                logger.warn("Unable to write {} operation history record(s): {}", batch.size(),
+                                                exception.getMessage());
+                        }
+                        batch.clear();
+                }
+        }
+
+        private void append(List<OperationRecord> batch) throws IOException {
+                synchronized (fileLock) {
+                        Files.createDirectories(directory);
+                        Path current = directory.resolve(FILE_NAME);
+                        long size = Files.exists(current) ? Files.size(current) : 0;
+                        ByteArrayOutputStream pending = new ByteArrayOutputStream();
+                        for (OperationRecord record : batch) {
+                                byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+                                if (size + pending.size() + line.length > maxFileBytes && size + pending.size() > 0) {
+                                        write(current, pending);
+                                        rotate();
+                                        size = 0;
+                                }
+                                pending.write(line);
+                        }
+                        write(current, pending);
+                }
+        }
+
+        private void write(Path file, ByteArrayOutputStream pending) throws IOException {
+                if (pending.size() > 0) {
+                        Files.write(file, pending.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                        pending.reset();
+                }
+        }
+
+        private void rotate() throws IOException {
+                Files.deleteIfExists(rotated(maxFiles - 1));
+                for (int index = maxFiles - 2; index >= 1; index--) {
+                        if (Files.exists(rotated(index))) {
+                                Files.move(rotated(index), rotated(index + 1), StandardCopyOption.REPLACE_EXISTING);
+                        }
+                }
+                if (maxFiles > 1) {
+                        Files.move(directory.resolve(FILE_NAME), rotated(1), StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                        Files.delete(directory.resolve(FILE_NAME));
+                }
+        }
+
+        private Path rotated(int index) {
+                return directory.resolve("operations." + index + ".jsonl");
+        }
+
+        private List<Path> files() {
+                List<Path> files = new ArrayList<>();
+                for (int index = maxFiles - 1; index >= 1; index--) {
+                        files.add(rotated(index));
+                }
+                files.add(directory.resolve(FILE_NAME));
+                return files.stream().filter(Files::exists).toList();
+        }
+
+        private void readInto(Path file, Instant since, String repoId, String operation,
+                        Map<List<String>, Accumulator> groups) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                                if (line.isBlank()) {
+                                        continue;
+                                }
+                                OperationRecord record;
+                                try {
+                                        record = objectMapper.readValue(line, OperationRecord.class);
+                                } catch (JsonProcessingException exception) {
+                                        continue;
+                                }
+                                if (record.finishedAt().isBefore(since)
+                                                || (StringUtils.hasText(repoId) && !repoId.equals(record.repoId()))
+                                                || (StringUtils.hasText(operation) && !operation.equals(record.operation()))) {
+                                        continue;
+                                }
+                                groups.computeIfAbsent(List.of(record.repoId(), record.operation()), key -> new Accumulator())
+                                                .add(record);
+                        }
+                } catch (IOException exception) {
+                        logger.warn("Unable to read operation history {}: {}", file.getFileName(), exception.getMessage());
+                }
+        }
+
+        private static final class Accumulator {
+
+                private long[] durations = new long[16];
+                private int count;
+                private long failures;
+                private long transferredBytes;
+
+                private void add(OperationRecord record) {
+                        if (count == durations.length) {
+                                durations = Arrays.copyOf(durations, count * 2);
+                        }
+                        durations[count++] = record.durationMillis();
+                        if (record.outcome() != JobState.SUCCEEDED) {
+                                failures++;
+                        }
+                        transferredBytes += record.transferredBytes();
+                }
+
+                private LatencyStatsResponse toResponse(String repoId, String operation) {
+                        long[] sorted = Arrays.copyOf(durations, count);
+                        Arrays.sort(sorted);
+                        return new LatencyStatsResponse(repoId, operation, count, failures, percentile(sorted, 50),
+                                        percentile(sorted, 95), percentile(sorted, 99), sorted[count - 1], transferredBytes);
+                }
+
+                private static long percentile(long[] sorted, int percentile) {
+                        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+                        return sorted[Math.max(0, rank - 1)];
+                }
+        }
+}
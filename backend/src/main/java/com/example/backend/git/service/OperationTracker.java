@@ -0,0 +1,93 @@
+package com.example.backend.git.service;
+
+import com.example.backend.git.dto.CommandTiming;
+import com.example.backend.git.dto.StepTiming;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class OperationTracker {
+
+        private static final ThreadLocal<OperationTracker> CURRENT = new ThreadLocal<>();
+
+        private final List<StepTiming> steps = new CopyOnWriteArrayList<>();
+        private final Set<String> runningSteps = new ConcurrentSkipListSet<>();
+        private final List<String> skippedSteps = new CopyOnWriteArrayList<>();
+        private final List<CommandTiming> commands = new CopyOnWriteArrayList<>();
+        private final AtomicLong transferredBytes = new AtomicLong();
+
+        /**
+         * 在目前執行緒上以此 tracker 執行 action，期間執行的 git 指令會記錄到 {@link #getCommands()}。
+         */
+        public <T> T attach(Supplier<T> action) {
+                OperationTracker previous = CURRENT.get();
+                CURRENT.set(this);
+                try {
+                        return action.get();
+                } finally {
+                        if (previous == null) {
+                                CURRENT.remove();
+                        } else {
+                                CURRENT.set(previous);
+                        }
+                }
+        }
+
+        public static Optional<OperationTracker> current() {
+                return Optional.ofNullable(CURRENT.get());
+        }
+
+        public <T> T step(String name, Supplier<T> action) {
+                runningSteps.add(name);
+                long started = System.nanoTime();
+                try {
+                        return action.get();
+                } finally {
+                        steps.add(new StepTiming(name, (System.nanoTime() - started) / 1_000_000));
+                        runningSteps.remove(name);
+                }
+        }
+
+        public void step(String name, Runnable action) {
+                step(name, () -> {
+                        action.run();
+                        return null;
+                });
+        }
+
+        public void skip(String name) {
+                skippedSteps.add(name);
+        }
+
+        public void recordCommand(String subcommand, String exit, long durationMillis) {
+                commands.add(new CommandTiming(subcommand, exit, durationMillis));
+        }
+
+        public void addTransferredBytes(long bytes) {
+                transferredBytes.addAndGet(bytes);
+        }
+
+        public String getCurrentStep() {
+                return runningSteps.isEmpty() ? null : String.join(", ", runningSteps);
+        }
+
+        public List<StepTiming> getSteps() {
+                return List.copyOf(steps);
+        }
+
+        public List<String> getSkippedSteps() {
+                return List.copyOf(skippedSteps);
+        }
+
+        public List<CommandTiming> getCommands() {
+                return List.copyOf(commands);
+        }
+
+        public long getTransferredBytes() {
+                return transferredBytes.get();
+        }
+}
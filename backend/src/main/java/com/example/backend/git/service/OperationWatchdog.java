@@ -0,0 +1,73 @@
+package com.example.backend.git.service;
+
+import com.example.backend.git.dto.JobResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OperationWatchdog {
+
+        private static final Logger logger = LoggerFactory.getLogger(OperationWatchdog.class);
+
+        private final JobService jobService;
+        private final GitCommandRunner gitCommandRunner;
+        private final GitMetrics gitMetrics;
+        private final Duration interval;
+        private final Duration stuckAfter;
+        private ScheduledExecutorService scheduler;
+
+        public OperationWatchdog(JobService jobService, GitCommandRunner gitCommandRunner, GitMetrics gitMetrics,
+                        @Value("${git-uploader.watchdog.interval:30s}") Duration interval,
+                        @Value("${git-uploader.watchdog.stuck-after:15m}") Duration stuckAfter) {
+                this.jobService = jobService;
+                this.gitCommandRunner = gitCommandRunner;
+                this.gitMetrics = gitMetrics;
+                this.interval = interval;
+                this.stuckAfter = stuckAfter;
+        }
+
+        @PostConstruct
+        void start() {
+                if (interval.isZero() || interval.isNegative()) {
+                        logger.info("Operation watchdog is disabled");
+                        return;
+                }
+                scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "operation-watchdog");
+                        thread.setDaemon(true);
+                        return thread;
+                });
+                scheduler.scheduleWithFixedDelay(this::check, interval.toMillis(), interval.toMillis(),
+                                TimeUnit.MILLISECONDS);
+        }
+
+        @PreDestroy
+        void stop() {
+                if (scheduler != null) {
+                        scheduler.shutdownNow();
+                }
+        }
+
+        void check() {
+                Instant now = Instant.now();
+                for (JobResponse job : jobService.markStuck(stuckAfter)) {
+                        gitMetrics.recordStuckJob(job.type());
+                        List<GitCommandRunner.RunningCommandInfo> commands = job.repoId() == null ? List.of()
+                                        : gitCommandRunner.runningCommands(job.repoId());
+                        logger.warn("Job {} ({}) for repository {} has been running for {} s, current step: {}, git commands: {}",
+                                        job.id(), job.type(), job.repoId(), Duration.between(job.startedAt(), now).toSeconds(),
+                                        job.currentStep(), commands.stream().map(command -> command.commandLine() + " (since "
+                                                        + command.startedAt() + ")").toList());
+                }
+        }
+}
@@ -5,25 +5,35 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.PosixFilePermission;
+import java.util.Base64;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class PatService {
 
         private static final String MASK_TOKEN = "***";
+        private static final String USERNAME = "pat";
 
         private final Path patFile;
         private final Path askPassScript;
+        private final FileLockService fileLockService;
+        private final boolean authorizationHeader;
+        private volatile Credentials credentials;
 
-        public PatService(WorkspaceService workspaceService) {
+        public PatService(WorkspaceService workspaceService, FileLockService fileLockService,
+                        @Value("${git-uploader.git.auth-header:true}") boolean authorizationHeader) {
                 Path dataDirectory = workspaceService.getDataDirectory();
                 this.patFile = dataDirectory.resolve("pat.txt");
                 this.askPassScript = dataDirectory.resolve("git-askpass.sh");
+                this.fileLockService = fileLockService;
+                this.authorizationHeader = authorizationHeader;
                 ensureAskPassScript();
         }
 
@@ -33,13 +43,75 @@ public class PatService {
                 }
                 String trimmed = pat.trim();
                 try {
-                        Files.writeString(patFile, trimmed, StandardCharsets.UTF_8);
+                        fileLockService.writeAtomically(patFile, "pat", trimmed.getBytes(StandardCharsets.UTF_8));
                 } catch (IOException exception) {
                         throw new InvalidRequestException("無法儲存 PAT: " + exception.getMessage());
                 }
+                credentials = credentialsFor(Optional.of(trimmed), stamp());
         }
 
-        public synchronized Optional<String> readPat() {
+        public Optional<String> readPat() {
+                return credentials().pat();
+        }
+
+        public String requirePat() {
+                return readPat().orElseThrow(() -> new InvalidRequestException("尚未設定 Azure DevOps PAT"));
+        }
+
+        /**
+         * 回傳給 git 子程序使用的環境變數。PAT 從記憶體取得，只在 PAT 檔被其他節點替換（inode 或修改時間改變）時重新讀取；
+         * 預設以 {@code GIT_CONFIG_COUNT} 注入
+         * {@code http.extraHeader}，git 與 git-lfs 直接帶上 Basic 驗證，不必為每次驗證啟動 askpass 腳本；
+         * askpass 仍保留作為伺服器拒絕標頭時的備援。
+         */
+        public Map<String, String> buildGitEnvironment() {
+                Credentials current = credentials();
+                if (current.pat().isEmpty()) {
+                        throw new InvalidRequestException("尚未設定 Azure DevOps PAT");
+                }
+                return current.environment();
+        }
+
+        public String maskPat(String pat) {
+                if (pat == null || pat.isBlank()) {
+                        return MASK_TOKEN;
+                }
+                String trimmed = pat.trim();
+                if (trimmed.length() <= 4) {
+                        return MASK_TOKEN + trimmed;
+                }
+                return MASK_TOKEN + trimmed.substring(trimmed.length() - 4);
+        }
+
+        private Credentials credentials() {
+                Credentials current = credentials;
+                FileStamp stamp = stamp();
+                if (current == null || !stamp.equals(current.stamp())) {
+                        synchronized (this) {
+                                current = credentials;
+                                if (current == null || !stamp.equals(current.stamp())) {
+                                        current = credentialsFor(loadPat(), stamp);
+                                        credentials = current;
+                                }
+                        }
+                }
+                return current;
+        }
+
+        private Credentials credentialsFor(Optional<String> pat, FileStamp stamp) {
+                return new Credentials(pat, pat.map(this::gitEnvironment).orElse(Map.of()), stamp);
+        }
+
+        private FileStamp stamp() {
+                try {
+                        BasicFileAttributes attributes = Files.readAttributes(patFile, BasicFileAttributes.class);
+                        return new FileStamp(attributes.fileKey(), attributes.lastModifiedTime().toMillis(), attributes.size());
+                } catch (IOException exception) {
+                        return FileStamp.MISSING;
+                }
+        }
+
+        private Optional<String> loadPat() {
                 if (!Files.exists(patFile)) {
                         return Optional.empty();
                 }
@@ -54,30 +126,21 @@ public class PatService {
                 }
         }
 
-        public synchronized String requirePat() {
-                return readPat().orElseThrow(() -> new InvalidRequestException("尚未設定 Azure DevOps PAT"));
-        }
-
-        public synchronized Map<String, String> buildGitEnvironment() {
-                String pat = requirePat();
+        private Map<String, String> gitEnvironment(String pat) {
                 ensureAskPassScript();
                 Map<String, String> environment = new HashMap<>();
                 environment.put("GIT_ASKPASS", askPassScript.toString());
                 environment.put("GIT_UPLOADER_PAT", pat);
-                environment.put("GIT_UPLOADER_USERNAME", "pat");
+                environment.put("GIT_UPLOADER_USERNAME", USERNAME);
                 environment.put("GIT_TERMINAL_PROMPT", "0");
-                return environment;
-        }
-
-        public synchronized String maskPat(String pat) {
-                if (pat == null || pat.isBlank()) {
-                        return MASK_TOKEN;
-                }
-                String trimmed = pat.trim();
-                if (trimmed.length() <= 4) {
-                        return MASK_TOKEN + trimmed;
+                if (authorizationHeader) {
+                        String token = Base64.getEncoder()
+                                        .encodeToString((USERNAME + ":" + pat).getBytes(StandardCharsets.UTF_8));
+                        environment.put("GIT_CONFIG_COUNT", "1");
+                        environment.put("GIT_CONFIG_KEY_0", "http.extraHeader");
+                        environment.put("GIT_CONFIG_VALUE_0", "Authorization: Basic " + token);
                 }
-                return MASK_TOKEN + trimmed.substring(trimmed.length() - 4);
+                return Map.copyOf(environment);
         }
 
         private void ensureAskPassScript() {
@@ -106,4 +169,12 @@ public class PatService {
                         // Windows 或不支援 POSIX 權限時忽略
                 }
         }
+
+        private record Credentials(Optional<String> pat, Map<String, String> environment, FileStamp stamp) {
+        }
+
+        private record FileStamp(Object fileKey, long modified, long size) {
+
+                private static final FileStamp MISSING = new FileStamp(null, -1, -1);
+        }
 }
@@ -0,0 +1,175 @@
+package com.example.backend.git.service;
+
+import com.example.backend.git.model.JobState;
+import com.example.backend.git.model.PrefetchResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PrefetchScheduler {
+
+        private static final Logger logger = LoggerFactory.getLogger(PrefetchScheduler.class);
+
+        private final RepoService repoService;
+        private final RepoMetadataIndex repoMetadataIndex;
+        private final FetchStateRegistry fetchStateRegistry;
+        private final PatService patService;
+        private final OperationHistory operationHistory;
+        private final boolean enabled;
+        private final Duration tick;
+        private final Duration hotWindow;
+        private final Duration hotInterval;
+        private final Duration idleInterval;
+        private final Duration maxIdleInterval;
+        private final int maxConcurrent;
+        private final Semaphore permits;
+        private final Clock clock;
+        private final Map<String, Duration> backoff = new ConcurrentHashMap<>();
+        private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+        private ScheduledExecutorService scheduler;
+
+        @Autowired
+        public PrefetchScheduler(RepoService repoService, RepoMetadataIndex repoMetadataIndex,
+                        FetchStateRegistry fetchStateRegistry, PatService patService, OperationHistory operationHistory,
+                        @Value("${git-uploader.prefetch.enabled:true}") boolean enabled,
+                        @Value("${git-uploader.prefetch.tick:15s}") Duration tick,
+                        @Value("${git-uploader.prefetch.hot-window:30m}") Duration hotWindow,
+                        @Value("${git-uploader.prefetch.hot-interval:1m}") Duration hotInterval,
+                        @Value("${git-uploader.prefetch.idle-interval:5m}") Duration idleInterval,
+                        @Value("${git-uploader.prefetch.max-idle-interval:1h}") Duration maxIdleInterval,
+                        @Value("${git-uploader.prefetch.max-concurrent:2}") int maxConcurrent) {
+                this(repoService, repoMetadataIndex, fetchStateRegistry, patService, operationHistory, enabled, tick,
+                                hotWindow, hotInterval, idleInterval, maxIdleInterval, maxConcurrent, Clock.systemUTC());
+        }
+
+        PrefetchScheduler(RepoService repoService, RepoMetadataIndex repoMetadataIndex,
+                        FetchStateRegistry fetchStateRegistry, PatService patService, OperationHistory operationHistory,
+                        boolean enabled, Duration tick, Duration hotWindow, Duration hotInterval, Duration idleInterval,
+                        Duration maxIdleInterval, int maxConcurrent, Clock clock) {
+                this.repoService = repoService;
+                this.repoMetadataIndex = repoMetadataIndex;
+                this.fetchStateRegistry = fetchStateRegistry;
+                this.patService = patService;
+                this.operationHistory = operationHistory;
+                this.enabled = enabled;
+                this.tick = tick;
+                this.hotWindow = hotWindow;
+                this.hotInterval = hotInterval;
+                this.idleInterval = idleInterval;
+                this.maxIdleInterval = maxIdleInterval;
+                this.maxConcurrent = Math.max(1, maxConcurrent);
+                this.permits = new Semaphore(this.maxConcurrent);
+                this.clock = clock;
+        }
+
+        @PostConstruct
+        void start() {
+                if (!enabled) {
+                        logger.info("Background prefetch is disabled");
+                        return;
+                }
+                scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "repo-prefetch");
+                        thread.setDaemon(true);
+                        return thread;
+                });
+                scheduler.scheduleWithFixedDelay(this::runDuePrefetches, tick.toMillis(), tick.toMillis(),
+                                TimeUnit.MILLISECONDS);
+        }
+
+        @PreDestroy
+        void stop() {
+                if (scheduler != null) {
+                        scheduler.shutdownNow();
+                }
+        }
+
+        void runDuePrefetches() {
+                if (patService.readPat().isEmpty()) {
+                        return;
+                }
+                Instant now = clock.instant();
+                backoff.keySet().retainAll(repoMetadataIndex.entries().keySet());
+                for (String repoId : repoMetadataIndex.entries().keySet()) {
+                        if (!isDue(repoId, now) || inFlight.contains(repoId)) {
+                                continue;
+                        }
+                        if (!permits.tryAcquire()) {
+                                return;
+                        }
+                        inFlight.add(repoId);
+                        Thread.ofVirtual().name("repo-prefetch-" + repoId).start(() -> prefetch(repoId));
+                }
+        }
+
+        int runningPrefetches() {
+                return maxConcurrent - permits.availablePermits();
+        }
+
+        private void prefetch(String repoId) {
+                OperationTracker tracker = new OperationTracker();
+                long started = System.nanoTime();
+                try {
+                        PrefetchResult result = tracker.attach(() -> repoService.prefetch(repoId));
+                        if (result != PrefetchResult.BUSY) {
+                                operationHistory.record(repoId, "prefetch", tracker, JobState.SUCCEEDED,
+                                                (System.nanoTime() - started) / 1_000_000, null);
+                        }
+                        if (result == PrefetchResult.UPDATED) {
+                                backoff.remove(repoId);
+                        } else if (result == PrefetchResult.UNCHANGED) {
+                                backoff.compute(repoId, (key, current) -> extend(current));
+                        }
+                        logger.debug("Prefetch {} for repository {}", result, repoId);
+                } catch (RuntimeException exception) {
+                        backoff.compute(repoId, (key, current) -> extend(current));
+                        operationHistory.record(repoId, "prefetch", tracker, JobState.FAILED,
+                                        (System.nanoTime() - started) / 1_000_000, exception.getMessage());
+                        logger.warn("Prefetch failed for repository {}: {}", repoId, exception.getMessage());
+                } finally {
+                        inFlight.remove(repoId);
+                        permits.release();
+                }
+        }
+
+        private boolean isDue(String repoId, Instant now) {
+                Instant lastFetch = fetchStateRegistry.lastFetch(repoId).orElse(null);
+                if (lastFetch == null) {
+                        return true;
+                }
+                return !lastFetch.plus(intervalFor(repoId, now)).isAfter(now);
+        }
+
+        private Duration intervalFor(String repoId, Instant now) {
+                boolean hot = fetchStateRegistry.lastActive(repoId)
+                                .map(active -> active.plus(hotWindow).isAfter(now)).orElse(false);
+                if (hot) {
+                        backoff.remove(repoId);
+                        return hotInterval;
+                }
+                return backoff.getOrDefault(repoId, idleInterval);
+        }
+
+        /**
+         * 每次無更新或失敗後把間隔加倍（第一次由 idle-interval 起算），最多到 max-idle-interval。
+         */
+        private Duration extend(Duration current) {
+                Duration doubled = (current == null ? idleInterval : current).multipliedBy(2);
+                return doubled.compareTo(maxIdleInterval) > 0 ? maxIdleInterval : doubled;
+        }
+}
@@ -0,0 +1,54 @@
+package com.example.backend.git.service;
+
+import com.example.backend.error.GitOperationException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PushRetryPolicy {
+
+        private final boolean enabled;
+        private final int maxAttempts;
+        private final Duration initialBackoff;
+        private final Duration maxBackoff;
+
+        public PushRetryPolicy(@Value("${git-uploader.push.rebase-retry.enabled:false}") boolean enabled,
+                        @Value("${git-uploader.push.rebase-retry.max-attempts:5}") int maxAttempts,
+                        @Value("${git-uploader.push.rebase-retry.initial-backoff:200ms}") Duration initialBackoff,
+                        @Value("${git-uploader.push.rebase-retry.max-backoff:5s}") Duration maxBackoff) {
+                this.enabled = enabled;
+                this.maxAttempts = Math.max(1, maxAttempts);
+                this.initialBackoff = initialBackoff;
+                this.maxBackoff = maxBackoff;
+        }
+
+        public static PushRetryPolicy disabled() {
+                return new PushRetryPolicy(false, 1, Duration.ZERO, Duration.ZERO);
+        }
+
+        public boolean isEnabled() {
+                return enabled;
+        }
+
+        public int maxAttempts() {
+                return maxAttempts;
+        }
+
+        /**
+         * 第 attempt 次失敗後的等待時間：以 initial-backoff 起逐次加倍並以 max-backoff 為上限，
+         * 再於 [0, 上限] 之間隨機取值，避免同時被拒的多個推送再次同時重試。
+         */
+        public Duration backoff(int attempt) {
+                long ceiling = initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+                ceiling = Math.min(Math.max(ceiling, 0), maxBackoff.toMillis());
+                return Duration.ofMillis(ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1));
+        }
+
+        public boolean isRejected(GitOperationException exception) {
+                String output = (exception.getStderr() + "\n" + exception.getStdout()).toLowerCase(Locale.ROOT);
+                return output.contains("rejected") || output.contains("non-fast-forward") || output.contains("fetch first");
+        }
+}
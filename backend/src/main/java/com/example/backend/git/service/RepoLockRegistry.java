@@ -0,0 +1,184 @@
+package com.example.backend.git.service;
+
+import com.example.backend.error.RepoBusyException;
+import com.example.backend.git.dto.RepoLockStatusResponse;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RepoLockRegistry {
+
+        private static final Logger logger = LoggerFactory.getLogger(RepoLockRegistry.class);
+        private static final long LEASE_POLL_MAX_MILLIS = 1000;
+
+        private final Map<String, LockEntry> locks = new ConcurrentHashMap<>();
+        private final Duration waitTimeout;
+        private final FileLockService fileLockService;
+        private final List<Consumer<String>> releaseListeners = new CopyOnWriteArrayList<>();
+
+        public RepoLockRegistry(@Value("${git-uploader.locks.wait-timeout:5m}") Duration waitTimeout,
+                        FileLockService fileLockService) {
+                this.waitTimeout = waitTimeout;
+                this.fileLockService = fileLockService;
+        }
+
+        /**
+         * 每次釋放 Repository 鎖定後以 repoId 通知 listener，供依賴工作目錄狀態的快取失效。
+         */
+        public void addReleaseListener(Consumer<String> listener) {
+                releaseListeners.add(listener);
+        }
+
+        public RepoLock acquire(String repoId) {
+                LockEntry entry = locks.computeIfAbsent(repoId, key -> new LockEntry());
+                long started = System.nanoTime();
+                boolean acquired;
+                try {
+                        acquired = entry.lock.tryLock(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        throw new RepoBusyException("等待 Repository 鎖定時被中斷: " + repoId);
+                }
+                if (!acquired) {
+                        entry.timeouts.increment();
+                        throw new RepoBusyException("Repository 正在處理其他作業，請稍後再試: " + repoId);
+                }
+                Optional<FileLockService.Lease> lease;
+                try {
+                        lease = awaitLease(repoId, started + waitTimeout.toNanos());
+                } catch (RuntimeException exception) {
+                        entry.lock.unlock();
+                        throw exception;
+                }
+                if (lease.isEmpty()) {
+                        entry.lock.unlock();
+                        entry.timeouts.increment();
+                        throw new RepoBusyException("Repository 正在其他節點處理中，請稍後再試: " + repoId
+                                        + fileLockService.leaseOwner(repoId).map(owner -> " (" + owner + ")").orElse(""));
+                }
+                long waited = System.nanoTime() - started;
+                entry.recordWait(waited);
+                if (waited > TimeUnit.SECONDS.toNanos(1)) {
+                        logger.info("Waited {} ms for repository lock: {}", TimeUnit.NANOSECONDS.toMillis(waited), repoId);
+                }
+                return new RepoLock(entry.lock, lease.get(), () -> released(repoId));
+        }
+
+        public Optional<RepoLock> tryAcquire(String repoId) {
+                LockEntry entry = locks.computeIfAbsent(repoId, key -> new LockEntry());
+                if (!entry.lock.tryLock()) {
+                        return Optional.empty();
+                }
+                Optional<FileLockService.Lease> lease;
+                try {
+                        lease = fileLockService.tryAcquireLease(repoId);
+                } catch (RuntimeException exception) {
+                        entry.lock.unlock();
+                        throw exception;
+                }
+                if (lease.isEmpty()) {
+                        entry.lock.unlock();
+                        return Optional.empty();
+                }
+                entry.recordWait(0);
+                return Optional.of(new RepoLock(entry.lock, lease.get(), () -> released(repoId)));
+        }
+
+        private Optional<FileLockService.Lease> awaitLease(String repoId, long deadline) {
+                long pauseMillis = 50;
+                while (true) {
+                        Optional<FileLockService.Lease> lease = fileLockService.tryAcquireLease(repoId);
+                        long remaining = deadline - System.nanoTime();
+                        if (lease.isPresent() || remaining <= 0) {
+                                return lease;
+                        }
+                        try {
+                                TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(pauseMillis)));
+                        } catch (InterruptedException exception) {
+                                Thread.currentThread().interrupt();
+                                throw new RepoBusyException("等待 Repository 鎖定時被中斷: " + repoId);
+                        }
+                        pauseMillis = Math.min(pauseMillis * 2, LEASE_POLL_MAX_MILLIS);
+                }
+        }
+
+        private void released(String repoId) {
+                for (Consumer<String> listener : releaseListeners) {
+                        try {
+                                listener.accept(repoId);
+                        } catch (RuntimeException exception) {
+                                logger.warn("Lock release listener failed for {}: {}", repoId, exception.getMessage());
+                        }
+                }
+        }
+
+        public boolean isLocked(String repoId) {
+                LockEntry entry = locks.get(repoId);
+                return entry != null && entry.lock.isLocked();
+        }
+
+        public List<RepoLockStatusResponse> snapshot() {
+                return locks.entrySet().stream().map(entry -> entry.getValue().toStatus(entry.getKey()))
+                                .sorted(Comparator.comparing(RepoLockStatusResponse::repoId)).toList();
+        }
+
+        public static final class RepoLock implements AutoCloseable {
+
+                private final ReentrantLock lock;
+                private final FileLockService.Lease lease;
+                private final Runnable onRelease;
+
+                private RepoLock(ReentrantLock lock, FileLockService.Lease lease, Runnable onRelease) {
+                        this.lock = lock;
+                        this.lease = lease;
+                        this.onRelease = onRelease;
+                }
+
+                @Override
+                public void close() {
+                        try {
+                                lease.close();
+                        } finally {
+                                lock.unlock();
+                                onRelease.run();
+                        }
+                }
+        }
+
+        private static final class LockEntry {
+
+                private final ReentrantLock lock = new ReentrantLock(true);
+                private final LongAdder acquisitions = new LongAdder();
+                private final LongAdder timeouts = new LongAdder();
+                private final LongAdder totalWaitNanos = new LongAdder();
+                private final AtomicLong maxWaitNanos = new AtomicLong();
+
+                private void recordWait(long waitNanos) {
+                        acquisitions.increment();
+                        totalWaitNanos.add(waitNanos);
+                        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+                }
+
+                private RepoLockStatusResponse toStatus(String repoId) {
+                        long count = acquisitions.sum();
+                        long averageNanos = count == 0 ? 0 : totalWaitNanos.sum() / count;
+                        return new RepoLockStatusResponse(repoId, lock.isLocked(), lock.getQueueLength(), count,
+                                        timeouts.sum(), TimeUnit.NANOSECONDS.toMillis(averageNanos),
+                                        TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+                }
+        }
+}
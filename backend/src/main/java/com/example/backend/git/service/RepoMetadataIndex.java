@@ -0,0 +1,344 @@
+package com.example.backend.git.service;
+
+import com.example.backend.error.InvalidRequestException;
+import com.example.backend.git.model.RepoMetadata;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RepoMetadataIndex {
+
+        private static final Logger logger = LoggerFactory.getLogger(RepoMetadataIndex.class);
+        public static final String METADATA_FILE = ".git-uploader.json";
+
+        private final WorkspaceService workspaceService;
+        private final ObjectMapper objectMapper;
+        private final FileLockService fileLockService;
+        private final Duration driftCheckInterval;
+        private volatile String version;
+        private volatile NavigableMap<String, RepoMetadata> entries = Collections.emptyNavigableMap();
+        private volatile Map<String, FileStamp> stamps = Map.of();
+        private WatchService watchService;
+        private Thread watcherThread;
+
+        public RepoMetadataIndex(WorkspaceService workspaceService, ObjectMapper objectMapper,
+                        FileLockService fileLockService,
+                        @Value("${git-uploader.index.drift-check-interval:1m}") Duration driftCheckInterval) {
+                this.workspaceService = workspaceService;
+                this.objectMapper = objectMapper;
+                this.fileLockService = fileLockService;
+                this.driftCheckInterval = driftCheckInterval;
+                this.version = versionOf(entries);
+        }
+
+        @PostConstruct
+        void start() {
+                rebuild();
+                try {
+                        watchService = FileSystems.getDefault().newWatchService();
+                        register(workspaceService.getReposRoot());
+                        for (String directory : stamps.keySet()) {
+                                register(workspaceService.getReposRoot().resolve(directory));
+                        }
+                } catch (IOException exception) {
+                        logger.warn("Unable to watch repos directory, falling back to drift checks: {}", exception.getMessage());
+                }
+                watcherThread = new Thread(this::watchLoop, "repo-index-watcher");
+                watcherThread.setDaemon(true);
+                watcherThread.start();
+        }
+
+        @PreDestroy
+        void stop() {
+                if (watcherThread != null) {
+                        watcherThread.interrupt();
+                }
+                if (watchService != null) {
+                        try {
+                                watchService.close();
+                        } catch (IOException ignored) {
+                                // 關閉時忽略
+                        }
+                }
+        }
+
+        public NavigableMap<String, RepoMetadata> entries() {
+                return entries;
+        }
+
+        /**
+         * 索引內容的版本，由各 repository 的 metadata 內容計算：讀到相同 metadata 的節點或重啟後的程序得到相同版本，
+         * 任何新增、更新或移除都會改變版本。
+         */
+        public String version() {
+                return version;
+        }
+
+        /**
+         * 取得 repository 的 metadata；metadata 檔的修改時間、大小或 inode 與索引不同時（例如其他節點更新了設定檔）重新讀取。
+         */
+        public Optional<RepoMetadata> get(String repoId) {
+                Path repoDirectory = workspaceService.getReposRoot().resolve(repoId);
+                RepoMetadata metadata = entries.get(repoId);
+                if (metadata != null && stampOf(repoDirectory).equals(stamps.get(repoId))) {
+                        return Optional.of(metadata);
+                }
+                FileStamp stamp = stampOf(repoDirectory);
+                Optional<RepoMetadata> loaded = load(repoDirectory);
+                loaded.ifPresentOrElse(value -> put(repoId, value, stamp), () -> {
+                        if (metadata != null) {
+                                remove(repoId);
+                        }
+                });
+                return loaded;
+        }
+
+        public void write(Path repository, RepoMetadata metadata) {
+                try {
+                        fileLockService.writeAtomically(repository.resolve(METADATA_FILE),
+                                        repository.getFileName() + ".metadata",
+                                        objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(metadata));
+                } catch (IOException exception) {
+                        throw new InvalidRequestException("無法寫入 metadata: " + exception.getMessage());
+                }
+                put(repository.getFileName().toString(), metadata, stampOf(repository));
+        }
+
+        public synchronized void rebuild() {
+                Path reposRoot = workspaceService.getReposRoot();
+                NavigableMap<String, RepoMetadata> rebuilt = new TreeMap<>();
+                Map<String, FileStamp> scanned = new HashMap<>();
+                if (Files.exists(reposRoot)) {
+                        try (var stream = Files.list(reposRoot)) {
+                                stream.filter(RepoMetadataIndex::isRepositoryDirectory).forEach(repoDirectory -> {
+                                        String repoId = repoDirectory.getFileName().toString();
+                                        scanned.put(repoId, stampOf(repoDirectory));
+                                        try {
+                                                load(repoDirectory).ifPresent(metadata -> rebuilt.put(repoId, metadata));
+                                        } catch (InvalidRequestException exception) {
+                                                logger.warn("Skipping repository {}: {}", repoId, exception.getMessage());
+                                        }
+                                });
+                        } catch (IOException exception) {
+                                throw new InvalidRequestException("無法讀取 repos 目錄: " + exception.getMessage());
+                        }
+                }
+                if (!rebuilt.equals(entries)) {
+                        entries = Collections.unmodifiableNavigableMap(rebuilt);
+                        version = versionOf(entries);
+                }
+                stamps = Map.copyOf(scanned);
+                logger.info("Indexed {} repositories", rebuilt.size());
+        }
+
+        Optional<RepoMetadata> load(Path repository) {
+                Path metadataPath = repository.resolve(METADATA_FILE);
+                if (!Files.exists(metadataPath)) {
+                        return Optional.empty();
+                }
+                try {
+                        return Optional.of(objectMapper.readValue(metadataPath.toFile(), RepoMetadata.class));
+                } catch (IOException exception) {
+                        throw new InvalidRequestException("無法讀取 metadata: " + exception.getMessage());
+                }
+        }
+
+        private synchronized void put(String repoId, RepoMetadata metadata, FileStamp stamp) {
+                if (!metadata.equals(entries.get(repoId))) {
+                        NavigableMap<String, RepoMetadata> updated = new TreeMap<>(entries);
+                        updated.put(repoId, metadata);
+                        entries = Collections.unmodifiableNavigableMap(updated);
+                        version = versionOf(entries);
+                }
+                setStamp(repoId, stamp);
+        }
+
+        private synchronized void remove(String repoId) {
+                if (entries.containsKey(repoId)) {
+                        NavigableMap<String, RepoMetadata> updated = new TreeMap<>(entries);
+                        updated.remove(repoId);
+                        entries = Collections.unmodifiableNavigableMap(updated);
+                        version = versionOf(entries);
+                }
+                Path repoDirectory = workspaceService.getReposRoot().resolve(repoId);
+                setStamp(repoId, Files.isDirectory(repoDirectory) ? stampOf(repoDirectory) : null);
+        }
+
+        private synchronized void setStamp(String repoId, FileStamp stamp) {
+                if (Objects.equals(stamps.get(repoId), stamp)) {
+                        return;
+                }
+                Map<String, FileStamp> updated = new HashMap<>(stamps);
+                if (stamp == null) {
+                        updated.remove(repoId);
+                } else {
+                        updated.put(repoId, stamp);
+                }
+                stamps = Map.copyOf(updated);
+        }
+
+        private void watchLoop() {
+                while (!Thread.currentThread().isInterrupted()) {
+                        try {
+                                WatchKey key = watchService == null ? null
+                                                : watchService.poll(driftCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+                                if (key == null) {
+                                        if (watchService == null) {
+                                                Thread.sleep(driftCheckInterval.toMillis());
+                                        }
+                                        checkDrift();
+                                        continue;
+                                }
+                                handleEvents((Path) key.watchable(), key);
+                                key.reset();
+                        } catch (InterruptedException | ClosedWatchServiceException exception) {
+                                return;
+                        } catch (RuntimeException exception) {
+                                logger.warn("Repository index refresh failed, rebuilding: {}", exception.getMessage());
+                                rebuild();
+                        }
+                }
+        }
+
+        private void handleEvents(Path directory, WatchKey key) {
+                Path reposRoot = workspaceService.getReposRoot();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                                rebuild();
+                                continue;
+                        }
+                        Path name = (Path) event.context();
+                        if (directory.equals(reposRoot)) {
+                                String repoId = name.toString();
+                                Path repoDirectory = reposRoot.resolve(name);
+                                if (repoId.startsWith(".")) {
+                                        continue;
+                                }
+                                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                                        remove(repoId);
+                                } else if (Files.isDirectory(repoDirectory)) {
+                                        register(repoDirectory);
+                                        refresh(repoId, repoDirectory);
+                                }
+                        } else if (name.toString().equals(METADATA_FILE)) {
+                                refresh(directory.getFileName().toString(), directory);
+                        }
+                }
+        }
+
+        private void refresh(String repoId, Path repoDirectory) {
+                FileStamp stamp = stampOf(repoDirectory);
+                try {
+                        load(repoDirectory).ifPresentOrElse(metadata -> put(repoId, metadata, stamp), () -> remove(repoId));
+                } catch (InvalidRequestException exception) {
+                        // 檔案可能仍在寫入中，待下一個事件再讀取
+                        logger.debug("Metadata not readable yet for {}: {}", repoId, exception.getMessage());
+                }
+        }
+
+        /**
+         * 比對 repository 目錄與各 metadata 檔的修改時間、大小與 inode；檔案系統事件不可靠（例如 NFS 上其他主機的寫入）時，
+         * 由此補上其他節點建立、刪除或更新設定的 repository。
+         */
+        void checkDrift() {
+                Path reposRoot = workspaceService.getReposRoot();
+                if (!Files.exists(reposRoot)) {
+                        return;
+                }
+                Map<String, FileStamp> current = new HashMap<>();
+                try (var stream = Files.list(reposRoot)) {
+                        stream.filter(RepoMetadataIndex::isRepositoryDirectory)
+                                        .forEach(path -> current.put(path.getFileName().toString(), stampOf(path)));
+                } catch (IOException exception) {
+                        logger.warn("Drift check failed: {}", exception.getMessage());
+                        return;
+                }
+                Map<String, FileStamp> known = stamps;
+                if (!current.keySet().equals(known.keySet())) {
+                        logger.info("Repository index drift detected, rebuilding");
+                        rebuild();
+                        current.keySet().forEach(directory -> register(reposRoot.resolve(directory)));
+                        return;
+                }
+                current.forEach((repoId, stamp) -> {
+                        if (!stamp.equals(known.get(repoId))) {
+                                logger.info("Metadata of repository {} changed on disk, reloading", repoId);
+                                refresh(repoId, reposRoot.resolve(repoId));
+                        }
+                });
+        }
+
+        private void register(Path directory) {
+                if (watchService == null) {
+                        return;
+                }
+                try {
+                        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                } catch (IOException exception) {
+                        logger.debug("Unable to watch {}: {}", directory, exception.getMessage());
+                }
+        }
+
+        private static boolean isRepositoryDirectory(Path path) {
+                // .locks、.bases 等以點開頭的目錄存放鎖定檔與共用 bare clone，不是 repository
+                return !path.getFileName().toString().startsWith(".") && Files.isDirectory(path);
+        }
+
+        private static FileStamp stampOf(Path repoDirectory) {
+                try {
+                        BasicFileAttributes attributes = Files.readAttributes(repoDirectory.resolve(METADATA_FILE),
+                                        BasicFileAttributes.class);
+                        return new FileStamp(attributes.fileKey(), attributes.lastModifiedTime().toMillis(), attributes.size());
+                } catch (IOException exception) {
+                        return FileStamp.MISSING;
+                }
+        }
+
+        private String versionOf(NavigableMap<String, RepoMetadata> snapshot) {
+                MessageDigest digest = ContentHashIndex.newDigest();
+                try {
+                        for (Map.Entry<String, RepoMetadata> entry : snapshot.entrySet()) {
+                                digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+                                digest.update((byte) 0);
+                                digest.update(objectMapper.writeValueAsBytes(entry.getValue()));
+                                digest.update((byte) '\n');
+                        }
+                } catch (IOException exception) {
+                        throw new IllegalStateException("無法計算 metadata 版本", exception);
+                }
+                return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        }
+
+        private record FileStamp(Object fileKey, long modified, long size) {
+
+                private static final FileStamp MISSING = new FileStamp(null, -1, -1);
+        }
+}
@@ -0,0 +1,90 @@
+package com.example.backend.git.service;
+
+import com.example.backend.git.dto.ProfileProbe;
+import com.example.backend.git.engine.CliGitEngine;
+import com.example.backend.git.model.PerformanceProfile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class RepoProfileService {
+
+        private static final Logger logger = LoggerFactory.getLogger(RepoProfileService.class);
+        private static final Map<String, String> LARGE_SETTINGS = largeSettings();
+
+        private final CliGitEngine cliGitEngine;
+        private final int probeRounds;
+
+        public RepoProfileService(CliGitEngine cliGitEngine,
+                        @Value("${git-uploader.profile.probe-rounds:3}") int probeRounds) {
+                this.cliGitEngine = cliGitEngine;
+                this.probeRounds = Math.max(1, probeRounds);
+        }
+
+        public List<String> apply(Path repository, PerformanceProfile profile) {
+                List<String> applied = new ArrayList<>();
+                if (profile == PerformanceProfile.LARGE) {
+                        LARGE_SETTINGS.forEach((key, value) -> {
+                                cliGitEngine.setConfig(repository, key, value);
+                                applied.add(key + "=" + value);
+                        });
+                        if (cliGitEngine.fsmonitorSupported(repository)) {
+                                cliGitEngine.setConfig(repository, "core.fsmonitor", "true");
+                                applied.add("core.fsmonitor=true");
+                        } else {
+                                logger.info("Built-in fsmonitor is not supported on this platform; skipping for {}",
+                                                repository.getFileName());
+                        }
+                        cliGitEngine.updateIndex(repository, List.of("--index-version", "4", "--untracked-cache", "--split-index"));
+                        cliGitEngine.writeCommitGraph(repository);
+                        applied.add("commit-graph");
+                        return applied;
+                }
+                LARGE_SETTINGS.keySet().forEach(key -> cliGitEngine.unsetConfig(repository, key));
+                cliGitEngine.unsetConfig(repository, "core.fsmonitor");
+                cliGitEngine.updateIndex(repository,
+                                List.of("--index-version", "2", "--no-untracked-cache", "--no-split-index"));
+                return applied;
+        }
+
+        public ProfileProbe probe(Path repository, String commitScope) {
+                cliGitEngine.status(repository, commitScope);
+                long[] status = new long[probeRounds];
+                long[] add = new long[probeRounds];
+                for (int round = 0; round < probeRounds; round++) {
+                        long started = System.nanoTime();
+                        cliGitEngine.status(repository, commitScope);
+                        status[round] = System.nanoTime() - started;
+                        started = System.nanoTime();
+                        cliGitEngine.addDryRun(repository, commitScope);
+                        add[round] = System.nanoTime() - started;
+                }
+                return new ProfileProbe(median(status), median(add), probeRounds);
+        }
+
+        private static long median(long[] samples) {
+                long[] sorted = samples.clone();
+                Arrays.sort(sorted);
+                return sorted[sorted.length / 2] / 1_000_000;
+        }
+
+        private static Map<String, String> largeSettings() {
+                Map<String, String> settings = new LinkedHashMap<>();
+                settings.put("feature.manyFiles", "true");
+                settings.put("index.version", "4");
+                settings.put("index.skipHash", "true");
+                settings.put("core.untrackedCache", "true");
+                settings.put("core.splitIndex", "true");
+                settings.put("core.commitGraph", "true");
+                settings.put("fetch.writeCommitGraph", "true");
+                return settings;
+        }
+}
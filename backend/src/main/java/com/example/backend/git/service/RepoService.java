@@ -1,182 +1,621 @@
 package com.example.backend.git.service;
 
+import com.example.backend.error.GitOperationException;
 import com.example.backend.error.InvalidRequestException;
 import com.example.backend.error.RepoNotFoundException;
 import com.example.backend.git.dto.CommitRequest;
 import com.example.backend.git.dto.CommitResponse;
 import com.example.backend.git.dto.CreateRepoRequest;
+import com.example.backend.git.dto.ProfileChangeResponse;
+import com.example.backend.git.dto.ProfileProbe;
+import com.example.backend.git.dto.RepoPageResponse;
+import com.example.backend.git.dto.RepoQuery;
 import com.example.backend.git.dto.RepoSummaryResponse;
+import com.example.backend.git.engine.CliGitEngine;
+import com.example.backend.git.engine.GitEngine;
+import com.example.backend.git.model.CloneMode;
+import com.example.backend.git.model.PerformanceProfile;
+import com.example.backend.git.model.PrefetchResult;
 import com.example.backend.git.model.RepoMetadata;
+import com.example.backend.git.model.WorkingTreeStatus;
 import com.example.backend.git.util.AzureRepoUrlParser;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.Year;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
 import org.springframework.util.StringUtils;
 
 @Service
 public class RepoService {
 
         private static final Logger logger = LoggerFactory.getLogger(RepoService.class);
-        private static final String METADATA_FILE = ".git-uploader.json";
+        private static final int MAX_PAGE_SIZE = 500;
+        private static final Map<String, Comparator<RepoSummaryResponse>> SORT_FIELDS = Map.of(
+                        "id", Comparator.comparing(RepoSummaryResponse::id),
+                        "project", sortBy(RepoSummaryResponse::project),
+                        "repository", sortBy(RepoSummaryResponse::repository),
+                        "branch", sortBy(RepoSummaryResponse::branch));
 
         private final WorkspaceService workspaceService;
         private final PatService patService;
-        private final GitCommandRunner gitCommandRunner;
-        private final ObjectMapper objectMapper;
+        private final GitEngine gitEngine;
+        private final CliGitEngine cliGitEngine;
+        private final RepoLockRegistry repoLockRegistry;
+        private final RepoMetadataIndex repoMetadataIndex;
+        private final FetchStateRegistry fetchStateRegistry;
+        private final LfsRouter lfsRouter;
+        private final RepoProfileService repoProfileService;
+        private final PushRetryPolicy pushRetryPolicy;
+        private final CloneMode defaultCloneMode;
+        private final PerformanceProfile defaultProfile;
+        private final Duration fetchFreshWindow;
+        private volatile RepoListing repoListing;
 
-        public RepoService(WorkspaceService workspaceService, PatService patService, GitCommandRunner gitCommandRunner,
-                        ObjectMapper objectMapper) {
+        public RepoService(WorkspaceService workspaceService, PatService patService, GitEngine gitEngine,
+                        CliGitEngine cliGitEngine, RepoLockRegistry repoLockRegistry, RepoMetadataIndex repoMetadataIndex,
+                        FetchStateRegistry fetchStateRegistry, LfsRouter lfsRouter, RepoProfileService repoProfileService,
+                        PushRetryPolicy pushRetryPolicy, @Value("${git-uploader.clone.mode:full}") CloneMode defaultCloneMode,
+                        @Value("${git-uploader.clone.profile:standard}") PerformanceProfile defaultProfile,
+                        @Value("${git-uploader.prefetch.fresh-window:1m}") Duration fetchFreshWindow) {
                 this.workspaceService = workspaceService;
                 this.patService = patService;
-                this.gitCommandRunner = gitCommandRunner;
-                this.objectMapper = objectMapper;
+                this.gitEngine = gitEngine;
+                this.cliGitEngine = cliGitEngine;
+                this.repoLockRegistry = repoLockRegistry;
+                this.repoMetadataIndex = repoMetadataIndex;
+                this.fetchStateRegistry = fetchStateRegistry;
+                this.lfsRouter = lfsRouter;
+                this.repoProfileService = repoProfileService;
+                this.pushRetryPolicy = pushRetryPolicy;
+                this.defaultCloneMode = defaultCloneMode;
+                this.defaultProfile = defaultProfile;
+                this.fetchFreshWindow = fetchFreshWindow;
         }
 
         public List<RepoSummaryResponse> listRepositories() {
                 Path reposRoot = workspaceService.getReposRoot();
                 List<RepoSummaryResponse> results = new ArrayList<>();
-                if (!Files.exists(reposRoot)) {
-                        return results;
+                repoMetadataIndex.entries()
+                                .forEach((repoId, metadata) -> results.add(toSummary(reposRoot.resolve(repoId), metadata)));
+                return results;
+        }
+
+        /**
+         * Repository 清單目前的版本，索引內容變更或年度切換（影響 yearBranchPath）時改變，可作為清單回應的 ETag。
+         */
+        public String repositoryListVersion() {
+                return repoMetadataIndex.version() + "-" + Year.now().getValue();
+        }
+
+        /**
+         * 依條件篩選、排序並分頁列出 repository。摘要與各排序結果依清單版本快取，索引未變更時不會重新建立。
+         */
+        public RepoPageResponse listRepositories(RepoQuery query) {
+                if (query.size() < 1 || query.size() > MAX_PAGE_SIZE) {
+                        throw new InvalidRequestException("每頁筆數需介於 1 到 " + MAX_PAGE_SIZE + " 之間");
                 }
-                try (var stream = Files.list(reposRoot)) {
-                        stream.filter(Files::isDirectory).sorted(Comparator.comparing(Path::getFileName))
-                                        .forEach(repoDirectory -> loadSummary(repoDirectory).ifPresent(results::add));
-                        return results;
-                } catch (IOException exception) {
-                        throw new InvalidRequestException("無法讀取 repos 目錄: " + exception.getMessage());
+                if (query.page() < 0) {
+                        throw new InvalidRequestException("頁碼不可小於 0");
                 }
+                String sort = StringUtils.hasText(query.sort()) ? query.sort().trim().toLowerCase(Locale.ROOT) : "id";
+                String[] sortParts = sort.split(",", 2);
+                Comparator<RepoSummaryResponse> comparator = SORT_FIELDS.get(sortParts[0].trim());
+                boolean descending = sortParts.length > 1 && "desc".equals(sortParts[1].trim());
+                if (comparator == null || (sortParts.length > 1 && !descending && !"asc".equals(sortParts[1].trim()))) {
+                        throw new InvalidRequestException("不支援的排序方式: " + query.sort());
+                }
+
+                RepoListing listing = currentListing();
+                List<RepoSummaryResponse> sorted = listing.sorted().computeIfAbsent(sortParts[0].trim() + (descending ? ",desc" : ""),
+                                key -> listing.summaries().stream()
+                                                .sorted(descending ? comparator.reversed() : comparator).toList());
+                Predicate<RepoSummaryResponse> filter = repoFilter(query);
+                long offset = (long) query.page() * query.size();
+                List<RepoSummaryResponse> items;
+                long total;
+                if (filter == null) {
+                        total = sorted.size();
+                        items = offset >= total ? List.of()
+                                        : sorted.subList((int) offset, (int) Math.min(total, offset + query.size()));
+                } else {
+                        items = new ArrayList<>();
+                        total = 0;
+                        for (RepoSummaryResponse summary : sorted) {
+                                if (filter.test(summary)) {
+                                        if (total >= offset && items.size() < query.size()) {
+                                                items.add(summary);
+                                        }
+                                        total++;
+                                }
+                        }
+                }
+                int totalPages = (int) ((total + query.size() - 1) / query.size());
+                return new RepoPageResponse(List.copyOf(items), query.page(), query.size(), total, totalPages,
+                                listing.version());
+        }
+
+        private RepoListing currentListing() {
+                String version = repositoryListVersion();
+                RepoListing listing = repoListing;
+                if (listing == null || !listing.version().equals(version)) {
+                        listing = new RepoListing(version, List.copyOf(listRepositories()), new ConcurrentHashMap<>());
+                        repoListing = listing;
+                }
+                return listing;
+        }
+
+        private static Predicate<RepoSummaryResponse> repoFilter(RepoQuery query) {
+                List<Predicate<RepoSummaryResponse>> filters = new ArrayList<>();
+                if (StringUtils.hasText(query.project())) {
+                        filters.add(summary -> query.project().trim().equalsIgnoreCase(summary.project()));
+                }
+                if (StringUtils.hasText(query.repository())) {
+                        filters.add(summary -> query.repository().trim().equalsIgnoreCase(summary.repository()));
+                }
+                if (StringUtils.hasText(query.branch())) {
+                        filters.add(summary -> query.branch().trim().equalsIgnoreCase(summary.branch()));
+                }
+                if (StringUtils.hasText(query.q())) {
+                        String text = query.q().trim().toLowerCase(Locale.ROOT);
+                        filters.add(summary -> contains(summary.id(), text) || contains(summary.project(), text)
+                                        || contains(summary.repository(), text) || contains(summary.branch(), text)
+                                        || contains(summary.url(), text));
+                }
+                return filters.stream().reduce(Predicate::and).orElse(null);
+        }
+
+        private static boolean contains(String value, String text) {
+                return value != null && value.toLowerCase(Locale.ROOT).contains(text);
+        }
+
+        private static Comparator<RepoSummaryResponse> sortBy(Function<RepoSummaryResponse, String> field) {
+                return Comparator.comparing(field, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+                                .thenComparing(RepoSummaryResponse::id);
+        }
+
+        public String resolveFolderName(CreateRepoRequest request) {
+                AzureRepoUrlParser.Result parsed = AzureRepoUrlParser.parse(request.url())
+                                .orElseThrow(() -> new InvalidRequestException("無法解析 Azure DevOps Repo URL"));
+                String branch = determineBranch(request, parsed);
+                String folderName = AzureRepoUrlParser.createFolderName(parsed.project(), parsed.repository(), branch);
+                if (Files.exists(workspaceService.getReposRoot().resolve(folderName))) {
+                        throw new InvalidRequestException("目標資料夾已存在: " + folderName);
+                }
+                return folderName;
         }
 
         public RepoSummaryResponse addRepository(CreateRepoRequest request) {
+                return addRepository(request, new OperationTracker());
+        }
+
+        public RepoSummaryResponse addRepository(CreateRepoRequest request, OperationTracker tracker) {
                 AzureRepoUrlParser.Result parsed = AzureRepoUrlParser.parse(request.url())
                                 .orElseThrow(() -> new InvalidRequestException("無法解析 Azure DevOps Repo URL"));
                 String branch = determineBranch(request, parsed);
                 String folderName = AzureRepoUrlParser.createFolderName(parsed.project(), parsed.repository(), branch);
+                try (RepoLockRegistry.RepoLock lock = tracker.step("lock", () -> repoLockRegistry.acquire(folderName))) {
+                        CloneMode cloneMode = request.cloneMode() != null ? request.cloneMode() : defaultCloneMode;
+                        PerformanceProfile profile = request.profile() != null ? request.profile() : defaultProfile;
+                        return cloneRepository(parsed, branch, folderName, cloneMode, profile, tracker);
+                }
+        }
+
+        private RepoSummaryResponse cloneRepository(AzureRepoUrlParser.Result parsed, String branch, String folderName,
+                        CloneMode cloneMode, PerformanceProfile profile, OperationTracker tracker) {
                 Path targetDirectory = workspaceService.getReposRoot().resolve(folderName);
                 if (Files.exists(targetDirectory)) {
                         throw new InvalidRequestException("目標資料夾已存在: " + folderName);
                 }
 
-                Map<String, String> gitEnv = patService.buildGitEnvironment();
-                gitCommandRunner.runAndEnsureSuccess(workspaceService.getReposRoot(),
-                                gitCommandRunner.command("git", "clone", parsed.url(), folderName), gitEnv,
-                                "無法 clone 遠端 Repository");
+                patService.requirePat();
+                if (cloneMode == CloneMode.WORKTREE) {
+                        return addWorktree(parsed, branch, targetDirectory, profile, tracker);
+                }
+                String commitScope = Year.now().getValue() + "/" + sanitizeBranchFolder(branch);
+                List<String> sparsePaths = cloneMode == CloneMode.SPARSE ? List.of(commitScope) : List.of();
+                GitEngine engine = cloneMode == CloneMode.SPARSE || profile == PerformanceProfile.LARGE ? cliGitEngine
+                                : gitEngine;
+                try {
+                        if (cloneMode == CloneMode.SPARSE) {
+                                tracker.step("clone", () -> cliGitEngine.cloneSparse(workspaceService.getReposRoot(),
+                                                parsed.url(), folderName, sparsePaths));
+                        } else {
+                                tracker.step("clone", () -> gitEngine.cloneRepository(workspaceService.getReposRoot(),
+                                                parsed.url(), folderName));
+                        }
+                } catch (RuntimeException exception) {
+                        removePartialClone(targetDirectory);
+                        throw exception;
+                }
 
-                configureRepository(targetDirectory);
-                ensureBranch(targetDirectory, branch, gitEnv);
+                tracker.step("configure", () -> configureRepository(engine, targetDirectory));
+                if (profile == PerformanceProfile.LARGE) {
+                        tracker.step("profile", () -> repoProfileService.apply(targetDirectory, profile));
+                }
+                tracker.step("ensure-branch", () -> ensureBranch(engine, targetDirectory, branch));
                 Path branchFolder = ensureYearBranchFolder(targetDirectory, branch);
 
                 RepoMetadata metadata = new RepoMetadata(parsed.url(), parsed.project(), parsed.repository(), branch,
-                                branchFolder.getFileName().toString(), Instant.now());
-                writeMetadata(targetDirectory, metadata);
+                                branchFolder.getFileName().toString(), Instant.now(), cloneMode, sparsePaths, profile, null);
+                repoMetadataIndex.write(targetDirectory, metadata);
+                fetchStateRegistry.recordFetch(folderName);
+                return toSummary(targetDirectory, metadata);
+        }
+
+        /**
+         * 同一個 Azure Repository 的各分支共用 repos/.bases 下的 bare clone，分支本身以 linked worktree 建立，
+         * 物件庫與遠端追蹤分支只存一份，新增分支只需抓取該分支並 checkout。
+         */
+        private RepoSummaryResponse addWorktree(AzureRepoUrlParser.Result parsed, String branch, Path targetDirectory,
+                        PerformanceProfile profile, OperationTracker tracker) {
+                String baseName = AzureRepoUrlParser.createBaseName(parsed.project(), parsed.repository());
+                Path basesRoot = workspaceService.getBasesRoot();
+                Path base = basesRoot.resolve(baseName);
+                String baseId = workspaceService.getReposRoot().relativize(base).toString().replace('\\', '/');
+                try (RepoLockRegistry.RepoLock baseLock = tracker.step("lock-base", () -> repoLockRegistry.acquire(baseId))) {
+                        if (Files.exists(base)) {
+                                tracker.skip("clone");
+                        } else {
+                                try {
+                                        Files.createDirectories(basesRoot);
+                                        tracker.step("clone", () -> cliGitEngine.cloneBase(basesRoot, parsed.url(), baseName));
+                                } catch (IOException exception) {
+                                        throw new InvalidRequestException("無法建立共用 Repository 目錄: " + exception.getMessage());
+                                } catch (RuntimeException exception) {
+                                        removePartialClone(base);
+                                        throw exception;
+                                }
+                                tracker.step("configure", () -> configureRepository(cliGitEngine, base));
+                        }
+
+                        boolean remoteBranch = tracker.step("ls-remote",
+                                        () -> cliGitEngine.remoteBranchHead(base, branch)).isPresent();
+                        String startBranch = remoteBranch ? branch : "master";
+                        tracker.step("fetch", () -> cliGitEngine.fetch(base, startBranch));
+                        try {
+                                tracker.step("worktree", () -> cliGitEngine.addWorktree(base, targetDirectory, branch,
+                                                "origin/" + startBranch));
+                                if (!remoteBranch) {
+                                        tracker.step("push", () -> cliGitEngine.push(targetDirectory, branch, true));
+                                }
+                        } catch (RuntimeException exception) {
+                                removePartialClone(targetDirectory);
+                                cliGitEngine.pruneWorktrees(base);
+                                throw exception;
+                        }
+                }
+
+                if (profile == PerformanceProfile.LARGE) {
+                        tracker.step("profile", () -> repoProfileService.apply(targetDirectory, profile));
+                }
+                Path branchFolder = ensureYearBranchFolder(targetDirectory, branch);
+                RepoMetadata metadata = new RepoMetadata(parsed.url(), parsed.project(), parsed.repository(), branch,
+                                branchFolder.getFileName().toString(), Instant.now(), CloneMode.WORKTREE, List.of(), profile,
+                                baseId);
+                repoMetadataIndex.write(targetDirectory, metadata);
+                fetchStateRegistry.recordFetch(targetDirectory.getFileName().toString());
                 return toSummary(targetDirectory, metadata);
         }
 
         public CommitResponse commitAndPush(String repoId, CommitRequest request) {
-                Path repoDirectory = workspaceService.getReposRoot().resolve(repoId);
-                if (!Files.exists(repoDirectory) || !Files.isDirectory(repoDirectory)) {
-                        throw new RepoNotFoundException("找不到指定的 Repository: " + repoId);
+                return commitAndPush(repoId, request, new OperationTracker());
+        }
+
+        public CommitResponse commitAndPush(String repoId, CommitRequest request, OperationTracker tracker) {
+                Path repoDirectory = requireRepository(repoId);
+                fetchStateRegistry.markActive(repoId);
+                try (RepoLockRegistry.RepoLock lock = tracker.step("lock", () -> repoLockRegistry.acquire(repoId))) {
+                        return commitAndPushLocked(repoId, repoDirectory, request, tracker);
                 }
+        }
 
+        private CommitResponse commitAndPushLocked(String repoId, Path repoDirectory, CommitRequest request,
+                        OperationTracker tracker) {
                 logger.info("Starting commitAndPush for repository: {}", repoId);
 
-                RepoMetadata metadata = readMetadata(repoDirectory)
-                                .orElseThrow(() -> new RepoNotFoundException("Repository 缺少 metadata: " + repoId));
-                Map<String, String> gitEnv = patService.buildGitEnvironment();
+                RepoMetadata metadata = requireMetadata(repoId);
+                patService.requirePat();
                 String branch = metadata.branch();
-                String sanitizedFolder = metadata.branchFolder();
-                if (!StringUtils.hasText(sanitizedFolder)) {
-                        sanitizedFolder = sanitizeBranchFolder(metadata.branch());
+                String commitScope = commitScope(metadata);
+                createCommitFolder(repoDirectory, commitScope);
+
+                GitEngine engine = engineFor(metadata);
+                if (isSparse(metadata) && !metadata.sparsePaths().contains(commitScope)) {
+                        List<String> sparsePaths = new ArrayList<>(metadata.sparsePaths());
+                        sparsePaths.add(commitScope);
+                        tracker.step("sparse-checkout", () -> cliGitEngine.setSparseCheckout(repoDirectory, sparsePaths));
+                        repoMetadataIndex.write(repoDirectory, metadata.withSparsePaths(sparsePaths));
+                }
+
+                WorkingTreeStatus status = tracker.step("status", () -> engine.status(repoDirectory, commitScope));
+                if (branch.equals(status.branch())) {
+                        tracker.skip("checkout");
+                } else {
+                        tracker.step("checkout", () -> engine.checkout(repoDirectory, branch));
+                        status = tracker.step("status", () -> engine.status(repoDirectory, commitScope));
+                }
+                if (status.clean()) {
+                        return new CommitResponse(false, "沒有檔案變更，未建立 Commit。", remoteAgeMillis(repoId), List.of(), 0,
+                                        0, 1, tracker.getSteps(), tracker.getSkippedSteps());
+                }
+
+                boolean rebaseRetry = request.rebaseRetry() != null ? request.rebaseRetry() : pushRetryPolicy.isEnabled();
+                boolean fetched = syncRemote(engine, repoId, repoDirectory, branch, tracker);
+                if (fetched || !status.upToDateWithUpstream()) {
+                        updateToRemote(engine, repoDirectory, branch, rebaseRetry, tracker);
+                } else {
+                        tracker.skip("merge");
+                }
+                long remoteAgeMillis = remoteAgeMillis(repoId);
+
+                Optional<Map<String, Long>> lfsCandidates = Optional.empty();
+                if (lfsRouter.isEnabled()) {
+                        lfsCandidates = tracker.step("lfs", () -> lfsRouter.prepare(repoDirectory, commitScope));
                 }
-                String year = String.valueOf(Year.now().getValue());
-                Path branchFolder = repoDirectory.resolve(year).resolve(sanitizedFolder);
+                GitEngine commitEngine = lfsCandidates.isPresent() ? cliGitEngine : engine;
+                tracker.step("add", () -> commitEngine.add(repoDirectory, commitScope));
+                List<String> lfsFiles = new ArrayList<>();
+                long lfsBytes = 0;
+                if (lfsCandidates.isPresent()) {
+                        for (String file : cliGitEngine.stagedFiles(repoDirectory, commitScope)) {
+                                Long size = lfsCandidates.get().get(file);
+                                if (size != null) {
+                                        lfsFiles.add(file);
+                                        lfsBytes += size;
+                                }
+                        }
+                }
+                String commitMessage = request.message().trim();
+                tracker.step("commit", () -> commitEngine.commit(repoDirectory, commitMessage));
+                int pushAttempts = rebaseRetry
+                                ? pushWithRebaseRetry(commitEngine, repoId, repoDirectory, branch, commitMessage, tracker)
+                                : pushWithSingleRetry(commitEngine, repoId, repoDirectory, branch, commitMessage, fetched,
+                                                tracker);
+
+                String message = "已提交並推送至遠端分支 " + branch + "。";
+                if (!lfsFiles.isEmpty()) {
+                        message += "其中 " + lfsFiles.size() + " 個檔案改以 Git LFS 上傳。";
+                }
+                if (pushAttempts > 1) {
+                        message += "遠端有其他更新，共嘗試推送 " + pushAttempts + " 次。";
+                }
+                return new CommitResponse(true, message, remoteAgeMillis, lfsFiles, lfsBytes, pushAttempts, 1,
+                                tracker.getSteps(), tracker.getSkippedSteps());
+        }
+
+        private int pushWithSingleRetry(GitEngine engine, String repoId, Path repoDirectory, String branch,
+                        String commitMessage, boolean fetched, OperationTracker tracker) {
                 try {
-                        Files.createDirectories(branchFolder);
-                } catch (IOException exception) {
-                        throw new InvalidRequestException("無法建立提交目錄: " + exception.getMessage());
+                        tracker.step("push", () -> engine.push(repoDirectory, branch, false));
+                        return 1;
+                } catch (GitOperationException exception) {
+                        if (fetched || !pushRetryPolicy.isRejected(exception)) {
+                                throw exception;
+                        }
+                        logger.info("Push rejected without a fresh fetch for {}; fetching and retrying", repoId);
+                        replayOnRemote(engine, repoId, repoDirectory, branch, commitMessage, false, tracker);
+                        tracker.step("push", () -> engine.push(repoDirectory, branch, false));
+                        return 2;
                 }
+        }
 
-                gitCommandRunner.runAndEnsureSuccess(repoDirectory,
-                                gitCommandRunner.command("git", "checkout", branch), Map.of(), "無法切換到分支 " + branch);
-                gitCommandRunner.runAndEnsureSuccess(repoDirectory,
-                                gitCommandRunner.command("git", "fetch", "origin", branch), gitEnv,
-                                "無法取得最新遠端內容");
-                gitCommandRunner.runAndEnsureSuccess(repoDirectory,
-                                gitCommandRunner.command("git", "merge", "--ff-only", "origin/" + branch), gitEnv,
-                                "遠端已有更新且無法 fast-forward，請手動處理後重試。");
+        private int pushWithRebaseRetry(GitEngine engine, String repoId, Path repoDirectory, String branch,
+                        String commitMessage, OperationTracker tracker) {
+                for (int attempt = 1;; attempt++) {
+                        try {
+                                tracker.step("push", () -> engine.push(repoDirectory, branch, false));
+                                return attempt;
+                        } catch (GitOperationException exception) {
+                                if (attempt >= pushRetryPolicy.maxAttempts() || !pushRetryPolicy.isRejected(exception)) {
+                                        if (pushRetryPolicy.isRejected(exception)) {
+                                                tracker.step("undo-commit", () -> engine.undoLastCommit(repoDirectory));
+                                                throw new GitOperationException("遠端持續有其他更新，已嘗試推送 " + attempt
+                                                                + " 次仍失敗；變更已保留，請稍後重試。", exception.getCommand(),
+                                                                exception.getStdout(), exception.getStderr());
+                                        }
+                                        throw exception;
+                                }
+                                Duration backoff = pushRetryPolicy.backoff(attempt);
+                                logger.info("Push attempt {} rejected for {}; rebasing onto origin/{} and retrying in {} ms",
+                                                attempt, repoId, branch, backoff.toMillis());
+                                tracker.step("backoff", () -> sleep(backoff));
+                                replayOnRemote(engine, repoId, repoDirectory, branch, commitMessage, true, tracker);
+                        }
+                }
+        }
 
-                String commitScope = year + "/" + sanitizedFolder;
-                gitCommandRunner.runAndEnsureSuccess(repoDirectory,
-                                gitCommandRunner.command("git", "add", "--", commitScope), Map.of(), "無法加入變更");
+        /**
+         * 撤銷尚未推送的 Commit（變更保留在暫存區），抓取遠端最新版本並快轉後重新 Commit，
+         * 等同於把這一個 Commit rebase 到遠端最新的 tip 上。
+         */
+        private void replayOnRemote(GitEngine engine, String repoId, Path repoDirectory, String branch,
+                        String commitMessage, boolean rebaseFallback, OperationTracker tracker) {
+                tracker.step("undo-commit", () -> engine.undoLastCommit(repoDirectory));
+                tracker.step("fetch", () -> engine.fetch(repoDirectory, branch));
+                fetchStateRegistry.recordFetch(repoId);
+                updateToRemote(engine, repoDirectory, branch, rebaseFallback, tracker);
+                tracker.step("commit", () -> engine.commit(repoDirectory, commitMessage));
+        }
 
-                GitCommandRunner.CommandResult diffResult = gitCommandRunner.run(repoDirectory,
-                                gitCommandRunner.command("git", "diff", "--cached", "--quiet"), Map.of());
-                if (diffResult.exitCode() == 0) {
-                        gitCommandRunner.run(repoDirectory,
-                                        gitCommandRunner.command("git", "reset", "HEAD", "--", commitScope), Map.of());
-                        return new CommitResponse(false, "沒有檔案變更，未建立 Commit。");
+        private void updateToRemote(GitEngine engine, Path repoDirectory, String branch, boolean rebaseFallback,
+                        OperationTracker tracker) {
+                try {
+                        tracker.step("merge", () -> engine.mergeFastForward(repoDirectory, "origin/" + branch));
+                } catch (GitOperationException exception) {
+                        if (!rebaseFallback) {
+                                throw exception;
+                        }
+                        logger.info("Fast-forward to origin/{} failed in {}; rebasing local commits", branch,
+                                        repoDirectory.getFileName());
+                        tracker.step("rebase", () -> cliGitEngine.rebase(repoDirectory, "origin/" + branch));
                 }
-                if (diffResult.exitCode() != 1) {
-                        throw new InvalidRequestException("無法檢查變更狀態: " + diffResult.stderr());
+        }
+
+        private static void sleep(Duration duration) {
+                try {
+                        Thread.sleep(duration);
+                } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        throw new GitOperationException("推送重試等待時被中斷", "push", "", exception.getMessage());
                 }
+        }
 
-                String commitMessage = request.message().trim();
-                gitCommandRunner.runAndEnsureSuccess(repoDirectory,
-                                gitCommandRunner.command("git", "commit", "-m", commitMessage), Map.of(), "Commit 失敗");
-                gitCommandRunner.runAndEnsureSuccess(repoDirectory,
-                                gitCommandRunner.command("git", "push", "origin", branch), gitEnv, "Push 失敗");
-
-                return new CommitResponse(true, "已提交並推送至遠端分支 " + branch + "。");
-        }
-
-
-        private void configureRepository(Path targetDirectory) {
-                gitCommandRunner.runAndEnsureSuccess(targetDirectory,
-                                gitCommandRunner.command("git", "config", "http.version", "HTTP/1.1"), Map.of(),
-                                "無法設定 http.version");
-                gitCommandRunner.runAndEnsureSuccess(targetDirectory,
-                                gitCommandRunner.command("git", "config", "lfs.skipSmudge", "true"), Map.of(),
-                                "無法設定 Git LFS skip smudge");
-        }
-
-        private void ensureBranch(Path repository, String branch, Map<String, String> gitEnv) {
-                GitCommandRunner.CommandResult lsRemote = gitCommandRunner.run(repository,
-                                gitCommandRunner.command("git", "ls-remote", "--heads", "origin", branch), gitEnv);
-                boolean exists = lsRemote.isSuccess() && StringUtils.hasText(lsRemote.stdout());
-                if (exists) {
-                        gitCommandRunner.runAndEnsureSuccess(repository,
-                                        gitCommandRunner.command("git", "fetch", "origin", branch), gitEnv,
-                                        "無法抓取遠端分支");
-                        GitCommandRunner.CommandResult checkout = gitCommandRunner.run(repository,
-                                        gitCommandRunner.command("git", "checkout", branch), gitEnv);
-                        if (!checkout.isSuccess()) {
-                                gitCommandRunner.runAndEnsureSuccess(repository,
-                                                gitCommandRunner.command("git", "checkout", "-b", branch, "origin/" + branch),
-                                                gitEnv, "無法切換到目標分支");
+        public PrefetchResult prefetch(String repoId) {
+                Optional<RepoLockRegistry.RepoLock> acquired = repoLockRegistry.tryAcquire(repoId);
+                if (acquired.isEmpty()) {
+                        return PrefetchResult.BUSY;
+                }
+                try (RepoLockRegistry.RepoLock lock = acquired.get()) {
+                        Path repoDirectory = requireRepository(repoId);
+                        RepoMetadata metadata = requireMetadata(repoId);
+                        GitEngine engine = engineFor(metadata);
+                        String trackingRef = "refs/remotes/origin/" + metadata.branch();
+                        Optional<String> before = engine.resolveRef(repoDirectory, trackingRef);
+                        engine.fetch(repoDirectory, metadata.branch());
+                        fetchStateRegistry.recordFetch(repoId);
+                        Optional<String> after = engine.resolveRef(repoDirectory, trackingRef);
+                        return before.equals(after) ? PrefetchResult.UNCHANGED : PrefetchResult.UPDATED;
+                }
+        }
+
+        public ProfileChangeResponse changeProfile(String repoId, PerformanceProfile profile, OperationTracker tracker) {
+                Path repoDirectory = requireRepository(repoId);
+                try (RepoLockRegistry.RepoLock lock = tracker.step("lock", () -> repoLockRegistry.acquire(repoId))) {
+                        RepoMetadata metadata = requireMetadata(repoId);
+                        String commitScope = commitScope(metadata);
+                        createCommitFolder(repoDirectory, commitScope);
+                        ProfileProbe before = tracker.step("probe-before",
+                                        () -> repoProfileService.probe(repoDirectory, commitScope));
+                        List<String> settings = tracker.step("profile", () -> repoProfileService.apply(repoDirectory, profile));
+                        repoMetadataIndex.write(repoDirectory, metadata.withProfile(profile));
+                        ProfileProbe after = tracker.step("probe-after",
+                                        () -> repoProfileService.probe(repoDirectory, commitScope));
+                        logger.info("Repository {} switched from {} to {} profile: status {} -> {} ms, add {} -> {} ms", repoId,
+                                        metadata.effectiveProfile(), profile, before.statusMillis(), after.statusMillis(),
+                                        before.addMillis(), after.addMillis());
+                        return new ProfileChangeResponse(repoId, metadata.effectiveProfile(), profile, settings, before, after);
+                }
+        }
+
+        public ProfileProbe probeProfile(String repoId, OperationTracker tracker) {
+                Path repoDirectory = requireRepository(repoId);
+                try (RepoLockRegistry.RepoLock lock = tracker.step("lock", () -> repoLockRegistry.acquire(repoId))) {
+                        String commitScope = commitScope(requireMetadata(repoId));
+                        createCommitFolder(repoDirectory, commitScope);
+                        return tracker.step("probe", () -> repoProfileService.probe(repoDirectory, commitScope));
+                }
+        }
+
+        private boolean syncRemote(GitEngine engine, String repoId, Path repoDirectory, String branch,
+                        OperationTracker tracker) {
+                Optional<Instant> lastFetch = fetchStateRegistry.lastFetch(repoId);
+                if (lastFetch.isPresent()
+                                && Duration.between(lastFetch.get(), Instant.now()).compareTo(fetchFreshWindow) < 0) {
+                        tracker.skip("ls-remote");
+                        tracker.skip("fetch");
+                        return false;
+                }
+                Optional<String> remoteHead = tracker.step("ls-remote", () -> engine.remoteBranchHead(repoDirectory, branch));
+                if (remoteHead.isPresent()
+                                && remoteHead.equals(engine.resolveRef(repoDirectory, "refs/remotes/origin/" + branch))) {
+                        fetchStateRegistry.recordFetch(repoId);
+                        tracker.skip("fetch");
+                        return false;
+                }
+                tracker.step("fetch", () -> engine.fetch(repoDirectory, branch));
+                fetchStateRegistry.recordFetch(repoId);
+                return true;
+        }
+
+        private long remoteAgeMillis(String repoId) {
+                return fetchStateRegistry.lastFetch(repoId)
+                                .map(lastFetch -> Duration.between(lastFetch, Instant.now()).toMillis()).orElse(-1L);
+        }
+
+        public String resolveCommitScope(String repoId) {
+                return commitScope(requireMetadata(repoId));
+        }
+
+        public Path resolveCommitFolder(String repoId) {
+                Path repoDirectory = requireRepository(repoId);
+                return createCommitFolder(repoDirectory, commitScope(requireMetadata(repoId)));
+        }
+
+        public Path requireRepository(String repoId) {
+                Path repoDirectory = workspaceService.getReposRoot().resolve(repoId).normalize();
+                if (!workspaceService.getReposRoot().equals(repoDirectory.getParent()) || !Files.isDirectory(repoDirectory)) {
+                        throw new RepoNotFoundException("找不到指定的 Repository: " + repoId);
+                }
+                return repoDirectory;
+        }
+
+        private RepoMetadata requireMetadata(String repoId) {
+                return repoMetadataIndex.get(repoId)
+                                .orElseThrow(() -> new RepoNotFoundException("Repository 缺少 metadata: " + repoId));
+        }
+
+        private String commitScope(RepoMetadata metadata) {
+                String folderName = metadata.branchFolder();
+                if (!StringUtils.hasText(folderName)) {
+                        folderName = sanitizeBranchFolder(metadata.branch());
+                }
+                return Year.now().getValue() + "/" + folderName;
+        }
+
+        private Path createCommitFolder(Path repoDirectory, String commitScope) {
+                Path commitFolder = repoDirectory.resolve(commitScope);
+                try {
+                        Files.createDirectories(commitFolder);
+                } catch (IOException exception) {
+                        throw new InvalidRequestException("無法建立提交目錄: " + exception.getMessage());
+                }
+                return commitFolder;
+        }
+
+        private GitEngine engineFor(RepoMetadata metadata) {
+                return isSparse(metadata) || metadata.cloneMode() == CloneMode.WORKTREE
+                                || metadata.effectiveProfile() == PerformanceProfile.LARGE ? cliGitEngine : gitEngine;
+        }
+
+        private boolean isSparse(RepoMetadata metadata) {
+                return metadata.cloneMode() == CloneMode.SPARSE && metadata.sparsePaths() != null;
+        }
+
+        private void configureRepository(GitEngine engine, Path targetDirectory) {
+                engine.setConfig(targetDirectory, "http.version", "HTTP/1.1");
+                engine.setConfig(targetDirectory, "lfs.skipSmudge", "true");
+        }
+
+        private void ensureBranch(GitEngine engine, Path repository, String branch) {
+                if (engine.remoteBranchHead(repository, branch).isPresent()) {
+                        engine.fetch(repository, branch);
+                        try {
+                                engine.checkout(repository, branch);
+                        } catch (GitOperationException exception) {
+                                engine.checkoutNewBranch(repository, branch, "origin/" + branch);
                         }
                         return;
                 }
 
-                gitCommandRunner.runAndEnsureSuccess(repository,
-                                gitCommandRunner.command("git", "fetch", "origin", "master"), gitEnv,
-                                "無法抓取 master 作為基底");
-                gitCommandRunner.runAndEnsureSuccess(repository,
-                                gitCommandRunner.command("git", "checkout", "-b", branch, "origin/master"), gitEnv,
-                                "無法建立新分支");
-                gitCommandRunner.runAndEnsureSuccess(repository,
-                                gitCommandRunner.command("git", "push", "--set-upstream", "origin", branch), gitEnv,
-                                "無法推送新分支");
+                engine.fetch(repository, "master");
+                engine.checkoutNewBranch(repository, branch, "origin/master");
+                engine.push(repository, branch, true);
         }
 
         private Path ensureYearBranchFolder(Path repository, String branch) {
@@ -199,37 +638,19 @@ public class RepoService {
                 return sanitized.isEmpty() ? "branch" : sanitized;
         }
 
-        private void writeMetadata(Path repository, RepoMetadata metadata) {
-                try {
-                        objectMapper.writerWithDefaultPrettyPrinter().writeValue(repository.resolve(METADATA_FILE).toFile(), metadata);
-                } catch (IOException exception) {
-                        throw new InvalidRequestException("無法寫入 metadata: " + exception.getMessage());
-                }
-        }
-
-        private Optional<RepoMetadata> readMetadata(Path repository) {
-                Path metadataPath = repository.resolve(METADATA_FILE);
-                if (!Files.exists(metadataPath)) {
-                        return Optional.empty();
+        private void removePartialClone(Path targetDirectory) {
+                if (!Files.exists(targetDirectory)) {
+                        return;
                 }
                 try {
-                        return Optional.of(objectMapper.readValue(metadataPath.toFile(), RepoMetadata.class));
+                        FileSystemUtils.deleteRecursively(targetDirectory);
                 } catch (IOException exception) {
-                        throw new InvalidRequestException("無法讀取 metadata: " + exception.getMessage());
+                        logger.warn("Unable to remove partial clone {}: {}", targetDirectory, exception.getMessage());
                 }
         }
 
-        private Optional<RepoSummaryResponse> loadSummary(Path repository) {
-                return readMetadata(repository).map(metadata -> toSummary(repository, metadata));
-        }
-
         private RepoSummaryResponse toSummary(Path repository, RepoMetadata metadata) {
-                String year = String.valueOf(Year.now().getValue());
-                String folderName = metadata.branchFolder();
-                if (!StringUtils.hasText(folderName)) {
-                        folderName = sanitizeBranchFolder(metadata.branch());
-                }
-                String yearBranchPath = year + "/" + folderName;
+                String yearBranchPath = commitScope(metadata);
                 String relativePath;
                 try {
                         relativePath = workspaceService.getProjectRoot().relativize(repository).toString();
@@ -237,7 +658,9 @@ public class RepoService {
                         relativePath = repository.toString();
                 }
                 return new RepoSummaryResponse(repository.getFileName().toString(), metadata.project(),
-                                metadata.repository(), metadata.branch(), metadata.url(), relativePath, yearBranchPath);
+                                metadata.repository(), metadata.branch(), metadata.url(), relativePath, yearBranchPath,
+                                metadata.cloneMode() != null ? metadata.cloneMode() : CloneMode.FULL, metadata.effectiveProfile(),
+                                metadata.baseRepository());
         }
 
         private String determineBranch(CreateRepoRequest request, AzureRepoUrlParser.Result parsed) {
@@ -249,4 +672,8 @@ public class RepoService {
                 }
                 throw new InvalidRequestException("請輸入要操作的 Branch 名稱");
         }
+
+        private record RepoListing(String version, List<RepoSummaryResponse> summaries,
+                        Map<String, List<RepoSummaryResponse>> sorted) {
+        }
 }
@@ -0,0 +1,392 @@
+package com.example.backend.git.service;
+
+import com.example.backend.git.dto.RepoStatusResponse;
+import com.example.backend.git.engine.CliGitEngine;
+import com.example.backend.git.model.RepoMetadata;
+import com.example.backend.git.model.StatusSummary;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 查詢 Repository 的工作目錄狀態（提交範圍內的變更、與 origin 的 ahead / behind、物件庫大小）並依 repo 快取。
+ * 提交範圍內的檔案異動（WatchService）或本服務的 git 作業釋放 repo 鎖定時快取失效；cache-ttl 為無法監看（包含超過
+ * max-watches 上限）時的保底期限。
+ */
+@Service
+public class RepoStatusService {
+
+        private static final Logger logger = LoggerFactory.getLogger(RepoStatusService.class);
+
+        private final RepoService repoService;
+        private final RepoMetadataIndex repoMetadataIndex;
+        private final CliGitEngine cliGitEngine;
+        private final FetchStateRegistry fetchStateRegistry;
+        private final Duration cacheTtl;
+        private final int parallelism;
+        private final int maxWatches;
+        private final Map<String, CachedStatus> cache = new ConcurrentHashMap<>();
+        private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+        private final Map<WatchKey, WatchTarget> watchTargets = new ConcurrentHashMap<>();
+        private final Set<String> watchedScopes = ConcurrentHashMap.newKeySet();
+        private final Map<String, String> currentScopes = new ConcurrentHashMap<>();
+        private WatchService watchService;
+        private Thread watcherThread;
+
+        public RepoStatusService(RepoService repoService, RepoMetadataIndex repoMetadataIndex, CliGitEngine cliGitEngine,
+                        FetchStateRegistry fetchStateRegistry, RepoLockRegistry repoLockRegistry,
+                        @Value("${git-uploader.status.cache-ttl:10m}") Duration cacheTtl,
+                        @Value("${git-uploader.status.parallelism:8}") int parallelism,
+                        @Value("${git-uploader.status.max-watches:4096}") int maxWatches) {
+                this.repoService = repoService;
+                this.repoMetadataIndex = repoMetadataIndex;
+                this.cliGitEngine = cliGitEngine;
+                this.fetchStateRegistry = fetchStateRegistry;
+                this.cacheTtl = cacheTtl;
+                this.parallelism = Math.max(1, parallelism);
+                this.maxWatches = Math.max(0, maxWatches);
+                repoLockRegistry.addReleaseListener(this::invalidate);
+        }
+
+        @PostConstruct
+        void start() {
+                try {
+                        watchService = FileSystems.getDefault().newWatchService();
+                } catch (IOException exception) {
+                        logger.warn("Unable to watch commit folders, status cache relies on cache-ttl: {}", exception.getMessage());
+                        return;
+                }
+                watcherThread = new Thread(this::watchLoop, "repo-status-watcher");
+                watcherThread.setDaemon(true);
+                watcherThread.start();
+        }
+
+        @PreDestroy
+        void stop() {
+                if (watcherThread != null) {
+                        watcherThread.interrupt();
+                }
+                if (watchService != null) {
+                        try {
+                                watchService.close();
+                        } catch (IOException ignored) {
+                                // 關閉時忽略
+                        }
+                }
+        }
+
+        public RepoStatusResponse status(String repoId) {
+                repoService.requireRepository(repoId);
+                return statusOf(repoId);
+        }
+
+        /**
+         * 批次查詢多個 Repository 的狀態；快取命中者直接回傳，其餘以最多 parallelism 個 git 程序並行計算。
+         * 單一 repo 失敗時只在該筆的 error 說明原因。
+         */
+        public List<RepoStatusResponse> statuses(List<String> repoIds) {
+                List<String> targets = repoIds == null || repoIds.isEmpty() ? List.copyOf(repoMetadataIndex.entries().keySet())
+                                : List.copyOf(new LinkedHashSet<>(repoIds));
+                RepoStatusResponse[] results = new RepoStatusResponse[targets.size()];
+                List<Integer> misses = new ArrayList<>();
+                for (int index = 0; index < targets.size(); index++) {
+                        String repoId = targets.get(index);
+                        CachedStatus cached = cached(repoId);
+                        if (cached != null) {
+                                results[index] = toResponse(repoId, cached, true);
+                        } else {
+                                misses.add(index);
+                        }
+                }
+                if (!misses.isEmpty()) {
+                        Semaphore permits = new Semaphore(parallelism);
+                        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                                List<Future<RepoStatusResponse>> futures = misses.stream()
+                                                .map(index -> executor.submit(() -> statusOrError(targets.get(index), permits)))
+                                                .toList();
+                                for (int index = 0; index < futures.size(); index++) {
+                                        String repoId = targets.get(misses.get(index));
+                                        results[misses.get(index)] = await(repoId, futures.get(index));
+                                }
+                        }
+                }
+                return List.of(results);
+        }
+
+        public void invalidate(String repoId) {
+                invalidateOne(repoId);
+                RepoMetadata metadata = repoMetadataIndex.entries().get(repoId);
+                String base = metadata != null ? metadata.baseRepository() : repoId;
+                if (base == null) {
+                        return;
+                }
+                repoMetadataIndex.entries().forEach((id, value) -> {
+                        if (base.equals(value.baseRepository())) {
+                                invalidateOne(id);
+                        }
+                });
+        }
+
+        private RepoStatusResponse statusOrError(String repoId, Semaphore permits) {
+                try {
+                        permits.acquire();
+                } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        return failed(repoId, "查詢狀態時已中斷");
+                }
+                try {
+                        repoService.requireRepository(repoId);
+                        return statusOf(repoId);
+                } catch (RuntimeException exception) {
+                        return failed(repoId, exception.getMessage());
+                } finally {
+                        permits.release();
+                }
+        }
+
+        private RepoStatusResponse await(String repoId, Future<RepoStatusResponse> future) {
+                try {
+                        return future.get();
+                } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        return failed(repoId, "查詢狀態時已中斷");
+                } catch (ExecutionException exception) {
+                        return failed(repoId, exception.getCause().getMessage());
+                }
+        }
+
+        private RepoStatusResponse statusOf(String repoId) {
+                CachedStatus cached = cached(repoId);
+                if (cached != null) {
+                        return toResponse(repoId, cached, true);
+                }
+                AtomicLong generation = generations.computeIfAbsent(repoId, key -> new AtomicLong());
+                long expected = generation.get();
+                Path repoDirectory = repoService.requireRepository(repoId);
+                String scope = repoService.resolveCommitScope(repoId);
+                watch(repoId, repoDirectory, scope);
+                StatusSummary summary = cliGitEngine.statusSummary(repoDirectory, scope);
+                long objectBytes = cliGitEngine.objectStoreBytes(repoDirectory);
+                CachedStatus computed = new CachedStatus(scope, summary, objectBytes, Instant.now(),
+                                System.nanoTime() + cacheTtl.toNanos());
+                cache.compute(repoId, (key, previous) -> generation.get() == expected ? computed : previous);
+                return toResponse(repoId, computed, false);
+        }
+
+        private CachedStatus cached(String repoId) {
+                CachedStatus cached = cache.get(repoId);
+                if (cached == null) {
+                        return null;
+                }
+                if (System.nanoTime() - cached.expiresAt() > 0 || !cached.scope().equals(currentScope(repoId))) {
+                        cache.remove(repoId, cached);
+                        return null;
+                }
+                return cached;
+        }
+
+        private String currentScope(String repoId) {
+                try {
+                        return repoService.resolveCommitScope(repoId);
+                } catch (RuntimeException exception) {
+                        return null;
+                }
+        }
+
+        private void invalidateOne(String repoId) {
+                generations.computeIfAbsent(repoId, key -> new AtomicLong()).incrementAndGet();
+                cache.remove(repoId);
+        }
+
+        private RepoStatusResponse toResponse(String repoId, CachedStatus status, boolean cached) {
+                StatusSummary summary = status.summary();
+                return new RepoStatusResponse(repoId, status.scope(), summary.branch(), summary.upstream(), summary.ahead(),
+                                summary.behind(), summary.clean(), summary.changedFiles(), summary.staged(), summary.unstaged(),
+                                summary.untracked(), summary.conflicted(), status.objectBytes(),
+                                fetchStateRegistry.lastFetch(repoId).orElse(null), status.checkedAt(), cached, null);
+        }
+
+        private static RepoStatusResponse failed(String repoId, String message) {
+                return new RepoStatusResponse(repoId, null, null, null, null, null, false, 0, 0, 0, 0, 0, 0, null, null, false,
+                                message);
+        }
+
+        /**
+         * 監看提交範圍內的所有目錄，以及通往提交範圍的上層目錄（以便偵測年份或分支資料夾被建立）。
+         * 提交範圍改變（年份或分支資料夾切換）時取消舊範圍的監看。
+         */
+        private synchronized void watch(String repoId, Path repoDirectory, String scope) {
+                if (watchService == null) {
+                        return;
+                }
+                Path scopeDirectory = repoDirectory.resolve(scope);
+                String scopeKey = scopeDirectory.toString();
+                String previous = currentScopes.put(repoId, scopeKey);
+                if (previous != null && !previous.equals(scopeKey)) {
+                        unwatch(previous);
+                }
+                if (!watchedScopes.add(scopeKey)) {
+                        return;
+                }
+                List<Path> directories = new ArrayList<>();
+                for (Path directory = scopeDirectory.getParent(); directory != null
+                                && directory.startsWith(repoDirectory); directory = directory.getParent()) {
+                        directories.add(directory);
+                }
+                directories.addAll(directoriesUnder(scopeDirectory));
+                if (withinLimit(repoId, directories.size())) {
+                        directories.forEach(directory -> register(repoId, directory, scopeDirectory));
+                }
+        }
+
+        /**
+         * 監看範圍內新建立的目錄；超過上限時整個範圍改為不監看，避免只監看部分目錄而漏掉異動。
+         */
+        private synchronized void watchCreated(WatchTarget target, List<Path> directories) {
+                if (!target.scopeKey().equals(currentScopes.get(target.repoId()))) {
+                        return;
+                }
+                if (withinLimit(target.repoId(), directories.size())) {
+                        directories.forEach(directory -> register(target.repoId(), directory, target.scopeDirectory()));
+                } else {
+                        unwatch(target.scopeKey());
+                        watchedScopes.add(target.scopeKey());
+                }
+        }
+
+        private void unwatch(String scopeKey) {
+                watchedScopes.remove(scopeKey);
+                watchTargets.entrySet().removeIf(entry -> {
+                        if (!entry.getValue().scopeKey().equals(scopeKey)) {
+                                return false;
+                        }
+                        entry.getKey().cancel();
+                        return true;
+                });
+        }
+
+        private boolean withinLimit(String repoId, int additional) {
+                if (watchTargets.size() + additional <= maxWatches) {
+                        return true;
+                }
+                logger.warn("Watching {} more directories for {} would exceed git-uploader.status.max-watches ({}); "
+                                + "its status cache relies on cache-ttl", additional, repoId, maxWatches);
+                return false;
+        }
+
+        private List<Path> directoriesUnder(Path root) {
+                if (!Files.isDirectory(root)) {
+                        return List.of();
+                }
+                try (Stream<Path> directories = Files.walk(root)) {
+                        return directories.filter(Files::isDirectory).toList();
+                } catch (IOException exception) {
+                        logger.warn("Unable to list directories to watch under {}: {}", root, exception.getMessage());
+                        return List.of();
+                }
+        }
+
+        private void register(String repoId, Path directory, Path scopeDirectory) {
+                if (!Files.isDirectory(directory)) {
+                        return;
+                }
+                try {
+                        WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                        watchTargets.put(key, new WatchTarget(repoId, directory, scopeDirectory));
+                } catch (IOException exception) {
+                        logger.warn("Unable to watch {}, status cache for {} relies on cache-ttl: {}", directory, repoId,
+                                        exception.getMessage());
+                } catch (ClosedWatchServiceException exception) {
+                        logger.debug("Status watcher closed while watching {}", directory);
+                }
+        }
+
+        int watchCount() {
+                return watchTargets.size();
+        }
+
+        private void watchLoop() {
+                while (!Thread.currentThread().isInterrupted()) {
+                        try {
+                                WatchKey key = watchService.take();
+                                WatchTarget target = watchTargets.get(key);
+                                for (WatchEvent<?> event : key.pollEvents()) {
+                                        if (target != null) {
+                                                handleEvent(target, event);
+                                        }
+                                }
+                                if (!key.reset()) {
+                                        watchTargets.remove(key);
+                                        if (target != null) {
+                                                watchedScopes.remove(target.scopeKey());
+                                        }
+                                }
+                        } catch (InterruptedException | ClosedWatchServiceException exception) {
+                                return;
+                        } catch (RuntimeException exception) {
+                                logger.warn("Status watcher failed: {}", exception.getMessage());
+                        }
+                }
+        }
+
+        private void handleEvent(WatchTarget target, WatchEvent<?> event) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        invalidateOne(target.repoId());
+                        return;
+                }
+                Path changed = target.directory().resolve((Path) event.context());
+                boolean insideScope = changed.startsWith(target.scopeDirectory());
+                if (!insideScope && !target.scopeDirectory().startsWith(changed)) {
+                        return;
+                }
+                invalidateOne(target.repoId());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changed)) {
+                        List<Path> directories = new ArrayList<>();
+                        if (!insideScope) {
+                                directories.add(changed);
+                                changed = target.scopeDirectory();
+                        }
+                        directories.addAll(directoriesUnder(changed));
+                        watchCreated(target, directories);
+                }
+        }
+
+        private record CachedStatus(String scope, StatusSummary summary, long objectBytes, Instant checkedAt,
+                        long expiresAt) {
+        }
+
+        private record WatchTarget(String repoId, Path directory, Path scopeDirectory) {
+
+                private String scopeKey() {
+                        return scopeDirectory.toString();
+                }
+        }
+}
@@ -0,0 +1,276 @@
+package com.example.backend.git.service;
+
+import com.example.backend.error.InvalidRequestException;
+import com.example.backend.git.dto.UploadResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+@Service
+public class UploadService {
+
+        private static final Logger logger = LoggerFactory.getLogger(UploadService.class);
+        private static final int COPY_BUFFER_BYTES = 256 * 1024;
+        private static final String STAGING_DIRECTORY = "git-uploader-uploads";
+        private static final String GITDIR_PREFIX = "gitdir:";
+
+        private final RepoService repoService;
+        private final RepoLockRegistry repoLockRegistry;
+        private final ContentHashIndex contentHashIndex;
+        private final long maxBytes;
+
+        public UploadService(RepoService repoService, RepoLockRegistry repoLockRegistry, ContentHashIndex contentHashIndex,
+                        @Value("${git-uploader.upload.max-size:10GB}") DataSize maxSize) {
+                this.repoService = repoService;
+                this.repoLockRegistry = repoLockRegistry;
+                this.contentHashIndex = contentHashIndex;
+                this.maxBytes = maxSize.toBytes();
+        }
+
+        public UploadResponse upload(String repoId, String relativePath, long contentLength, InputStream body) {
+                checkSize(contentLength);
+                Path repoDirectory = repoService.requireRepository(repoId);
+                Path target = resolveTarget(repoId, relativePath);
+                Path temporary = null;
+
+                long started = System.nanoTime();
+                MessageDigest digest = ContentHashIndex.newDigest();
+                try {
+                        temporary = stagingDirectory(repoDirectory).resolve(UUID.randomUUID() + ".part");
+                        long size;
+                        try (FileChannel destination = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW,
+                                        StandardOpenOption.WRITE)) {
+                                size = copy(body, destination, 0, maxBytes, tooLargeMessage(), digest::update);
+                        }
+                        return place(repoId, temporary, target, size, HexFormat.of().formatHex(digest.digest()), started);
+                } catch (IOException exception) {
+                        throw new InvalidRequestException("無法寫入上傳檔案: " + exception.getMessage());
+                } finally {
+                        if (temporary != null) {
+                                deleteQuietly(temporary);
+                        }
+                }
+        }
+
+        void checkSize(long size) {
+                if (size > maxBytes) {
+                        throw new InvalidRequestException(tooLargeMessage());
+                }
+        }
+
+        /**
+         * 暫存目錄放在 Repository 的 git 目錄內，與工作目錄位於同一個檔案系統，可直接 move 或建立 hard link。
+         * WORKTREE 模式的 .git 是記載 gitdir 的檔案，改放到它指向的目錄。
+         */
+        Path stagingDirectory(Path repoDirectory) throws IOException {
+                return Files.createDirectories(gitDirectory(repoDirectory).resolve(STAGING_DIRECTORY));
+        }
+
+        private static Path gitDirectory(Path repoDirectory) throws IOException {
+                Path dotGit = repoDirectory.resolve(".git");
+                if (!Files.isRegularFile(dotGit, LinkOption.NOFOLLOW_LINKS)) {
+                        return dotGit;
+                }
+                String content = Files.readString(dotGit, StandardCharsets.UTF_8).trim();
+                if (!content.startsWith(GITDIR_PREFIX)) {
+                        throw new IOException("無法解析 " + dotGit);
+                }
+                return repoDirectory.resolve(content.substring(GITDIR_PREFIX.length()).trim()).normalize();
+        }
+
+        long copy(InputStream body, FileChannel destination, long position, long limit, String overflowMessage,
+                        Consumer<ByteBuffer> written) throws IOException {
+                ReadableByteChannel source = Channels.newChannel(body);
+                ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_BYTES);
+                long total = 0;
+                while (source.read(buffer) != -1) {
+                        buffer.flip();
+                        if (total + buffer.remaining() > limit) {
+                                throw new InvalidRequestException(overflowMessage);
+                        }
+                        ByteBuffer data = buffer.duplicate();
+                        while (buffer.hasRemaining()) {
+                                total += destination.write(buffer, position + total);
+                        }
+                        written.accept(data);
+                        buffer.clear();
+                }
+                return total;
+        }
+
+        Optional<UploadResponse> linkExisting(String repoId, Path target, long size, String sha256, long started) {
+                Optional<Path> duplicate = findDuplicate(repoId, size, sha256);
+                if (duplicate.isEmpty()) {
+                        return Optional.empty();
+                }
+                try (RepoLockRegistry.RepoLock lock = repoLockRegistry.acquire(repoId)) {
+                        createParentDirectories(repoId, target);
+                        return link(repoId, duplicate.get(), target, size, sha256, started);
+                }
+        }
+
+        /**
+         * 將暫存檔放入提交目錄（內容相同的檔案已存在時改為建立 hard link）。放入時持有 Repository 鎖定，
+         * 不會與 commit-and-push 的 add / commit 或重設工作目錄同時進行；缺少的上層目錄也在鎖定內建立。
+         */
+        UploadResponse place(String repoId, Path temporary, Path target, long size, String sha256, long started)
+                        throws IOException {
+                Optional<Path> duplicate = findDuplicate(repoId, size, sha256);
+                try (RepoLockRegistry.RepoLock lock = repoLockRegistry.acquire(repoId)) {
+                        createParentDirectories(repoId, target);
+                        if (duplicate.isPresent()) {
+                                Optional<UploadResponse> linked = link(repoId, duplicate.get(), target, size, sha256, started);
+                                if (linked.isPresent()) {
+                                        return linked.get();
+                                }
+                        }
+                        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                        contentHashIndex.remember(target, sha256);
+                }
+                return completed(repoId, repoService.requireRepository(repoId), target, size, sha256, false, started);
+        }
+
+        private Optional<Path> findDuplicate(String repoId, long size, String sha256) {
+                return contentHashIndex.findDuplicate(repoService.resolveCommitFolder(repoId), size, sha256);
+        }
+
+        private Optional<UploadResponse> link(String repoId, Path duplicate, Path target, long size, String sha256,
+                        long started) {
+                // 鎖定前找到的檔案可能已被 merge 或重設改寫，連結前再確認一次內容
+                if (!contentHashIndex.matches(duplicate, size, sha256)) {
+                        return Optional.empty();
+                }
+                Path repoDirectory = repoService.requireRepository(repoId);
+                Path link = null;
+                try {
+                        if (!duplicate.equals(target)) {
+                                link = stagingDirectory(repoDirectory).resolve(UUID.randomUUID() + ".link");
+                                Files.createLink(link, duplicate);
+                                Files.move(link, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                                contentHashIndex.remember(target, sha256);
+                        }
+                } catch (IOException | UnsupportedOperationException exception) {
+                        logger.debug("Unable to link {} to {}: {}", target, duplicate, exception.getMessage());
+                        return Optional.empty();
+                } finally {
+                        if (link != null) {
+                                deleteQuietly(link);
+                        }
+                }
+                return Optional.of(completed(repoId, repoDirectory, target, size, sha256, true, started));
+        }
+
+        Path resolveTarget(String repoId, String relativePath) {
+                Path commitFolder = repoService.resolveCommitFolder(repoId);
+                String cleaned = relativePath == null ? "" : relativePath.replace('\\', '/').replaceAll("^/+", "");
+                if (!StringUtils.hasText(cleaned) || cleaned.endsWith("/")) {
+                        throw new InvalidRequestException("請指定上傳檔案的路徑與檔名");
+                }
+                Path relative;
+                try {
+                        relative = Path.of(cleaned);
+                } catch (InvalidPathException exception) {
+                        throw new InvalidRequestException("檔案路徑格式錯誤: " + cleaned);
+                }
+                for (Path segment : relative) {
+                        String name = segment.toString();
+                        if (name.equals("..") || name.equals(".") || name.equalsIgnoreCase(".git")) {
+                                throw new InvalidRequestException("檔案路徑不可包含 . / .. / .git: " + cleaned);
+                        }
+                }
+                Path target = commitFolder.resolve(relative).normalize();
+                if (!target.startsWith(commitFolder) || target.equals(commitFolder)) {
+                        throw new InvalidRequestException("檔案路徑必須位於提交目錄內: " + cleaned);
+                }
+                checkParents(commitFolder, target, false);
+                if (Files.isDirectory(target, LinkOption.NOFOLLOW_LINKS)) {
+                        throw new InvalidRequestException("目標路徑已是資料夾: " + cleaned);
+                }
+                return target;
+        }
+
+        private void createParentDirectories(String repoId, Path target) {
+                Path commitFolder = repoService.resolveCommitFolder(repoId);
+                if (!target.startsWith(commitFolder)) {
+                        throw new InvalidRequestException("提交目錄已變更，請重新上傳: " + target.getFileName());
+                }
+                checkParents(commitFolder, target, true);
+        }
+
+        /**
+         * 逐層檢查目標的上層目錄：已存在的每一層都不可是符號連結，實際路徑也必須位於提交目錄內。
+         * create 為 false 時遇到不存在的目錄即停止（只驗證），為 true 時逐層建立缺少的目錄。
+         */
+        private void checkParents(Path commitFolder, Path target, boolean create) {
+                Path parent = target.getParent();
+                if (parent.equals(commitFolder)) {
+                        return;
+                }
+                String displayPath = commitFolder.relativize(target).toString().replace('\\', '/');
+                try {
+                        Path realCommitFolder = commitFolder.toRealPath();
+                        Path current = commitFolder;
+                        for (Path segment : commitFolder.relativize(parent)) {
+                                current = current.resolve(segment);
+                                if (Files.isSymbolicLink(current)) {
+                                        throw new InvalidRequestException("檔案路徑不可經由符號連結離開提交目錄: " + displayPath);
+                                }
+                                if (!Files.exists(current, LinkOption.NOFOLLOW_LINKS)) {
+                                        if (!create) {
+                                                return;
+                                        }
+                                        Files.createDirectory(current);
+                                } else if (!Files.isDirectory(current, LinkOption.NOFOLLOW_LINKS)) {
+                                        throw new InvalidRequestException("檔案路徑中的 " + segment + " 不是資料夾: " + displayPath);
+                                }
+                                if (!current.toRealPath().startsWith(realCommitFolder)) {
+                                        throw new InvalidRequestException("檔案路徑不可經由符號連結離開提交目錄: " + displayPath);
+                                }
+                        }
+                } catch (IOException exception) {
+                        throw new InvalidRequestException("無法建立上傳目錄: " + exception.getMessage());
+                }
+        }
+
+        void deleteQuietly(Path path) {
+                try {
+                        Files.deleteIfExists(path);
+                } catch (IOException exception) {
+                        logger.warn("Unable to remove temporary upload {}: {}", path, exception.getMessage());
+                }
+        }
+
+        private UploadResponse completed(String repoId, Path repoDirectory, Path target, long size, String sha256,
+                        boolean deduplicated, long started) {
+                long durationMillis = (System.nanoTime() - started) / 1_000_000;
+                String displayPath = repoDirectory.relativize(target).toString().replace('\\', '/');
+                logger.info("Uploaded {} bytes to {} in repository {} ({} ms{})", size, displayPath, repoId, durationMillis,
+                                deduplicated ? ", linked to existing content" : "");
+                return new UploadResponse(repoId, displayPath, size, sha256, deduplicated, durationMillis, null);
+        }
+
+        private String tooLargeMessage() {
+                return "檔案大小超過上限 " + DataSize.ofBytes(maxBytes).toMegabytes() + " MB";
+        }
+}
@@ -0,0 +1,318 @@
+package com.example.backend.git.service;
+
+import com.example.backend.error.InvalidRequestException;
+import com.example.backend.error.UploadNotFoundException;
+import com.example.backend.git.dto.StartUploadRequest;
+import com.example.backend.git.dto.UploadResponse;
+import com.example.backend.git.dto.UploadSessionResponse;
+import com.example.backend.git.model.ByteRange;
+import com.example.backend.git.model.UploadSessionState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class UploadSessionService {
+
+        private static final Logger logger = LoggerFactory.getLogger(UploadSessionService.class);
+
+        private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+        private final UploadService uploadService;
+        private final RepoService repoService;
+        private final ObjectMapper objectMapper;
+        private final Duration sessionTtl;
+
+        public UploadSessionService(UploadService uploadService, RepoService repoService, ObjectMapper objectMapper,
+                        @Value("${git-uploader.upload.session-ttl:24h}") Duration sessionTtl) {
+                this.uploadService = uploadService;
+                this.repoService = repoService;
+                this.objectMapper = objectMapper;
+                this.sessionTtl = sessionTtl;
+        }
+
+        public UploadSessionResponse start(String repoId, StartUploadRequest request) {
+                uploadService.checkSize(request.size());
+                Path repoDirectory = repoService.requireRepository(repoId);
+                Path target = uploadService.resolveTarget(repoId, request.path());
+                evictExpired(repoId, repoDirectory);
+                long started = System.nanoTime();
+                String sha256 = request.sha256() == null ? null : request.sha256().toLowerCase();
+                if (sha256 != null) {
+                        Optional<UploadResponse> linked = uploadService.linkExisting(repoId, target, request.size(), sha256,
+                                        started);
+                        if (linked.isPresent()) {
+                                ByteRange whole = new ByteRange(0, request.size());
+                                return new UploadSessionResponse(null, repoId, linked.get().path(), request.size(),
+                                                request.size(), List.of(whole), null, null, linked.get());
+                        }
+                }
+
+                Instant now = Instant.now();
+                UploadSessionState state = new UploadSessionState(UUID.randomUUID().toString(), repoId, request.path(),
+                                request.size(), sha256, List.of(), now, now);
+                try {
+                        Path staging = uploadService.stagingDirectory(repoDirectory);
+                        Files.createFile(staging.resolve(state.id() + ".part"));
+                        persist(staging, state);
+                } catch (IOException exception) {
+                        throw new InvalidRequestException("無法建立上傳工作: " + exception.getMessage());
+                }
+                Session session = new Session(state, 0);
+                sessions.put(state.id(), session);
+                logger.info("Started upload {} for {} ({} bytes) in repository {}", state.id(), request.path(),
+                                request.size(), repoId);
+                return toResponse(session, null);
+        }
+
+        public UploadSessionResponse status(String repoId, String uploadId) {
+                Session session = require(repoId, uploadId);
+                synchronized (session) {
+                        return toResponse(session, null);
+                }
+        }
+
+        public UploadSessionResponse writeChunk(String repoId, String uploadId, long offset, long contentLength,
+                        InputStream body) {
+                Session session = require(repoId, uploadId);
+                Path staging = staging(repoId);
+                long size;
+                boolean sequential;
+                // 只在鎖定內登記分段，內容寫入期間不佔用 session，status 與其他分段不必等待
+                synchronized (session) {
+                        size = session.state.size();
+                        if (offset < 0 || offset > size || (contentLength > 0 && offset + contentLength > size)) {
+                                throw new InvalidRequestException("分段超出檔案大小 " + size + " bytes");
+                        }
+                        if (session.closed) {
+                                throw new UploadNotFoundException("找不到指定的上傳工作: " + uploadId);
+                        }
+                        sequential = offset == session.hashedUpTo && !session.hashing;
+                        session.hashing |= sequential;
+                        session.writers++;
+                }
+                MessageDigest chunkDigest = ContentHashIndex.newDigest();
+                long[] written = { 0 };
+                try (FileChannel destination = FileChannel.open(staging.resolve(uploadId + ".part"),
+                                StandardOpenOption.WRITE)) {
+                        uploadService.copy(body, destination, offset, size - offset, "分段超出檔案大小 " + size + " bytes",
+                                        data -> {
+                                                if (sequential) {
+                                                        session.running.update(data.duplicate());
+                                                }
+                                                written[0] += data.remaining();
+                                                chunkDigest.update(data);
+                                        });
+                } catch (IOException exception) {
+                        throw new InvalidRequestException("無法寫入上傳分段: " + exception.getMessage());
+                } finally {
+                        synchronized (session) {
+                                session.writers--;
+                                if (sequential) {
+                                        session.hashing = false;
+                                }
+                                record(session, staging, offset, written[0], sequential);
+                        }
+                }
+                synchronized (session) {
+                        return toResponse(session, HexFormat.of().formatHex(chunkDigest.digest()));
+                }
+        }
+
+        public UploadResponse complete(String repoId, String uploadId) {
+                Session session = require(repoId, uploadId);
+                synchronized (session) {
+                        requireIdle(session);
+                        UploadSessionState state = session.state;
+                        if (receivedBytes(state.received()) != state.size()) {
+                                throw new InvalidRequestException("尚有未收到的分段，已收到 " + receivedBytes(state.received()) + " / "
+                                                + state.size() + " bytes");
+                        }
+                        Path staging = staging(repoId);
+                        Path part = staging.resolve(uploadId + ".part");
+                        long started = System.nanoTime();
+                        try {
+                                String sha256 = session.hashedUpTo == state.size()
+                                                ? HexFormat.of().formatHex(session.running.digest())
+                                                : ContentHashIndex.sha256(part);
+                                session.hashedUpTo = -1;
+                                if (state.sha256() != null && !state.sha256().equals(sha256)) {
+                                        discard(session, staging);
+                                        throw new InvalidRequestException("檔案 SHA-256 不符，請重新上傳");
+                                }
+                                Path target = uploadService.resolveTarget(repoId, state.path());
+                                UploadResponse response = uploadService.place(repoId, part, target, state.size(), sha256,
+                                                started);
+                                discard(session, staging);
+                                return response;
+                        } catch (IOException exception) {
+                                throw new InvalidRequestException("無法完成上傳: " + exception.getMessage());
+                        }
+                }
+        }
+
+        public void abort(String repoId, String uploadId) {
+                Session session = require(repoId, uploadId);
+                synchronized (session) {
+                        requireIdle(session);
+                        discard(session, staging(repoId));
+                }
+        }
+
+        private static void requireIdle(Session session) {
+                if (session.writers > 0) {
+                        throw new InvalidRequestException("仍有分段正在寫入，請稍後再試");
+                }
+        }
+
+        private void record(Session session, Path staging, long offset, long written, boolean sequential) {
+                if (sequential) {
+                        session.hashedUpTo += written;
+                }
+                if (written == 0) {
+                        return;
+                }
+                List<ByteRange> received = merge(session.state.received(), new ByteRange(offset, offset + written));
+                session.state = session.state.withReceived(received, Instant.now());
+                try {
+                        persist(staging, session.state);
+                } catch (IOException exception) {
+                        logger.warn("Unable to persist upload {}: {}", session.state.id(), exception.getMessage());
+                }
+        }
+
+        static List<ByteRange> merge(List<ByteRange> ranges, ByteRange added) {
+                List<ByteRange> sorted = new ArrayList<>(ranges);
+                sorted.add(added);
+                sorted.sort(Comparator.comparingLong(ByteRange::start));
+                List<ByteRange> merged = new ArrayList<>();
+                for (ByteRange range : sorted) {
+                        ByteRange last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+                        if (last != null && range.start() <= last.end()) {
+                                merged.set(merged.size() - 1, new ByteRange(last.start(), Math.max(last.end(), range.end())));
+                        } else {
+                                merged.add(range);
+                        }
+                }
+                return merged;
+        }
+
+        private Session require(String repoId, String uploadId) {
+                try {
+                        UUID.fromString(uploadId);
+                } catch (IllegalArgumentException exception) {
+                        throw new UploadNotFoundException("找不到指定的上傳工作: " + uploadId);
+                }
+                Session session = sessions.get(uploadId);
+                if (session == null) {
+                        session = load(repoId, uploadId);
+                }
+                if (!session.state.repoId().equals(repoId)) {
+                        throw new UploadNotFoundException("找不到指定的上傳工作: " + uploadId);
+                }
+                return session;
+        }
+
+        private Session load(String repoId, String uploadId) {
+                Path file = staging(repoId).resolve(uploadId + ".json");
+                if (!Files.exists(file)) {
+                        throw new UploadNotFoundException("找不到指定的上傳工作: " + uploadId);
+                }
+                try {
+                        UploadSessionState state = objectMapper.readValue(file.toFile(), UploadSessionState.class);
+                        Session session = new Session(state, state.received().isEmpty() ? 0 : -1);
+                        Session existing = sessions.putIfAbsent(uploadId, session);
+                        return existing != null ? existing : session;
+                } catch (IOException exception) {
+                        throw new UploadNotFoundException("無法讀取上傳工作: " + exception.getMessage());
+                }
+        }
+
+        private void persist(Path staging, UploadSessionState state) throws IOException {
+                Path temporary = staging.resolve(state.id() + ".json.tmp");
+                objectMapper.writeValue(temporary.toFile(), state);
+                Files.move(temporary, staging.resolve(state.id() + ".json"), StandardCopyOption.ATOMIC_MOVE,
+                                StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        private void discard(Session session, Path staging) {
+                session.closed = true;
+                sessions.remove(session.state.id());
+                uploadService.deleteQuietly(staging.resolve(session.state.id() + ".part"));
+                uploadService.deleteQuietly(staging.resolve(session.state.id() + ".json"));
+        }
+
+        private void evictExpired(String repoId, Path repoDirectory) {
+                Instant cutoff = Instant.now().minus(sessionTtl);
+                try (Stream<Path> files = Files.list(uploadService.stagingDirectory(repoDirectory))) {
+                        files.filter(file -> {
+                                try {
+                                        return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+                                } catch (IOException exception) {
+                                        return false;
+                                }
+                        }).forEach(file -> {
+                                String name = file.getFileName().toString();
+                                sessions.remove(name.substring(0, name.indexOf('.')));
+                                uploadService.deleteQuietly(file);
+                                logger.info("Removed expired upload {} in repository {}", name, repoId);
+                        });
+                } catch (IOException exception) {
+                        logger.debug("Unable to clean uploads in {}: {}", repoId, exception.getMessage());
+                }
+        }
+
+        private Path staging(String repoId) {
+                try {
+                        return uploadService.stagingDirectory(repoService.requireRepository(repoId));
+                } catch (IOException exception) {
+                        throw new InvalidRequestException("無法建立上傳暫存目錄: " + exception.getMessage());
+                }
+        }
+
+        private UploadSessionResponse toResponse(Session session, String chunkSha256) {
+                UploadSessionState state = session.state;
+                return new UploadSessionResponse(state.id(), state.repoId(), state.path(), state.size(),
+                                receivedBytes(state.received()), state.received(), chunkSha256,
+                                state.updatedAt().plus(sessionTtl), null);
+        }
+
+        private static long receivedBytes(List<ByteRange> ranges) {
+                return ranges.stream().mapToLong(ByteRange::length).sum();
+        }
+
+        private static final class Session {
+
+                private UploadSessionState state;
+                private final MessageDigest running = ContentHashIndex.newDigest();
+                private long hashedUpTo;
+                private boolean hashing;
+                private int writers;
+                private boolean closed;
+
+                private Session(UploadSessionState state, long hashedUpTo) {
+                        this.state = state;
+                        this.hashedUpTo = hashedUpTo;
+                }
+        }
+}
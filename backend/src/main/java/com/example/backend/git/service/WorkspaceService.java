@@ -4,6 +4,7 @@ import jakarta.annotation.PostConstruct;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -14,9 +15,14 @@ public class WorkspaceService {
         private final Path reposRoot;
         private final Path dataDirectory;
 
+        @Autowired
         public WorkspaceService() {
-                this.backendRoot = Paths.get("").toAbsolutePath().normalize();
-                Path parent = backendRoot.getParent();
+                this(Paths.get(""));
+        }
+
+        public WorkspaceService(Path backendRoot) {
+                this.backendRoot = backendRoot.toAbsolutePath().normalize();
+                Path parent = this.backendRoot.getParent();
                 if (parent == null) {
                         throw new IllegalStateException("無法定位專案根目錄");
                 }
@@ -26,7 +32,7 @@ public class WorkspaceService {
         }
 
         @PostConstruct
-        void ensureWorkspace() {
+        public void ensureWorkspace() {
                 try {
                         Files.createDirectories(reposRoot);
                         Files.createDirectories(dataDirectory);
@@ -47,6 +53,10 @@ public class WorkspaceService {
                 return reposRoot;
         }
 
+        public Path getBasesRoot() {
+                return reposRoot.resolve(".bases");
+        }
+
         public Path getDataDirectory() {
                 return dataDirectory;
         }
@@ -66,6 +66,10 @@ public final class AzureRepoUrlParser {
                 return String.join("_", sanitize(project), sanitize(repository), sanitize(branch));
         }
 
+        public static String createBaseName(String project, String repository) {
+                return String.join("_", sanitize(project), sanitize(repository)) + ".git";
+        }
+
         private static String sanitize(String value) {
                 String cleaned = value.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9._-]+", "-");
                 if (cleaned.isBlank()) {
@@ -0,0 +1,61 @@
+package com.example.backend.git.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.backend.git.dto.RepoPageResponse;
+import com.example.backend.git.dto.RepoQuery;
+import com.example.backend.git.service.RepoService;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class RepoControllerTest {
+
+        private final VersionedRepoService repoService = new VersionedRepoService();
+        private MockMvc mockMvc;
+
+        @BeforeEach
+        void setUp() {
+                mockMvc = MockMvcBuilders
+                                .standaloneSetup(new RepoController(repoService, null, null, null, null, null)).build();
+        }
+
+        @Test
+        void listShouldAnswerNotModifiedUntilVersionChanges() throws Exception {
+                mockMvc.perform(get("/api/repos").param("size", "20")).andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.ETAG, "\"repos-v1\""))
+                                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                                .andExpect(jsonPath("$.size").value(20));
+
+                mockMvc.perform(get("/api/repos").header(HttpHeaders.IF_NONE_MATCH, "\"repos-v1\""))
+                                .andExpect(status().isNotModified());
+                repoService.version = "v2";
+                mockMvc.perform(get("/api/repos").header(HttpHeaders.IF_NONE_MATCH, "\"repos-v1\""))
+                                .andExpect(status().isOk()).andExpect(header().string(HttpHeaders.ETAG, "\"repos-v2\""));
+        }
+
+        private static final class VersionedRepoService extends RepoService {
+
+                private volatile String version = "v1";
+
+                private VersionedRepoService() {
+                        super(null, null, null, null, null, null, null, null, null, null, null, null, null);
+                }
+
+                @Override
+                public String repositoryListVersion() {
+                        return version;
+                }
+
+                @Override
+                public RepoPageResponse listRepositories(RepoQuery query) {
+                        return new RepoPageResponse(List.of(), query.page(), query.size(), 0, 0, version);
+                }
+        }
+}
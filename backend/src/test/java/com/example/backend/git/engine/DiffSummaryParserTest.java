@@ -0,0 +1,58 @@
+package com.example.backend.git.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.backend.git.model.ChangeListing;
+import com.example.backend.git.model.ChangedFile;
+import com.example.backend.git.service.NulRecordSplitter;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class DiffSummaryParserTest {
+
+        private static final String OUTPUT = ":100644 100644 aaa 000 M\0" + "2026/main/a.txt\0"
+                        + ":100644 100644 bbb 000 M\0" + "2026/main/b.bin\0"
+                        + ":100644 000000 ccc 000 D\0" + "2026/main/c.txt\0"
+                        + ":000000 100644 000 000 A\0" + "2026/main/d.txt\0"
+                        + "3\t1\t2026/main/a.txt\0" + "-\t-\t2026/main/b.bin\0" + "0\t4\t2026/main/c.txt\0"
+                        + "2\t0\t2026/main/d.txt\0";
+
+        @Test
+        void parseShouldKeepOnlyFilesAfterCursorWithinLimit() {
+                ChangeListing listing = parse("2026/main/a.txt", 2);
+
+                assertThat(listing.files()).extracting(ChangedFile::path).containsExactly("2026/main/b.bin",
+                                "2026/main/c.txt");
+                assertThat(listing.files().get(0).binary()).isTrue();
+                assertThat(listing.files().get(0).insertions()).isNull();
+                assertThat(listing.files().get(1).status()).isEqualTo("D");
+                assertThat(listing.files().get(1).deletions()).isEqualTo(4);
+                assertThat(listing.remaining()).isEqualTo(3);
+                assertThat(listing.total()).isEqualTo(4);
+                assertThat(listing.insertions()).isEqualTo(5);
+                assertThat(listing.deletions()).isEqualTo(5);
+        }
+
+        @Test
+        void parseShouldStartAtFirstFileWithoutCursor() {
+                ChangeListing listing = parse(null, 10);
+
+                assertThat(listing.files()).hasSize(4);
+                assertThat(listing.files().get(0).insertions()).isEqualTo(3);
+                assertThat(listing.files().get(3).status()).isEqualTo("A");
+                assertThat(listing.files().get(3).insertions()).isEqualTo(2);
+        }
+
+        private static ChangeListing parse(String after, int limit) {
+                DiffSummaryParser parser = new DiffSummaryParser(new ChangeWindow(after, limit));
+                NulRecordSplitter splitter = new NulRecordSplitter(parser);
+                byte[] bytes = OUTPUT.getBytes(StandardCharsets.UTF_8);
+                for (int offset = 0; offset < bytes.length; offset += 5) {
+                        byte[] chunk = new byte[Math.min(5, bytes.length - offset)];
+                        System.arraycopy(bytes, offset, chunk, 0, chunk.length);
+                        splitter.onOutput(chunk, chunk.length);
+                }
+                splitter.finish();
+                return parser.result();
+        }
+}
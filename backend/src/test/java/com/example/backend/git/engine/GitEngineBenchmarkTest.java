@@ -0,0 +1,125 @@
+package com.example.backend.git.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.backend.git.service.FileLockService;
+import com.example.backend.git.service.GitCommandRunner;
+import com.example.backend.git.service.GitMetrics;
+import com.example.backend.git.service.GitTimeouts;
+import com.example.backend.git.service.PatService;
+import com.example.backend.git.service.WorkspaceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 以本機 bare repository 比較 CLI 與 JGit 引擎完整 commit-and-push 流程的延遲。
+ * 執行方式：{@code ./mvnw test -Dtest=GitEngineBenchmarkTest -Dbenchmark=true}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class GitEngineBenchmarkTest {
+
+        private static final int WARMUP_ROUNDS = 3;
+        private static final int MEASURED_ROUNDS = 20;
+
+        @TempDir
+        Path workspace;
+
+        @Test
+        void compareCommitAndPushLatency() throws IOException {
+                GitCommandRunner runner = new GitCommandRunner(32768, new GitMetrics(new SimpleMeterRegistry()),
+                                GitTimeouts.defaults());
+                PatService patService = new LocalPatService();
+                Path origin = createOrigin(runner);
+
+                long[] cli = measure(new CliGitEngine(runner, patService), origin);
+                long[] jgit = measure(new JGitEngine(patService, GitTimeouts.defaults()), origin);
+
+                report("cli", cli);
+                report("jgit", jgit);
+                assertThat(cli).hasSize(MEASURED_ROUNDS);
+                assertThat(jgit).hasSize(MEASURED_ROUNDS);
+        }
+
+        private Path createOrigin(GitCommandRunner runner) throws IOException {
+                Path origin = workspace.resolve("origin.git");
+                Path seed = workspace.resolve("seed");
+                runner.runAndEnsureSuccess(workspace, List.of("git", "init", "--bare", "-b", "main", origin.toString()),
+                                Map.of(), "init origin");
+                runner.runAndEnsureSuccess(workspace, List.of("git", "clone", origin.toString(), seed.toString()), Map.of(),
+                                "clone seed");
+                Files.writeString(seed.resolve("README.md"), "seed\n");
+                runner.runAndEnsureSuccess(seed, List.of("git", "add", "README.md"), Map.of(), "add seed");
+                runner.runAndEnsureSuccess(seed, List.of("git", "-c", "user.name=bench", "-c", "user.email=bench@example.com",
+                                "commit", "-m", "seed"), Map.of(), "commit seed");
+                runner.runAndEnsureSuccess(seed, List.of("git", "push", "origin", "HEAD:main"), Map.of(), "push seed");
+                return origin;
+        }
+
+        private long[] measure(GitEngine engine, Path origin) throws IOException {
+                String folderName = "clone-" + engine.name();
+                engine.cloneRepository(workspace, origin.toString(), folderName);
+                Path repository = workspace.resolve(folderName);
+                engine.setConfig(repository, "user.name", "bench");
+                engine.setConfig(repository, "user.email", "bench@example.com");
+                Path scope = repository.resolve("2026").resolve("main");
+                Files.createDirectories(scope);
+
+                long[] samples = new long[MEASURED_ROUNDS];
+                for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                        Files.writeString(scope.resolve(engine.name() + "-" + round + ".txt"), "round " + round + "\n");
+                        long started = System.nanoTime();
+                        engine.checkout(repository, "main");
+                        engine.fetch(repository, "main");
+                        engine.mergeFastForward(repository, "origin/main");
+                        engine.add(repository, "2026/main");
+                        assertThat(engine.status(repository, "2026/main").clean()).isFalse();
+                        engine.commit(repository, "round " + round);
+                        engine.push(repository, "main", false);
+                        long elapsed = System.nanoTime() - started;
+                        if (round >= WARMUP_ROUNDS) {
+                                samples[round - WARMUP_ROUNDS] = elapsed;
+                        }
+                }
+                return samples;
+        }
+
+        private void report(String engine, long[] samples) {
+                long[] sorted = samples.clone();
+                Arrays.sort(sorted);
+                double mean = Arrays.stream(sorted).average().orElse(0) / 1_000_000d;
+                System.out.printf("%-5s commit-and-push: mean %.1f ms, p50 %.1f ms, p95 %.1f ms%n", engine, mean,
+                                sorted[sorted.length / 2] / 1_000_000d,
+                                sorted[(int) Math.ceil(sorted.length * 0.95) - 1] / 1_000_000d);
+        }
+
+        private static final class LocalPatService extends PatService {
+
+                private LocalPatService() {
+                        this(new WorkspaceService());
+                }
+
+                private LocalPatService(WorkspaceService workspaceService) {
+                        super(workspaceService, new FileLockService(workspaceService, false, Duration.ofMinutes(2),
+                                        Duration.ofSeconds(30)), true);
+                }
+
+                @Override
+                public String requirePat() {
+                        return "local";
+                }
+
+                @Override
+                public Map<String, String> buildGitEnvironment() {
+                        return Map.of();
+                }
+        }
+}
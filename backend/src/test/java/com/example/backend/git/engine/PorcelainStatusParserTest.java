@@ -0,0 +1,57 @@
+package com.example.backend.git.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.backend.git.model.StatusSummary;
+import com.example.backend.git.service.NulRecordSplitter;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class PorcelainStatusParserTest {
+
+        @Test
+        void parseShouldCountEntriesAcrossChunkBoundaries() {
+                String output = "# branch.oid 0123456789abcdef\0# branch.head main\0# branch.upstream origin/main\0"
+                                + "# branch.ab +2 -1\0"
+                                + "1 M. N... 100644 100644 100644 aaa bbb 2026/main/a.txt\0"
+                                + "1 .M N... 100644 100644 100644 aaa aaa 2026/main/含 空白.txt\0"
+                                + "2 R. N... 100644 100644 100644 aaa aaa R100 2026/main/new.txt\0" + "2026/main/old.txt\0"
+                                + "u UU N... 100644 100644 100644 100644 aaa bbb ccc 2026/main/conflict.txt\0"
+                                + "? 2026/main/untracked.bin\0";
+                byte[] bytes = output.getBytes(StandardCharsets.UTF_8);
+                PorcelainStatusParser parser = new PorcelainStatusParser();
+                NulRecordSplitter splitter = new NulRecordSplitter(parser);
+                for (int offset = 0; offset < bytes.length; offset += 7) {
+                        byte[] chunk = new byte[Math.min(7, bytes.length - offset)];
+                        System.arraycopy(bytes, offset, chunk, 0, chunk.length);
+                        splitter.onOutput(chunk, chunk.length);
+                }
+                splitter.finish();
+
+                StatusSummary summary = parser.result();
+                assertThat(summary.branch()).isEqualTo("main");
+                assertThat(summary.upstream()).isEqualTo("origin/main");
+                assertThat(summary.ahead()).isEqualTo(2);
+                assertThat(summary.behind()).isEqualTo(1);
+                assertThat(summary.changedFiles()).isEqualTo(5);
+                assertThat(summary.staged()).isEqualTo(2);
+                assertThat(summary.unstaged()).isEqualTo(1);
+                assertThat(summary.conflicted()).isEqualTo(1);
+                assertThat(summary.untracked()).isEqualTo(1);
+                assertThat(summary.toWorkingTreeStatus().upToDateWithUpstream()).isFalse();
+        }
+
+        @Test
+        void parseShouldReportCleanTreeWithoutUpstream() {
+                PorcelainStatusParser parser = new PorcelainStatusParser();
+                NulRecordSplitter splitter = new NulRecordSplitter(parser);
+                byte[] bytes = "# branch.oid (initial)\0# branch.head (detached)\0".getBytes(StandardCharsets.UTF_8);
+                splitter.onOutput(bytes, bytes.length);
+                splitter.finish();
+
+                StatusSummary summary = parser.result();
+                assertThat(summary.branch()).isNull();
+                assertThat(summary.ahead()).isNull();
+                assertThat(summary.clean()).isTrue();
+        }
+}
@@ -0,0 +1,196 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.backend.error.InvalidRequestException;
+import com.example.backend.git.dto.ChangePreviewResponse;
+import com.example.backend.git.dto.FileDiffResponse;
+import com.example.backend.git.engine.CliGitEngine;
+import com.example.backend.git.model.ChangedFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 以暫存 git repository 驗證變更預覽：已追蹤與未追蹤檔案的合併分頁、二進位判斷與 diff 的範圍限制。
+ */
+class ChangePreviewServiceTest {
+
+        private static final String REPO_ID = "proj_repo_main";
+        private static final String SCOPE = "2026/main";
+
+        @TempDir
+        Path root;
+
+        private GitCommandRunner gitCommandRunner;
+        private ChangePreviewService previewService;
+        private Path repository;
+        private Path scope;
+
+        @BeforeEach
+        void setUp() throws Exception {
+                gitCommandRunner = TestServices.gitCommandRunner();
+                repository = root.resolve("repo");
+                scope = repository.resolve(SCOPE);
+                git(root, "init", "-b", "main", repository.toString());
+                Files.createDirectories(scope);
+                Files.writeString(repository.resolve("README.md"), "readme\n");
+                Files.writeString(scope.resolve("b-tracked.txt"), "one\ntwo\n");
+                Files.writeString(scope.resolve("d-removed.txt"), "gone\n");
+                git(repository, "add", ".");
+                git(repository, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-m", "seed");
+                previewService = new ChangePreviewService(new StubRepoService(repository), new CliGitEngine(gitCommandRunner,
+                                null), DataSize.ofKilobytes(256), DataSize.ofMegabytes(4));
+        }
+
+        @Test
+        void pagesShouldMergeTrackedAndUntrackedFilesInPathOrder() throws Exception {
+                Files.writeString(scope.resolve("b-tracked.txt"), "one\ntwo\nthree\n");
+                Files.delete(scope.resolve("d-removed.txt"));
+                Files.writeString(scope.resolve("a-new.txt"), "1\n2\n3");
+                Files.writeString(scope.resolve("c-new.txt"), "");
+                Files.createDirectories(scope.resolve("e-dir"));
+                Files.writeString(scope.resolve("e-dir/f-new.txt"), "x\n");
+                Files.writeString(repository.resolve("README.md"), "changed outside scope\n");
+
+                List<ChangedFile> files = new ArrayList<>();
+                String cursor = null;
+                List<String> cursors = new ArrayList<>();
+                do {
+                        ChangePreviewResponse page = previewService.changes(REPO_ID, cursor, 2);
+                        assertThat(page.totalFiles()).isEqualTo(5);
+                        assertThat(page.insertions()).isEqualTo(1);
+                        assertThat(page.deletions()).isEqualTo(1);
+                        assertThat(page.files()).hasSizeLessThanOrEqualTo(2);
+                        files.addAll(page.files());
+                        cursor = page.nextCursor();
+                        if (cursor != null) {
+                                cursors.add(cursor);
+                        }
+                } while (cursor != null);
+
+                assertThat(files).extracting(ChangedFile::path).containsExactly(SCOPE + "/a-new.txt",
+                                SCOPE + "/b-tracked.txt", SCOPE + "/c-new.txt", SCOPE + "/d-removed.txt",
+                                SCOPE + "/e-dir/f-new.txt");
+                assertThat(cursors).hasSize(2).allSatisfy(value -> assertThat(value).doesNotContain("=", "+", "/"));
+                assertThat(new String(Base64.getUrlDecoder().decode(cursors.get(0)), StandardCharsets.UTF_8))
+                                .isEqualTo(SCOPE + "/b-tracked.txt");
+
+                Map<String, ChangedFile> byPath = files.stream()
+                                .collect(Collectors.toMap(ChangedFile::path, Function.identity()));
+                assertThat(byPath.get(SCOPE + "/a-new.txt")).isEqualTo(
+                                new ChangedFile(SCOPE + "/a-new.txt", "A", 3, 0, false, true));
+                assertThat(byPath.get(SCOPE + "/c-new.txt").insertions()).isZero();
+                assertThat(byPath.get(SCOPE + "/b-tracked.txt").untracked()).isFalse();
+                assertThat(byPath.get(SCOPE + "/d-removed.txt").status()).isEqualTo("D");
+                assertThatThrownBy(() -> previewService.changes(REPO_ID, "%%%", 2))
+                                .isInstanceOf(InvalidRequestException.class);
+        }
+
+        @Test
+        void untrackedFilesShouldBeSniffedForBinaryAndLargeFilesSkipped() throws Exception {
+                byte[] binary = new byte[9000];
+                binary[7999] = 0;
+                Arrays.fill(binary, 0, 7999, (byte) 'a');
+                Arrays.fill(binary, 8000, 9000, (byte) 'a');
+                Files.write(scope.resolve("binary.bin"), binary);
+                byte[] lateNul = new byte[9000];
+                Arrays.fill(lateNul, (byte) '\n');
+                lateNul[8500] = 0;
+                Files.write(scope.resolve("late-nul.txt"), lateNul);
+                byte[] large = new byte[16 * 1024 * 1024 + 1];
+                Arrays.fill(large, (byte) '\n');
+                Files.write(scope.resolve("large.txt"), large);
+
+                Map<String, ChangedFile> files = previewService.changes(REPO_ID, null, 10).files().stream()
+                                .collect(Collectors.toMap(ChangedFile::path, Function.identity()));
+
+                assertThat(files.get(SCOPE + "/binary.bin")).isEqualTo(
+                                new ChangedFile(SCOPE + "/binary.bin", "A", null, null, true, true));
+                assertThat(files.get(SCOPE + "/late-nul.txt").binary()).isFalse();
+                assertThat(files.get(SCOPE + "/late-nul.txt").insertions()).isEqualTo(8999);
+                assertThat(files.get(SCOPE + "/large.txt").binary()).isFalse();
+                assertThat(files.get(SCOPE + "/large.txt").insertions()).isNull();
+
+                assertThat(previewService.diff(REPO_ID, SCOPE + "/binary.bin", null).binary()).isTrue();
+        }
+
+        @Test
+        void diffShouldStayInsideCommitScope() throws Exception {
+                Files.writeString(scope.resolve("b-tracked.txt"), "one\ntwo\nthree\n");
+
+                FileDiffResponse diff = previewService.diff(REPO_ID, SCOPE + "/b-tracked.txt", null);
+                assertThat(diff.binary()).isFalse();
+                assertThat(diff.diff()).contains("+three");
+
+                for (String path : List.of("README.md", SCOPE + "/../../README.md", SCOPE, "")) {
+                        assertThatThrownBy(() -> previewService.diff(REPO_ID, path, null)).as(path)
+                                        .isInstanceOf(InvalidRequestException.class);
+                }
+                assertThatThrownBy(() -> previewService.diff(REPO_ID, SCOPE + "/missing.txt", null))
+                                .isInstanceOf(InvalidRequestException.class).hasMessageContaining("檔案沒有變更");
+                assertThatThrownBy(() -> previewService.diff(REPO_ID, SCOPE + "/b-tracked.txt", 0))
+                                .isInstanceOf(InvalidRequestException.class);
+        }
+
+        @Test
+        void symlinksShouldNotBeFollowedOutsideRepository() throws Exception {
+                Path outside = Files.createDirectories(root.resolve("outside"));
+                Path secret = Files.write(outside.resolve("secret.bin"), new byte[] { 's', 0, 'x' });
+                Files.createSymbolicLink(scope.resolve("link.bin"), secret);
+                Files.createSymbolicLink(scope.resolve("linked-dir"), outside);
+
+                ChangedFile link = previewService.changes(REPO_ID, null, 10).files().stream()
+                                .filter(file -> file.path().equals(SCOPE + "/link.bin")).findFirst().orElseThrow();
+                assertThat(link).isEqualTo(new ChangedFile(SCOPE + "/link.bin", "A", 1, 0, false, true));
+
+                FileDiffResponse diff = previewService.diff(REPO_ID, SCOPE + "/link.bin", null);
+                assertThat(diff.binary()).isFalse();
+                assertThat(diff.diff()).contains("120000", secret.toString());
+
+                assertThatThrownBy(() -> previewService.diff(REPO_ID, SCOPE + "/linked-dir/secret.bin", null))
+                                .isInstanceOf(InvalidRequestException.class);
+        }
+
+        private String git(Path directory, String... arguments) {
+                List<String> command = Stream.concat(Stream.of("git"), Stream.of(arguments)).toList();
+                GitCommandRunner.CommandResult result = gitCommandRunner.run(directory, command, Map.of());
+                if (!result.isSuccess()) {
+                        throw gitCommandRunner.failure(result, "git " + arguments[0] + " 失敗");
+                }
+                return result.stdout();
+        }
+
+        private static final class StubRepoService extends RepoService {
+
+                private final Path repository;
+
+                private StubRepoService(Path repository) {
+                        super(null, null, null, null, null, null, null, null, null, null, null, null, null);
+                        this.repository = repository;
+                }
+
+                @Override
+                public Path requireRepository(String repoId) {
+                        return repository;
+                }
+
+                @Override
+                public String resolveCommitScope(String repoId) {
+                        return SCOPE;
+                }
+        }
+}
@@ -0,0 +1,152 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.backend.git.dto.CommitRequest;
+import com.example.backend.git.dto.CommitResponse;
+import com.example.backend.git.dto.JobResponse;
+import com.example.backend.git.model.JobState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class CommitCoalescerTest {
+
+        private static final String REPO_ID = "proj_repo_main";
+
+        @TempDir
+        Path root;
+
+        private final RecordingRepoService repoService = new RecordingRepoService();
+        private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        private RecordingHistory history;
+        private JobService jobService;
+
+        @BeforeEach
+        void setUp() {
+                history = new RecordingHistory(new WorkspaceService(root.resolve("backend")));
+                jobService = new JobService(2, 10, Duration.ofHours(1), new GitMetrics(registry), history);
+        }
+
+        @AfterEach
+        void tearDown() {
+                jobService.shutdown();
+        }
+
+        @Test
+        void requestsInWindowShouldShareOneCommitWithoutHoldingPoolThreads() throws Exception {
+                CommitCoalescer coalescer = new CommitCoalescer(repoService, jobService, Duration.ofSeconds(1), 50);
+                List<JobResponse> submitted = List.of(coalescer.submit(REPO_ID, new CommitRequest("first")),
+                                coalescer.submit(REPO_ID, new CommitRequest("second")),
+                                coalescer.submit(REPO_ID, new CommitRequest("third")));
+
+                // 三個請求只佔用一個執行緒，另一個 Repository 的工作不必等到視窗結束
+                JobResponse other = jobService.submit("clone", "proj_repo_other", tracker -> "cloned");
+                assertThat(awaitFinished(other.id(), Duration.ofMillis(500)).state()).isEqualTo(JobState.SUCCEEDED);
+                assertThat(jobService.getJob(submitted.get(0).id()).state()).isEqualTo(JobState.RUNNING);
+
+                for (JobResponse job : submitted) {
+                        JobResponse finished = awaitFinished(job.id(), Duration.ofSeconds(5));
+                        assertThat(finished.state()).isEqualTo(JobState.SUCCEEDED);
+                        assertThat(((CommitResponse) finished.result()).message()).endsWith("此 Commit 合併了 3 個提交請求。");
+                        assertThat(finished.steps()).extracting("name").contains("coalesce");
+                }
+                assertThat(repoService.messages).containsExactly("first\n\n- second\n- third");
+        }
+
+        @Test
+        void requestCancelledInsideWindowShouldBeWithdrawn() throws Exception {
+                CommitCoalescer coalescer = new CommitCoalescer(repoService, jobService, Duration.ofMillis(300), 50);
+                JobResponse first = coalescer.submit(REPO_ID, new CommitRequest("first"));
+                JobResponse second = coalescer.submit(REPO_ID, new CommitRequest("second"));
+                JobResponse third = coalescer.submit(REPO_ID, new CommitRequest("third"));
+
+                jobService.cancel(second.id());
+
+                assertThat(jobService.getJob(second.id()).state()).isEqualTo(JobState.CANCELLED);
+                assertThat(awaitFinished(first.id(), Duration.ofSeconds(5)).state()).isEqualTo(JobState.SUCCEEDED);
+                CommitResponse response = (CommitResponse) awaitFinished(third.id(), Duration.ofSeconds(5)).result();
+                assertThat(response.message()).endsWith("此 Commit 合併了 2 個提交請求。");
+                assertThat(repoService.messages).containsExactly("first\n\n- third");
+        }
+
+        @Test
+        void batchWithEveryRequestCancelledShouldNotCommit() throws Exception {
+                CommitCoalescer coalescer = new CommitCoalescer(repoService, jobService, Duration.ofMillis(100), 50);
+                JobResponse only = coalescer.submit(REPO_ID, new CommitRequest("only"));
+
+                jobService.cancel(only.id());
+                Thread.sleep(300);
+                JobResponse next = coalescer.submit(REPO_ID, new CommitRequest("next"));
+
+                assertThat(jobService.getJob(only.id()).state()).isEqualTo(JobState.CANCELLED);
+                assertThat(awaitFinished(next.id(), Duration.ofSeconds(5)).state()).isEqualTo(JobState.SUCCEEDED);
+                assertThat(repoService.messages).containsExactly("next");
+        }
+
+        @Test
+        void batchShouldBeRecordedOnceInHistoryAndMetrics() throws Exception {
+                CommitCoalescer coalescer = new CommitCoalescer(repoService, jobService, Duration.ofMillis(200), 50);
+                List<JobResponse> submitted = List.of(coalescer.submit(REPO_ID, new CommitRequest("first")),
+                                coalescer.submit(REPO_ID, new CommitRequest("second")),
+                                coalescer.submit(REPO_ID, new CommitRequest("third")));
+                for (JobResponse job : submitted) {
+                        assertThat(awaitFinished(job.id(), Duration.ofSeconds(5)).state()).isEqualTo(JobState.SUCCEEDED);
+                }
+
+                assertThat(history.outcomes).containsExactly("commit-and-push:SUCCEEDED");
+                assertThat(registry.get("git.job").tag("type", "commit-and-push").timer().count()).isEqualTo(1);
+                assertThat(registry.get("git.job.queued").tag("type", "commit-and-push").timer().count()).isEqualTo(1);
+        }
+
+        private JobResponse awaitFinished(String jobId, Duration timeout) throws InterruptedException {
+                long deadline = System.nanoTime() + timeout.toNanos();
+                JobResponse job = jobService.getJob(jobId);
+                while (!job.state().isFinished() && System.nanoTime() < deadline) {
+                        TimeUnit.MILLISECONDS.sleep(10);
+                        job = jobService.getJob(jobId);
+                }
+                return job;
+        }
+
+        private static final class RecordingRepoService extends RepoService {
+
+                private final List<String> messages = new CopyOnWriteArrayList<>();
+
+                private RecordingRepoService() {
+                        super(null, null, null, null, null, null, null, null, null, null, null, null, null);
+                }
+
+                @Override
+                public CommitResponse commitAndPush(String repoId, CommitRequest request, OperationTracker tracker) {
+                        messages.add(request.message());
+                        tracker.step("commit", () -> {
+                        });
+                        return new CommitResponse(true, "已提交。", 0, List.of(), 0, 1, 1, tracker.getSteps(), List.of());
+                }
+        }
+
+        private static final class RecordingHistory extends OperationHistory {
+
+                private final List<String> outcomes = new CopyOnWriteArrayList<>();
+
+                private RecordingHistory(WorkspaceService workspaceService) {
+                        super(workspaceService, new ObjectMapper(), false, DataSize.ofMegabytes(1), 1, 10);
+                }
+
+                @Override
+                public void record(String repoId, String operation, OperationTracker tracker, JobState outcome,
+                                long durationMillis, String error) {
+                        outcomes.add(operation + ":" + outcome);
+                }
+        }
+}
@@ -0,0 +1,85 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+import com.example.backend.error.GitOperationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+
+class GitCommandRunnerTest {
+
+        private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        private final GitCommandRunner runner = TestServices.gitCommandRunner(1024, new GitMetrics(registry));
+
+        @Test
+        void runShouldDrainLargeStderrWithoutBlocking() {
+                GitCommandRunner.CommandResult result = runner.run(null,
+                                List.of("sh", "-c", "head -c 1000000 /dev/zero | tr '\\0' x >&2; echo done"), Map.of());
+
+                assertThat(result.isSuccess()).isTrue();
+                assertThat(result.stdout()).isEqualTo("done");
+                assertThat(result.stderrBytes()).isEqualTo(1_000_000);
+                assertThat(result.stderr().length()).isLessThan(2048);
+        }
+
+        @Test
+        void runShouldStreamLinesToListener() {
+                List<String> lines = new CopyOnWriteArrayList<>();
+                runner.run(null, List.of("sh", "-c", "printf 'a\\nb\\rc\\n'; echo err >&2"), Map.of(),
+                                (channel, line) -> lines.add(channel + ":" + line));
+
+                assertThat(lines).containsExactlyInAnyOrder("STDOUT:a", "STDOUT:b", "STDOUT:c", "STDERR:err");
+        }
+
+        @Test
+        void runShouldRecordTimerAndFailureMetrics() {
+                GitCommandRunner.CommandResult result = runner.run(null, List.of("git", "--no-pager", "frobnicate"),
+                                Map.of());
+                runner.failure(result, "無法執行 frobnicate");
+
+                assertThat(registry.get("git.command").tag("subcommand", "frobnicate").tag("exit", "1").timer().count())
+                                .isEqualTo(1);
+                assertThat(registry.get("git.command.output").tag("stream", "stderr").summary().totalAmount())
+                                .isEqualTo(result.stderrBytes());
+                assertThat(registry.get("git.operation.failures").tag("type", "other").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        void runShouldKillProcessTreeWhenTimeoutExpires() throws InterruptedException {
+                Duration timeout = Duration.ofMillis(300);
+                GitCommandRunner bounded = new GitCommandRunner(1024, new GitMetrics(registry),
+                                new GitTimeouts(timeout, timeout, timeout, timeout));
+                long started = System.nanoTime();
+
+                GitOperationException exception = catchThrowableOfType(GitOperationException.class,
+                                () -> bounded.run(null, List.of("sh", "-c", "sleep 30 & echo $!; wait"), Map.of()));
+
+                assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(10));
+                assertThat(exception.getMessage()).contains("強制終止");
+                long child = Long.parseLong(exception.getStdout().trim());
+                for (int attempt = 0; attempt < 50 && ProcessHandle.of(child).map(ProcessHandle::isAlive).orElse(false);
+                                attempt++) {
+                        Thread.sleep(100);
+                }
+                assertThat(ProcessHandle.of(child).map(ProcessHandle::isAlive).orElse(false)).isFalse();
+                assertThat(registry.get("git.command").tag("exit", "timeout").timer().count()).isEqualTo(1);
+                assertThat(registry.get("git.operation.failures").tag("type", "timeout").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        void boundedOutputBufferShouldKeepHeadAndTail() {
+                BoundedOutputBuffer buffer = new BoundedOutputBuffer(4, 4);
+                byte[] data = "0123456789abcdef".getBytes();
+                buffer.write(data, 0, 10);
+                buffer.write(data, 10, 6);
+
+                assertThat(buffer.getTotalBytes()).isEqualTo(16);
+                assertThat(buffer.isTruncated()).isTrue();
+                assertThat(buffer.toString()).startsWith("0123").endsWith("cdef");
+        }
+}
@@ -0,0 +1,107 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.backend.error.GitOperationException;
+import com.example.backend.git.model.JobState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class GitMetricsTest {
+
+        private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        private final GitMetrics gitMetrics = new GitMetrics(registry);
+
+        @Test
+        void timeShouldRecordExitCodeAndFailures() {
+                Path repository = Path.of("/repos/proj_repo_main");
+                assertThat(gitMetrics.time("jgit", "fetch", repository, () -> "done")).isEqualTo("done");
+                assertThatThrownBy(() -> gitMetrics.time("jgit", "push", repository, () -> {
+                        throw new GitOperationException("推送失敗", "jgit push origin main", "", "not authorized");
+                })).isInstanceOf(GitOperationException.class);
+
+                assertThat(registry.get("git.command").tag("engine", "jgit").tag("subcommand", "fetch").tag("exit", "0")
+                                .tag("repo", "proj_repo_main").timer().count()).isEqualTo(1);
+                assertThat(registry.get("git.command").tag("subcommand", "push").tag("exit", "error").timer().count())
+                                .isEqualTo(1);
+                assertThat(registry.get("git.operation.failures").tag("subcommand", "push").tag("type", "auth").counter()
+                                .count()).isEqualTo(1);
+        }
+
+        @Test
+        void failureTypeShouldNotDependOnMessageText() {
+                for (int attempt = 1; attempt <= 3; attempt++) {
+                        gitMetrics.recordFailure(new GitOperationException("遠端持續有其他更新，已嘗試推送 " + attempt + " 次仍失敗",
+                                        "git push origin main", "", " ! [rejected] main -> main (fetch first)"));
+                        gitMetrics.recordFailure(new GitOperationException("git fetch 執行超過 " + attempt + " 秒，已強制終止",
+                                        "git fetch origin", "", ""), GitMetrics.FailureType.TIMEOUT);
+                        gitMetrics.recordFailure(new GitOperationException("無法複製 " + attempt, "git clone url " + attempt, "",
+                                        "fatal: repository not found"));
+                }
+                gitMetrics.recordFailure(new GitOperationException("無法取得", "git fetch origin", "",
+                                "fatal: unable to access 'https://dev.azure.com/': The requested URL returned error: 403"));
+
+                List<String> types = registry.find("git.operation.failures").counters().stream()
+                                .map(counter -> counter.getId().getTag("type")).distinct().sorted().toList();
+                assertThat(types).containsExactly("auth", "other", "rejected", "timeout");
+                assertThat(registry.get("git.operation.failures").tag("subcommand", "push").tag("type", "rejected")
+                                .counter().count()).isEqualTo(3);
+                assertThat(registry.get("git.operation.failures").tag("subcommand", "fetch").tag("type", "timeout")
+                                .counter().count()).isEqualTo(3);
+                assertThat(registry.find("git.operation.failures").tag("subcommand", "clone").counters())
+                                .extracting(Counter::count).containsExactly(3.0);
+        }
+
+        @Test
+        void outputSummaryShouldSeparateStreams() {
+                gitMetrics.recordOutput("status", 1024, 10);
+                gitMetrics.recordOutput("status", 2048, 0);
+
+                DistributionSummary stdout = registry.get("git.command.output").tag("subcommand", "status")
+                                .tag("stream", "stdout").summary();
+                assertThat(stdout.count()).isEqualTo(2);
+                assertThat(stdout.totalAmount()).isEqualTo(3072);
+                assertThat(registry.get("git.command.output").tag("stream", "stderr").summary().totalAmount()).isEqualTo(10);
+        }
+
+        @Test
+        void activeGaugeShouldTrackRunningClonesAndPushes() {
+                GitMetrics.Sample clone = gitMetrics.start("cli", "clone", "repo");
+                GitMetrics.Sample push = gitMetrics.start("cli", "push", "repo");
+                GitMetrics.Sample status = gitMetrics.start("cli", "status", "repo");
+
+                assertThat(active("clone")).isEqualTo(1);
+                assertThat(active("push")).isEqualTo(1);
+                assertThat(registry.find("git.command.active").tag("subcommand", "status").gauge()).isNull();
+
+                gitMetrics.stop(clone, "0");
+                gitMetrics.stop(push, "timeout");
+                gitMetrics.stop(status, "0");
+
+                assertThat(active("clone")).isZero();
+                assertThat(active("push")).isZero();
+                assertThat(registry.get("git.command").tag("subcommand", "push").tag("exit", "timeout").timer().count())
+                                .isEqualTo(1);
+        }
+
+        @Test
+        void jobTimersShouldBeTaggedByTypeAndState() {
+                gitMetrics.recordJob("clone", JobState.SUCCEEDED, Duration.ofMillis(5), Duration.ofSeconds(2));
+                gitMetrics.recordJob("clone", JobState.FAILED, Duration.ofMillis(5), Duration.ofSeconds(1));
+
+                assertThat(registry.get("git.job.queued").tag("type", "clone").timer().count()).isEqualTo(2);
+                assertThat(registry.get("git.job").tag("type", "clone").tag("state", "SUCCEEDED").timer().totalTime(
+                                TimeUnit.SECONDS)).isEqualTo(2.0);
+        }
+
+        private double active(String subcommand) {
+                return registry.get("git.command.active").tag("subcommand", subcommand).gauge().value();
+        }
+}
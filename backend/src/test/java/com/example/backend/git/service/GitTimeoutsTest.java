@@ -0,0 +1,32 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class GitTimeoutsTest {
+
+        @Test
+        void subcommandShouldSelectMatchingTimeout() {
+                GitTimeouts timeouts = new GitTimeouts(Duration.ofMinutes(1), Duration.ofMinutes(2), Duration.ofMinutes(3),
+                                Duration.ofMinutes(4));
+
+                assertThat(timeouts.forSubcommand("clone")).isEqualTo(Duration.ofMinutes(1));
+                assertThat(timeouts.forSubcommand("fetch")).isEqualTo(Duration.ofMinutes(2));
+                assertThat(timeouts.forSubcommand("ls-remote")).isEqualTo(Duration.ofMinutes(2));
+                assertThat(timeouts.forSubcommand("pull")).isEqualTo(Duration.ofMinutes(2));
+                assertThat(timeouts.forSubcommand("push")).isEqualTo(Duration.ofMinutes(3));
+                assertThat(timeouts.forSubcommand("commit")).isEqualTo(Duration.ofMinutes(4));
+                assertThat(timeouts.forSubcommand("status")).isEqualTo(Duration.ofMinutes(4));
+        }
+
+        @Test
+        void defaultsShouldAllowLongTransfers() {
+                GitTimeouts timeouts = GitTimeouts.defaults();
+
+                assertThat(timeouts.forSubcommand("clone")).isEqualTo(Duration.ofHours(1));
+                assertThat(timeouts.forSubcommand("push")).isEqualTo(Duration.ofMinutes(30));
+                assertThat(timeouts.forSubcommand("add")).isEqualTo(Duration.ofMinutes(10));
+        }
+}
@@ -0,0 +1,142 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.backend.error.JobRejectedException;
+import com.example.backend.git.dto.JobResponse;
+import com.example.backend.git.model.JobState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class JobServiceTest {
+
+        @TempDir
+        Path root;
+
+        private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        private JobService jobService;
+
+        @BeforeEach
+        void setUp() {
+                OperationHistory history = new OperationHistory(new WorkspaceService(root.resolve("backend")),
+                                new ObjectMapper(), false, DataSize.ofMegabytes(1), 1, 10);
+                jobService = new JobService(1, 1, Duration.ofHours(1), new GitMetrics(registry), history);
+        }
+
+        @AfterEach
+        void tearDown() {
+                jobService.shutdown();
+        }
+
+        @Test
+        void jobShouldMoveFromQueuedToRunningToSucceeded() throws Exception {
+                CountDownLatch started = new CountDownLatch(1);
+                CountDownLatch release = new CountDownLatch(1);
+                JobResponse submitted = jobService.submit("clone", "proj_repo_main", tracker -> {
+                        started.countDown();
+                        await(release);
+                        return "done";
+                });
+                assertThat(submitted.state()).isIn(JobState.QUEUED, JobState.RUNNING);
+
+                assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+                assertThat(jobService.getJob(submitted.id()).state()).isEqualTo(JobState.RUNNING);
+                release.countDown();
+
+                JobResponse finished = awaitFinished(submitted.id());
+                assertThat(finished.state()).isEqualTo(JobState.SUCCEEDED);
+                assertThat(finished.result()).isEqualTo("done");
+                assertThat(finished.startedAt()).isNotNull();
+                assertThat(jobService.activeJobs()).isEmpty();
+        }
+
+        @Test
+        void failingJobShouldReportError() throws Exception {
+                JobResponse submitted = jobService.submit("commit-and-push", "proj_repo_main", tracker -> {
+                        throw new IllegalStateException("boom");
+                });
+
+                JobResponse finished = awaitFinished(submitted.id());
+                assertThat(finished.state()).isEqualTo(JobState.FAILED);
+                assertThat(finished.error()).isEqualTo("boom");
+        }
+
+        @Test
+        void fullQueueShouldRejectAndQueuedJobShouldBeCancellable() throws Exception {
+                CountDownLatch started = new CountDownLatch(1);
+                CountDownLatch release = new CountDownLatch(1);
+                JobResponse running = jobService.submit("clone", "proj_repo_main", tracker -> {
+                        started.countDown();
+                        await(release);
+                        return null;
+                });
+                assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+                JobResponse queued = jobService.submit("clone", "proj_repo_other", tracker -> "never");
+
+                assertThatThrownBy(() -> jobService.submit("clone", "proj_repo_third", tracker -> null))
+                                .isInstanceOf(JobRejectedException.class).hasMessageContaining("佇列已滿");
+                assertThat(jobService.activeJobs()).extracting(JobResponse::id).containsExactlyInAnyOrder(running.id(), queued.id());
+
+                jobService.cancel(queued.id());
+                release.countDown();
+
+                assertThat(awaitFinished(running.id()).state()).isEqualTo(JobState.SUCCEEDED);
+                JobResponse cancelled = awaitFinished(queued.id());
+                assertThat(cancelled.state()).isEqualTo(JobState.CANCELLED);
+                assertThat(cancelled.result()).isNull();
+        }
+
+        @Test
+        void watchdogShouldMarkLongRunningJobStuckOnce() throws Exception {
+                CountDownLatch started = new CountDownLatch(1);
+                CountDownLatch release = new CountDownLatch(1);
+                JobResponse running = jobService.submit("push", "proj_repo_main", tracker -> {
+                        started.countDown();
+                        await(release);
+                        return null;
+                });
+                assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+                assertThat(jobService.markStuck(Duration.ofHours(1))).isEmpty();
+                Thread.sleep(20);
+
+                OperationWatchdog watchdog = new OperationWatchdog(jobService,
+                                TestServices.gitCommandRunner(1024, new GitMetrics(registry)), new GitMetrics(registry), Duration.ZERO,
+                                Duration.ofMillis(10));
+                watchdog.check();
+                watchdog.check();
+
+                assertThat(registry.get("git.job.stuck").tag("type", "push").counter().count()).isEqualTo(1);
+                assertThat(jobService.getJob(running.id()).stuck()).isTrue();
+                assertThat(jobService.markStuck(Duration.ZERO)).isEmpty();
+                release.countDown();
+                assertThat(awaitFinished(running.id()).state()).isEqualTo(JobState.SUCCEEDED);
+        }
+
+        private JobResponse awaitFinished(String jobId) throws InterruptedException {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                JobResponse job = jobService.getJob(jobId);
+                while (!job.state().isFinished() && System.nanoTime() < deadline) {
+                        Thread.sleep(10);
+                        job = jobService.getJob(jobId);
+                }
+                return job;
+        }
+
+        private static void await(CountDownLatch latch) {
+                try {
+                        latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                }
+        }
+}
@@ -0,0 +1,103 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.backend.git.engine.CliGitEngine;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class LfsRouterTest {
+
+        private static final String SCOPE = "2026/main";
+        private static final String LFS = " filter=lfs diff=lfs merge=lfs -text";
+
+        @TempDir
+        Path root;
+
+        @Test
+        void filesAboveThresholdOrWithListedExtensionShouldBeRouted() throws Exception {
+                StubEngine engine = new StubEngine(true);
+                LfsRouter router = new LfsRouter(engine, true, DataSize.ofKilobytes(1), List.of("*.PSD", " .zip", ""), 4);
+                Path scope = Files.createDirectories(root.resolve(SCOPE));
+                Files.writeString(scope.resolve("notes.txt"), "small");
+                Files.write(scope.resolve("big.bin"), new byte[2048]);
+                Files.writeString(scope.resolve("design.psd"), "layers");
+                Files.createDirectories(scope.resolve("sub"));
+                Files.writeString(scope.resolve("sub/archive.ZIP"), "zip");
+                Files.writeString(scope.resolve("README"), "no extension");
+
+                Map<String, Long> routed = router.prepare(root, SCOPE).orElseThrow();
+
+                assertThat(routed).containsOnlyKeys(SCOPE + "/big.bin", SCOPE + "/design.psd", SCOPE + "/sub/archive.ZIP");
+                assertThat(routed.get(SCOPE + "/big.bin")).isEqualTo(2048);
+                assertThat(Files.readAllLines(scope.resolve(".gitattributes"), StandardCharsets.UTF_8))
+                                .containsExactlyInAnyOrder("/big.bin" + LFS, "*.psd" + LFS, "*.ZIP" + LFS);
+                assertThat(engine.installs).containsExactly(root);
+                assertThat(engine.configs).containsExactly("lfs.concurrenttransfers=4");
+
+                router.prepare(root, SCOPE);
+                assertThat(engine.installs).hasSize(1);
+                assertThat(Files.readAllLines(scope.resolve(".gitattributes"), StandardCharsets.UTF_8)).hasSize(3);
+        }
+
+        @Test
+        void attributePatternsShouldEscapeGlobCharactersAndKeepExistingLines() throws Exception {
+                LfsRouter router = new LfsRouter(new StubEngine(true), true, DataSize.ofBytes(4), List.of(), 8);
+                Path scope = Files.createDirectories(root.resolve(SCOPE));
+                Files.writeString(scope.resolve(".gitattributes"), "*.txt text");
+                Files.writeString(scope.resolve("my report [v2]*?.bin"), "content");
+
+                router.prepare(root, SCOPE).orElseThrow();
+
+                assertThat(Files.readAllLines(scope.resolve(".gitattributes"), StandardCharsets.UTF_8))
+                                .containsExactly("*.txt text", "/my[[:space:]]report[[:space:]]\\[v2]\\*\\?.bin" + LFS);
+        }
+
+        @Test
+        void missingGitLfsShouldFallBackToRegularCommit() throws Exception {
+                StubEngine engine = new StubEngine(false);
+                LfsRouter router = new LfsRouter(engine, true, DataSize.ofBytes(1), List.of(), 8);
+                Path scope = Files.createDirectories(root.resolve(SCOPE));
+                Files.writeString(scope.resolve("big.bin"), "content");
+
+                assertThat(router.prepare(root, SCOPE)).isEmpty();
+                assertThat(router.prepare(root, "2026/missing")).isEmpty();
+                assertThat(scope.resolve(".gitattributes")).doesNotExist();
+                assertThat(engine.installs).isEmpty();
+        }
+
+        private static final class StubEngine extends CliGitEngine {
+
+                private final boolean lfsInstalled;
+                private final List<Path> installs = new ArrayList<>();
+                private final List<String> configs = new ArrayList<>();
+
+                private StubEngine(boolean lfsInstalled) {
+                        super(TestServices.gitCommandRunner(), null);
+                        this.lfsInstalled = lfsInstalled;
+                }
+
+                @Override
+                public Optional<String> lfsVersion() {
+                        return lfsInstalled ? Optional.of("git-lfs/3.4.1") : Optional.empty();
+                }
+
+                @Override
+                public void installLfs(Path repository) {
+                        installs.add(repository);
+                }
+
+                @Override
+                public void setConfig(Path repository, String key, String value) {
+                        configs.add(key + "=" + value);
+                }
+        }
+}
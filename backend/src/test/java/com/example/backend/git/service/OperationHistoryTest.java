@@ -0,0 +1,57 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.backend.git.dto.LatencyStatsResponse;
+import com.example.backend.git.model.JobState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class OperationHistoryTest {
+
+        @TempDir
+        Path root;
+
+        @Test
+        void latencyShouldReportPercentilesAcrossRotatedFiles() throws Exception {
+                WorkspaceService workspaceService = new WorkspaceService(root.resolve("backend"));
+                workspaceService.ensureWorkspace();
+                ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+                OperationHistory history = new OperationHistory(workspaceService, objectMapper, true, DataSize.ofKilobytes(4),
+                                3, 1000);
+                history.start();
+                for (int index = 1; index <= 100; index++) {
+                        OperationTracker tracker = new OperationTracker();
+                        tracker.addTransferredBytes(10);
+                        history.record("proj_repo_main", "commit-and-push", tracker,
+                                        index % 10 == 0 ? JobState.FAILED : JobState.SUCCEEDED, index, null);
+                        Thread.sleep(1);
+                }
+                history.record("proj_repo_main", "prefetch", new OperationTracker(), JobState.SUCCEEDED, 7, null);
+                history.stop();
+
+                Path directory = workspaceService.getDataDirectory().resolve("history");
+                assertThat(directory.resolve("operations.1.jsonl")).exists();
+                assertThat(directory.resolve("operations.3.jsonl")).doesNotExist();
+                assertThat(Files.size(directory.resolve("operations.jsonl"))).isLessThanOrEqualTo(4096);
+
+                List<LatencyStatsResponse> stats = history.latency("proj_repo_main", "commit-and-push", Duration.ofHours(1));
+                assertThat(stats).hasSize(1);
+                LatencyStatsResponse commit = stats.get(0);
+                assertThat(commit.count()).isLessThan(100).isGreaterThan(0);
+                assertThat(commit.maxMillis()).isEqualTo(100);
+                assertThat(commit.p50Millis()).isLessThanOrEqualTo(commit.p95Millis());
+                assertThat(commit.p95Millis()).isLessThanOrEqualTo(commit.p99Millis());
+                assertThat(commit.transferredBytes()).isEqualTo(commit.count() * 10);
+                assertThat(history.latency(null, null, Duration.ofHours(1))).extracting(LatencyStatsResponse::operation)
+                                .containsExactly("commit-and-push", "prefetch");
+        }
+}
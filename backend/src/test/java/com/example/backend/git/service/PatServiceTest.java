@@ -0,0 +1,98 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.backend.error.InvalidRequestException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PatServiceTest {
+
+        @TempDir
+        Path root;
+
+        private WorkspaceService workspaceService;
+        private Path patFile;
+
+        @BeforeEach
+        void setUp() {
+                workspaceService = new WorkspaceService(root.resolve("backend"));
+                workspaceService.ensureWorkspace();
+                patFile = workspaceService.getDataDirectory().resolve("pat.txt");
+        }
+
+        @Test
+        void missingPatShouldBeReportedUntilSaved() {
+                PatService patService = TestServices.patService(workspaceService);
+
+                assertThat(patService.readPat()).isEmpty();
+                assertThatThrownBy(patService::buildGitEnvironment).isInstanceOf(InvalidRequestException.class)
+                                .hasMessage("尚未設定 Azure DevOps PAT");
+
+                patService.updatePat("  first-token \n");
+
+                assertThat(patService.readPat()).contains("first-token");
+                Map<String, String> environment = patService.buildGitEnvironment();
+                assertThat(environment).containsEntry("GIT_UPLOADER_PAT", "first-token")
+                                .containsEntry("GIT_TERMINAL_PROMPT", "0")
+                                .containsEntry("GIT_CONFIG_KEY_0", "http.extraHeader")
+                                .containsEntry("GIT_CONFIG_VALUE_0", "Authorization: Basic " + basic("first-token"));
+                assertThat(Path.of(environment.get("GIT_ASKPASS"))).exists();
+        }
+
+        @Test
+        void credentialsShouldReloadWhenPatFileIsReplaced() throws Exception {
+                PatService nodeA = TestServices.patService(workspaceService);
+                PatService nodeB = TestServices.patService(workspaceService);
+                nodeA.updatePat("first-token");
+                assertThat(nodeB.buildGitEnvironment()).containsEntry("GIT_UPLOADER_PAT", "first-token");
+
+                nodeB.updatePat("second-token");
+
+                assertThat(nodeA.readPat()).contains("second-token");
+                assertThat(nodeA.buildGitEnvironment()).containsEntry("GIT_CONFIG_VALUE_0",
+                                "Authorization: Basic " + basic("second-token"));
+
+                // 同樣長度且就地改寫時以修改時間判斷
+                Files.writeString(patFile, "third--token", StandardCharsets.UTF_8);
+                Files.setLastModifiedTime(patFile, FileTime.from(Instant.now().plusSeconds(60)));
+                assertThat(nodeA.buildGitEnvironment()).containsEntry("GIT_UPLOADER_PAT", "third--token");
+
+                Files.delete(patFile);
+                assertThat(nodeA.readPat()).isEmpty();
+                assertThatThrownBy(nodeB::requirePat).isInstanceOf(InvalidRequestException.class);
+        }
+
+        @Test
+        void authorizationHeaderCanBeDisabled() {
+                PatService patService = new PatService(workspaceService, TestServices.fileLockService(workspaceService), false);
+                patService.updatePat("token");
+
+                assertThat(patService.buildGitEnvironment()).containsEntry("GIT_UPLOADER_PAT", "token")
+                                .doesNotContainKeys("GIT_CONFIG_COUNT", "GIT_CONFIG_KEY_0", "GIT_CONFIG_VALUE_0");
+                assertThatThrownBy(() -> patService.updatePat(" ")).isInstanceOf(InvalidRequestException.class)
+                                .hasMessage("PAT 不可為空");
+        }
+
+        @Test
+        void maskShouldKeepOnlyLastFourCharacters() {
+                PatService patService = TestServices.patService(workspaceService);
+
+                assertThat(patService.maskPat("abcdefgh")).isEqualTo("***efgh");
+                assertThat(patService.maskPat("abc")).isEqualTo("***abc");
+                assertThat(patService.maskPat(null)).isEqualTo("***");
+        }
+
+        private static String basic(String pat) {
+                return Base64.getEncoder().encodeToString(("pat:" + pat).getBytes(StandardCharsets.UTF_8));
+        }
+}
@@ -0,0 +1,270 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.backend.error.GitOperationException;
+import com.example.backend.git.model.CloneMode;
+import com.example.backend.git.model.JobState;
+import com.example.backend.git.model.PerformanceProfile;
+import com.example.backend.git.model.PrefetchResult;
+import com.example.backend.git.model.RepoMetadata;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class PrefetchSchedulerTest {
+
+        private static final String HOT = "proj_hot_main";
+        private static final String IDLE = "proj_idle_main";
+
+        @TempDir
+        Path root;
+
+        private final FetchStateRegistry fetchStateRegistry = new FetchStateRegistry();
+        private final StubRepoService repoService = new StubRepoService();
+        private final MutableClock clock = new MutableClock();
+        private WorkspaceService workspaceService;
+        private RepoMetadataIndex index;
+        private PatService patService;
+        private RecordingHistory history;
+        private Instant start;
+
+        @BeforeEach
+        void setUp() {
+                workspaceService = new WorkspaceService(root.resolve("backend"));
+                workspaceService.ensureWorkspace();
+                FileLockService fileLockService = TestServices.fileLockService(workspaceService);
+                index = new RepoMetadataIndex(workspaceService, new ObjectMapper().findAndRegisterModules(), fileLockService,
+                                Duration.ofMinutes(1));
+                index.rebuild();
+                patService = new PatService(workspaceService, fileLockService, true);
+                patService.updatePat("token");
+                history = new RecordingHistory(workspaceService);
+                start = Instant.now();
+                clock.now = start;
+        }
+
+        @AfterEach
+        void tearDown() {
+                repoService.release.countDown();
+        }
+
+        @Test
+        void hotRepositoryShouldBeFetchedOnHotIntervalAndIdleOneOnIdleInterval() throws Exception {
+                addRepository(HOT);
+                addRepository(IDLE);
+                recordFetch(HOT, IDLE);
+                fetchStateRegistry.markActive(HOT);
+                PrefetchScheduler scheduler = newScheduler(2);
+
+                runAt(scheduler, Duration.ofSeconds(30));
+                assertThat(repoService.calls).isEmpty();
+
+                runAt(scheduler, Duration.ofMinutes(2));
+                assertThat(repoService.calls).containsExactly(HOT);
+
+                // 熱門視窗結束後改用閒置間隔
+                repoService.calls.clear();
+                runAt(scheduler, Duration.ofMinutes(31));
+                assertThat(repoService.calls).containsExactlyInAnyOrder(HOT, IDLE);
+        }
+
+        @Test
+        void unchangedFetchesShouldBackOffUpToMaxIdleIntervalAndResetWhenUpdated() throws Exception {
+                addRepository(IDLE);
+                recordFetch(IDLE);
+                repoService.results.put(IDLE, PrefetchResult.UNCHANGED);
+                PrefetchScheduler scheduler = newScheduler(2);
+
+                runAt(scheduler, Duration.ofMinutes(4));
+                assertThat(repoService.calls).isEmpty();
+                runAt(scheduler, Duration.ofMinutes(5));
+                assertThat(repoService.calls).hasSize(1);
+
+                // 無變更後間隔加倍為 10 分鐘、再為 20 分鐘，最多到 max-idle-interval（15 分鐘）
+                runAt(scheduler, Duration.ofMinutes(9));
+                assertThat(repoService.calls).hasSize(1);
+                runAt(scheduler, Duration.ofMinutes(10));
+                assertThat(repoService.calls).hasSize(2);
+                runAt(scheduler, Duration.ofMinutes(14));
+                assertThat(repoService.calls).hasSize(2);
+                runAt(scheduler, Duration.ofMinutes(15));
+                assertThat(repoService.calls).hasSize(3);
+
+                repoService.results.put(IDLE, PrefetchResult.UPDATED);
+                runAt(scheduler, Duration.ofMinutes(15));
+                assertThat(repoService.calls).hasSize(4);
+                repoService.results.put(IDLE, PrefetchResult.UNCHANGED);
+                runAt(scheduler, Duration.ofMinutes(5));
+                assertThat(repoService.calls).hasSize(5);
+                assertThat(history.outcomes).hasSize(5).containsOnly(JobState.SUCCEEDED);
+        }
+
+        @Test
+        void concurrentPrefetchesShouldBeLimitedByPermits() throws Exception {
+                addRepository(HOT);
+                addRepository(IDLE);
+                repoService.release = new CountDownLatch(1);
+                PrefetchScheduler scheduler = newScheduler(1);
+
+                scheduler.runDuePrefetches();
+                assertThat(repoService.started.await(5, TimeUnit.SECONDS)).isTrue();
+                scheduler.runDuePrefetches();
+                assertThat(scheduler.runningPrefetches()).isEqualTo(1);
+                assertThat(repoService.calls).hasSize(1);
+
+                repoService.release.countDown();
+                awaitIdle(scheduler);
+                scheduler.runDuePrefetches();
+                awaitIdle(scheduler);
+                assertThat(repoService.calls).hasSize(2);
+        }
+
+        @Test
+        void busyRepositoryShouldNotBeRecordedOrBackedOff() throws Exception {
+                addRepository(IDLE);
+                recordFetch(IDLE);
+                repoService.results.put(IDLE, PrefetchResult.BUSY);
+                PrefetchScheduler scheduler = newScheduler(2);
+
+                runAt(scheduler, Duration.ofMinutes(5));
+                runAt(scheduler, Duration.ofMinutes(5));
+                assertThat(repoService.calls).hasSize(2);
+                assertThat(history.outcomes).isEmpty();
+
+                repoService.results.remove(IDLE);
+                runAt(scheduler, Duration.ofMinutes(5));
+                assertThat(history.outcomes).containsExactly(JobState.FAILED);
+                runAt(scheduler, Duration.ofMinutes(9));
+                assertThat(repoService.calls).hasSize(3);
+        }
+
+        @Test
+        void missingPatShouldSkipPrefetch() throws Exception {
+                addRepository(IDLE);
+                patService.updatePat("token");
+                Files.delete(workspaceService.getDataDirectory().resolve("pat.txt"));
+                PrefetchScheduler scheduler = newScheduler(2);
+
+                scheduler.runDuePrefetches();
+
+                assertThat(scheduler.runningPrefetches()).isZero();
+                assertThat(repoService.calls).isEmpty();
+        }
+
+        private PrefetchScheduler newScheduler(int maxConcurrent) {
+                return new PrefetchScheduler(repoService, index, fetchStateRegistry, patService, history, true,
+                                Duration.ofSeconds(15), Duration.ofMinutes(30), Duration.ofMinutes(1), Duration.ofMinutes(5),
+                                Duration.ofMinutes(15), maxConcurrent, clock);
+        }
+
+        private void addRepository(String repoId) throws Exception {
+                Path repository = Files.createDirectories(workspaceService.getReposRoot().resolve(repoId));
+                index.write(repository, new RepoMetadata("https://dev.azure.com/org/proj/_git/" + repoId, "proj", repoId,
+                                "main", "main", Instant.now(), CloneMode.FULL, List.of(), PerformanceProfile.STANDARD, null));
+        }
+
+        /**
+         * 以最後一次 fetch 的時間作為起點，之後以 offset 推進時鐘。
+         */
+        private void recordFetch(String... repoIds) {
+                for (String repoId : repoIds) {
+                        fetchStateRegistry.recordFetch(repoId);
+                        start = fetchStateRegistry.lastFetch(repoId).orElseThrow();
+                }
+                clock.now = start;
+        }
+
+        private void runAt(PrefetchScheduler scheduler, Duration offset) throws InterruptedException {
+                clock.now = start.plus(offset);
+                scheduler.runDuePrefetches();
+                awaitIdle(scheduler);
+        }
+
+        private static void awaitIdle(PrefetchScheduler scheduler) throws InterruptedException {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (scheduler.runningPrefetches() > 0 && System.nanoTime() < deadline) {
+                        TimeUnit.MILLISECONDS.sleep(5);
+                }
+                assertThat(scheduler.runningPrefetches()).isZero();
+        }
+
+        private static final class MutableClock extends Clock {
+
+                private volatile Instant now;
+
+                @Override
+                public ZoneId getZone() {
+                        return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(ZoneId zone) {
+                        return this;
+                }
+
+                @Override
+                public Instant instant() {
+                        return now;
+                }
+        }
+
+        private static final class StubRepoService extends RepoService {
+
+                private final List<String> calls = new CopyOnWriteArrayList<>();
+                private final Map<String, PrefetchResult> results = new ConcurrentHashMap<>();
+                private final CountDownLatch started = new CountDownLatch(1);
+                private volatile CountDownLatch release = new CountDownLatch(0);
+
+                private StubRepoService() {
+                        super(null, null, null, null, null, null, null, null, null, null, null, null, null);
+                }
+
+                @Override
+                public PrefetchResult prefetch(String repoId) {
+                        calls.add(repoId);
+                        started.countDown();
+                        try {
+                                release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException exception) {
+                                Thread.currentThread().interrupt();
+                        }
+                        PrefetchResult result = results.get(repoId);
+                        if (result == null) {
+                                throw new GitOperationException("無法取得遠端更新", "git fetch origin", "", "fatal: timeout");
+                        }
+                        return result;
+                }
+        }
+
+        private static final class RecordingHistory extends OperationHistory {
+
+                private final List<JobState> outcomes = new CopyOnWriteArrayList<>();
+
+                private RecordingHistory(WorkspaceService workspaceService) {
+                        super(workspaceService, new ObjectMapper(), false, DataSize.ofMegabytes(1), 1, 10);
+                }
+
+                @Override
+                public void record(String repoId, String operation, OperationTracker tracker, JobState outcome,
+                                long durationMillis, String error) {
+                        outcomes.add(outcome);
+                }
+        }
+}
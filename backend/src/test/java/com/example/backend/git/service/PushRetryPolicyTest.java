@@ -0,0 +1,50 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.backend.error.GitOperationException;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class PushRetryPolicyTest {
+
+        @Test
+        void backoffShouldDoubleUpToMaximumWithJitter() {
+                PushRetryPolicy policy = new PushRetryPolicy(true, 5, Duration.ofMillis(100), Duration.ofMillis(350));
+
+                for (int round = 0; round < 200; round++) {
+                        assertThat(policy.backoff(1)).isBetween(Duration.ZERO, Duration.ofMillis(100));
+                        assertThat(policy.backoff(2)).isBetween(Duration.ZERO, Duration.ofMillis(200));
+                        assertThat(policy.backoff(3)).isBetween(Duration.ZERO, Duration.ofMillis(350));
+                        assertThat(policy.backoff(64)).isBetween(Duration.ZERO, Duration.ofMillis(350));
+                }
+        }
+
+        @Test
+        void disabledPolicyShouldNeverWait() {
+                PushRetryPolicy policy = PushRetryPolicy.disabled();
+
+                assertThat(policy.isEnabled()).isFalse();
+                assertThat(policy.maxAttempts()).isEqualTo(1);
+                assertThat(policy.backoff(3)).isZero();
+                assertThat(new PushRetryPolicy(true, 0, Duration.ofMillis(100), Duration.ofSeconds(1)).maxAttempts())
+                                .isEqualTo(1);
+        }
+
+        @Test
+        void onlyRemoteRejectionsShouldCountAsRejected() {
+                PushRetryPolicy policy = PushRetryPolicy.disabled();
+
+                assertThat(policy.isRejected(failure("", " ! [rejected]        main -> main (fetch first)"))).isTrue();
+                assertThat(policy.isRejected(failure("", "error: failed to push some refs\nhint: Updates were rejected")))
+                                .isTrue();
+                assertThat(policy.isRejected(failure("main -> main (Non-Fast-Forward)", null))).isTrue();
+                assertThat(policy.isRejected(failure("", "fatal: unable to access 'https://dev.azure.com/': 403")))
+                                .isFalse();
+                assertThat(policy.isRejected(failure(null, "fatal: Authentication failed"))).isFalse();
+        }
+
+        private static GitOperationException failure(String stdout, String stderr) {
+                return new GitOperationException("Push 失敗", "git push origin HEAD:main", stdout, stderr);
+        }
+}
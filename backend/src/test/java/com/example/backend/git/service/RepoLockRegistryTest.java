@@ -0,0 +1,106 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.backend.error.RepoBusyException;
+import com.example.backend.git.dto.RepoLockStatusResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RepoLockRegistryTest {
+
+        @TempDir
+        Path root;
+
+        @Test
+        void waitingThreadsShouldAcquireInArrivalOrder() throws Exception {
+                RepoLockRegistry registry = localRegistry(Duration.ofSeconds(5));
+                List<String> order = new CopyOnWriteArrayList<>();
+                List<Thread> waiters = new CopyOnWriteArrayList<>();
+
+                try (RepoLockRegistry.RepoLock lock = registry.acquire("proj_repo_main")) {
+                        for (int index = 0; index < 3; index++) {
+                                String name = "waiter-" + index;
+                                Thread waiter = Thread.ofPlatform().start(() -> {
+                                        try (RepoLockRegistry.RepoLock held = registry.acquire("proj_repo_main")) {
+                                                order.add(name);
+                                        }
+                                });
+                                waiters.add(waiter);
+                                awaitQueueLength(registry, index + 1);
+                        }
+                }
+                for (Thread waiter : waiters) {
+                        waiter.join(5000);
+                }
+
+                assertThat(order).containsExactly("waiter-0", "waiter-1", "waiter-2");
+                RepoLockStatusResponse status = status(registry);
+                assertThat(status.locked()).isFalse();
+                assertThat(status.acquisitions()).isEqualTo(4);
+                assertThat(status.timeouts()).isZero();
+        }
+
+        @Test
+        void waitingPastTimeoutShouldFailAsBusy() throws Exception {
+                RepoLockRegistry registry = localRegistry(Duration.ofMillis(100));
+
+                try (RepoLockRegistry.RepoLock lock = registry.acquire("proj_repo_main")) {
+                        CompletableFuture<RepoLockRegistry.RepoLock> waiter = CompletableFuture
+                                        .supplyAsync(() -> registry.acquire("proj_repo_main"));
+                        assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(RepoBusyException.class)
+                                        .hasMessageContaining("其他作業");
+                        registry.tryAcquire("proj_repo_other").orElseThrow().close();
+                }
+
+                assertThat(status(registry).timeouts()).isEqualTo(1);
+                registry.acquire("proj_repo_main").close();
+        }
+
+        @Test
+        void repositoryHeldByAnotherNodeShouldBeBusyUntilReleasedOrExpired() throws Exception {
+                WorkspaceService workspaceService = new WorkspaceService(root.resolve("backend"));
+                workspaceService.ensureWorkspace();
+                RepoLockRegistry nodeA = new RepoLockRegistry(Duration.ofMillis(200),
+                                new FileLockService(workspaceService, true, Duration.ofMinutes(2), Duration.ZERO));
+                RepoLockRegistry nodeB = new RepoLockRegistry(Duration.ofMillis(200),
+                                new FileLockService(workspaceService, true, Duration.ofMillis(300), Duration.ZERO));
+
+                try (RepoLockRegistry.RepoLock lock = nodeA.acquire("proj_repo_main")) {
+                        assertThat(nodeB.tryAcquire("proj_repo_main")).isEmpty();
+                        assertThatThrownBy(() -> nodeB.acquire("proj_repo_main")).isInstanceOf(RepoBusyException.class)
+                                        .hasMessageContaining("其他節點");
+                        nodeB.tryAcquire("proj_repo_other").orElseThrow().close();
+                }
+                try (RepoLockRegistry.RepoLock stale = nodeB.tryAcquire("proj_repo_main").orElseThrow()) {
+                        // nodeB 不續約，租約過期後 nodeA 即可接手
+                        Thread.sleep(400);
+                        nodeA.acquire("proj_repo_main").close();
+                }
+        }
+
+        private RepoLockRegistry localRegistry(Duration waitTimeout) {
+                WorkspaceService workspaceService = new WorkspaceService(root.resolve("backend"));
+                workspaceService.ensureWorkspace();
+                return new RepoLockRegistry(waitTimeout, TestServices.fileLockService(workspaceService));
+        }
+
+        private static RepoLockStatusResponse status(RepoLockRegistry registry) {
+                return registry.snapshot().stream().filter(status -> status.repoId().equals("proj_repo_main")).findFirst()
+                                .orElseThrow();
+        }
+
+        private static void awaitQueueLength(RepoLockRegistry registry, int expected) throws InterruptedException {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (status(registry).queueLength() < expected && System.nanoTime() < deadline) {
+                        Thread.sleep(5);
+                }
+        }
+}
@@ -0,0 +1,160 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.backend.git.model.CloneMode;
+import com.example.backend.git.model.PerformanceProfile;
+import com.example.backend.git.model.RepoMetadata;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.FileSystemUtils;
+
+class RepoMetadataIndexTest {
+
+        @TempDir
+        Path root;
+
+        private WorkspaceService workspaceService;
+        private ObjectMapper objectMapper;
+
+        @BeforeEach
+        void setUp() {
+                workspaceService = new WorkspaceService(root.resolve("backend"));
+                workspaceService.ensureWorkspace();
+                objectMapper = new ObjectMapper().findAndRegisterModules()
+                                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        }
+
+        @Test
+        void writtenMetadataShouldRoundTripThroughFreshIndex() throws Exception {
+                RepoMetadataIndex writer = newIndex();
+                writer.rebuild();
+                RepoMetadata main = metadata("main");
+                RepoMetadata dev = metadata("dev");
+                writer.write(repository("proj_repo_main"), main);
+                writer.write(repository("proj_repo_dev"), dev);
+
+                RepoMetadataIndex reader = newIndex();
+                reader.rebuild();
+
+                assertThat(reader.entries()).containsOnlyKeys("proj_repo_dev", "proj_repo_main");
+                assertThat(reader.entries().get("proj_repo_main")).isEqualTo(main);
+                assertThat(reader.get("proj_repo_dev")).contains(dev);
+                assertThat(reader.entries()).isEqualTo(writer.entries());
+        }
+
+        @Test
+        void versionShouldChangeOnlyWhenEntriesChange() throws Exception {
+                RepoMetadataIndex index = newIndex();
+                index.rebuild();
+                String empty = index.version();
+
+                RepoMetadata metadata = metadata("main");
+                index.write(repository("proj_repo_main"), metadata);
+                String added = index.version();
+                assertThat(added).isNotEqualTo(empty);
+
+                index.write(repository("proj_repo_main"), metadata);
+                index.rebuild();
+                assertThat(index.version()).isEqualTo(added);
+
+                index.write(repository("proj_repo_main"), metadata.withProfile(PerformanceProfile.LARGE));
+                assertThat(index.version()).isNotEqualTo(added);
+
+                FileSystemUtils.deleteRecursively(repository("proj_repo_main"));
+                index.rebuild();
+                assertThat(index.entries()).isEmpty();
+        }
+
+        @Test
+        void getShouldLoadRepositoryNotYetIndexed() throws Exception {
+                RepoMetadataIndex index = newIndex();
+                index.rebuild();
+                RepoMetadata metadata = metadata("main");
+                objectMapper.writeValue(repository("proj_repo_main").resolve(RepoMetadataIndex.METADATA_FILE).toFile(),
+                                metadata);
+
+                assertThat(index.get("proj_repo_main")).contains(metadata);
+                assertThat(index.entries()).containsKey("proj_repo_main");
+                assertThat(index.get("proj_repo_missing")).isEmpty();
+        }
+
+        @Test
+        void versionShouldBeDerivedFromPersistedMetadata() throws Exception {
+                RepoMetadataIndex nodeA = newIndex();
+                nodeA.rebuild();
+                RepoMetadataIndex nodeB = newIndex();
+                nodeB.rebuild();
+                assertThat(nodeB.version()).isEqualTo(nodeA.version());
+
+                nodeA.write(repository("proj_repo_main"), metadata("main"));
+                nodeB.rebuild();
+
+                assertThat(nodeB.version()).isEqualTo(nodeA.version());
+        }
+
+        @Test
+        void metadataChangedByAnotherNodeShouldBeReloaded() throws Exception {
+                RepoMetadataIndex nodeA = newIndex();
+                RepoMetadataIndex nodeB = newIndex();
+                RepoMetadata main = metadata("main");
+                RepoMetadata dev = metadata("dev");
+                nodeA.write(repository("proj_repo_main"), main);
+                nodeA.write(repository("proj_repo_dev"), dev);
+                nodeB.rebuild();
+                String version = nodeB.version();
+
+                nodeA.write(repository("proj_repo_main"), main.withProfile(PerformanceProfile.LARGE));
+                assertThat(nodeB.get("proj_repo_main").orElseThrow().profile()).isEqualTo(PerformanceProfile.LARGE);
+
+                RepoMetadata sparse = dev.withSparsePaths(List.of("2026/dev"));
+                nodeA.write(repository("proj_repo_dev"), sparse);
+                assertThat(nodeB.entries().get("proj_repo_dev")).isEqualTo(dev);
+                nodeB.checkDrift();
+
+                assertThat(nodeB.entries().get("proj_repo_dev")).isEqualTo(sparse);
+                assertThat(nodeB.version()).isNotEqualTo(version).isEqualTo(nodeA.version());
+        }
+
+        @Test
+        void dotDirectoriesShouldNotBeIndexed() throws Exception {
+                RepoMetadataIndex index = newIndex();
+                Path locks = Files.createDirectories(workspaceService.getReposRoot().resolve(".locks"));
+                Files.writeString(locks.resolve("proj_repo_main.lease"), "{}");
+                Path bases = Files.createDirectories(workspaceService.getReposRoot().resolve(".bases"));
+                objectMapper.writeValue(bases.resolve(RepoMetadataIndex.METADATA_FILE).toFile(), metadata("main"));
+                index.write(repository("proj_repo_main"), metadata("main"));
+
+                index.rebuild();
+                String version = index.version();
+                Files.writeString(locks.resolve("proj_repo_dev.lease"), "{}");
+                index.checkDrift();
+
+                assertThat(index.entries()).containsOnlyKeys("proj_repo_main");
+                assertThat(index.version()).isEqualTo(version);
+        }
+
+        private RepoMetadataIndex newIndex() {
+                return new RepoMetadataIndex(workspaceService, objectMapper, TestServices.fileLockService(workspaceService),
+                                Duration.ofMinutes(1));
+        }
+
+        private Path repository(String repoId) throws Exception {
+                return Files.createDirectories(workspaceService.getReposRoot().resolve(repoId));
+        }
+
+        private static RepoMetadata metadata(String branch) {
+                return new RepoMetadata("https://dev.azure.com/org/proj/_git/repo", "proj", "repo", branch, branch,
+                                Instant.now().truncatedTo(ChronoUnit.MILLIS), CloneMode.FULL, List.of(), PerformanceProfile.STANDARD,
+                                null);
+        }
+}
@@ -0,0 +1,99 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.backend.git.dto.ProfileProbe;
+import com.example.backend.git.engine.CliGitEngine;
+import com.example.backend.git.model.PerformanceProfile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RepoProfileServiceTest {
+
+        @TempDir
+        Path root;
+
+        private GitCommandRunner gitCommandRunner;
+        private RepoProfileService profileService;
+        private Path repository;
+
+        @BeforeEach
+        void setUp() throws Exception {
+                gitCommandRunner = TestServices.gitCommandRunner();
+                profileService = new RepoProfileService(new CliGitEngine(gitCommandRunner, null), 1);
+                repository = root.resolve("repo");
+                git(root, "init", "-b", "main", repository.toString());
+                Files.createDirectories(repository.resolve("2026/main"));
+                Files.writeString(repository.resolve("2026/main/report.txt"), "report\n");
+                git(repository, "add", ".");
+                git(repository, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-m", "seed");
+        }
+
+        @Test
+        void largeProfileShouldApplyAndStandardShouldRevertSettings() throws Exception {
+                List<String> applied = profileService.apply(repository, PerformanceProfile.LARGE);
+
+                assertThat(applied).contains("feature.manyFiles=true", "index.version=4", "core.splitIndex=true",
+                                "commit-graph");
+                assertThat(config("feature.manyFiles")).isEqualTo("true");
+                assertThat(config("core.untrackedCache")).isEqualTo("true");
+                assertThat(config("core.fsmonitor")).isEqualTo(applied.contains("core.fsmonitor=true") ? "true" : "");
+                assertThat(indexVersion()).isEqualTo(4);
+                assertThat(git(repository, "rev-parse", "--shared-index-path")).isNotBlank();
+                assertThat(repository.resolve(".git/objects/info/commit-graph")).exists();
+                assertThat(git(repository, "status", "--porcelain")).isEmpty();
+
+                assertThat(profileService.apply(repository, PerformanceProfile.STANDARD)).isEmpty();
+
+                for (String key : List.of("feature.manyFiles", "index.version", "index.skipHash", "core.untrackedCache",
+                                "core.splitIndex", "core.commitGraph", "fetch.writeCommitGraph", "core.fsmonitor")) {
+                        assertThat(config(key)).as(key).isEmpty();
+                }
+                assertThat(indexVersion()).isEqualTo(2);
+                assertThat(git(repository, "rev-parse", "--shared-index-path")).isBlank();
+                assertThat(git(repository, "status", "--porcelain")).isEmpty();
+                assertThat(git(repository, "ls-files")).contains("2026/main/report.txt");
+        }
+
+        @Test
+        void applyingStandardToUntunedRepositoryShouldBeHarmless() {
+                assertThat(profileService.apply(repository, PerformanceProfile.STANDARD)).isEmpty();
+                assertThat(config("feature.manyFiles")).isEmpty();
+                assertThat(git(repository, "status", "--porcelain")).isEmpty();
+        }
+
+        @Test
+        void probeShouldReportConfiguredRounds() {
+                ProfileProbe probe = profileService.probe(repository, "2026/main");
+
+                assertThat(probe.rounds()).isEqualTo(1);
+                assertThat(probe.statusMillis()).isNotNegative();
+                assertThat(probe.addMillis()).isNotNegative();
+        }
+
+        private int indexVersion() throws Exception {
+                return ByteBuffer.wrap(Files.readAllBytes(repository.resolve(".git/index"))).getInt(4);
+        }
+
+        private String config(String key) {
+                GitCommandRunner.CommandResult result = gitCommandRunner.run(repository,
+                                List.of("git", "config", "--get", key), Map.of());
+                return result.isSuccess() ? result.stdout().trim() : "";
+        }
+
+        private String git(Path directory, String... arguments) {
+                List<String> command = Stream.concat(Stream.of("git"), Stream.of(arguments)).toList();
+                GitCommandRunner.CommandResult result = gitCommandRunner.run(directory, command, Map.of());
+                if (!result.isSuccess()) {
+                        throw gitCommandRunner.failure(result, "git " + arguments[0] + " 失敗");
+                }
+                return result.stdout();
+        }
+}
@@ -0,0 +1,363 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.backend.error.GitOperationException;
+import com.example.backend.error.InvalidRequestException;
+import com.example.backend.git.dto.BatchCommitItem;
+import com.example.backend.git.dto.BatchCommitRequest;
+import com.example.backend.git.dto.BatchCommitResponse;
+import com.example.backend.git.dto.CommitRequest;
+import com.example.backend.git.dto.CommitResponse;
+import com.example.backend.git.dto.CreateRepoRequest;
+import com.example.backend.git.dto.RepoPageResponse;
+import com.example.backend.git.dto.RepoQuery;
+import com.example.backend.git.dto.RepoSummaryResponse;
+import com.example.backend.git.dto.StartUploadRequest;
+import com.example.backend.git.dto.StepTiming;
+import com.example.backend.git.engine.CliGitEngine;
+import com.example.backend.git.model.CloneMode;
+import com.example.backend.git.model.PerformanceProfile;
+import com.example.backend.git.model.RepoMetadata;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.Year;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 以本機 bare repository 作為遠端，驗證 clone 模式與 commit-and-push 流程寫入的 metadata 與 git 狀態。
+ */
+class RepoServiceTest {
+
+        private static final String SCOPE = Year.now().getValue() + "/main";
+
+        @TempDir
+        Path root;
+
+        private WorkspaceService workspaceService;
+        private GitCommandRunner gitCommandRunner;
+        private CliGitEngine cliGitEngine;
+        private ObjectMapper objectMapper;
+        private RepoMetadataIndex index;
+        private Path origin;
+
+        @BeforeEach
+        void setUp() throws Exception {
+                workspaceService = new WorkspaceService(root.resolve("backend"));
+                workspaceService.ensureWorkspace();
+                gitCommandRunner = TestServices.gitCommandRunner();
+                cliGitEngine = new CliGitEngine(gitCommandRunner, new LocalPatService(workspaceService));
+                objectMapper = new ObjectMapper().findAndRegisterModules()
+                                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+                index = newIndex();
+                index.rebuild();
+                origin = createOrigin();
+        }
+
+        @Test
+        void sparseCloneShouldCheckOutOnlyCommitScopeAndPersistIt() throws Exception {
+                RepoService repoService = newService(Duration.ZERO);
+
+                RepoSummaryResponse summary = repoService
+                                .addRepository(new CreateRepoRequest(origin.toString(), "main", CloneMode.SPARSE, null));
+                Path repository = workspaceService.getReposRoot().resolve(summary.id());
+
+                assertThat(summary.cloneMode()).isEqualTo(CloneMode.SPARSE);
+                assertThat(repository.resolve("README.md")).exists();
+                assertThat(repository.resolve("archive/old.txt")).doesNotExist();
+                assertThat(git(repository, "sparse-checkout", "list")).contains(SCOPE);
+
+                RepoMetadata metadata = index.get(summary.id()).orElseThrow();
+                assertThat(metadata.cloneMode()).isEqualTo(CloneMode.SPARSE);
+                assertThat(metadata.sparsePaths()).containsExactly(SCOPE);
+                RepoMetadataIndex reloaded = newIndex();
+                reloaded.rebuild();
+                assertThat(reloaded.get(summary.id())).contains(metadata);
+
+                configureIdentity(repository);
+                Files.writeString(repository.resolve(SCOPE).resolve("report.txt"), "report\n");
+                CommitResponse response = repoService.commitAndPush(summary.id(), new CommitRequest("sparse commit"));
+                assertThat(response.committed()).isTrue();
+                assertThat(git(origin, "ls-tree", "-r", "--name-only", "main")).contains(SCOPE + "/report.txt",
+                                "archive/old.txt");
+        }
+
+        @Test
+        void worktreeBranchesShouldShareOneBaseAndPersistIt() throws Exception {
+                RepoService repoService = newService(Duration.ZERO);
+
+                RepoSummaryResponse main = repoService
+                                .addRepository(new CreateRepoRequest(origin.toString(), "main", CloneMode.WORKTREE, null));
+                RepoSummaryResponse feature = repoService
+                                .addRepository(new CreateRepoRequest(origin.toString(), "feature", CloneMode.WORKTREE, null));
+
+                assertThat(main.cloneMode()).isEqualTo(CloneMode.WORKTREE);
+                assertThat(main.baseRepository()).isNotBlank().startsWith(".bases/").isEqualTo(feature.baseRepository());
+                Path base = workspaceService.getReposRoot().resolve(main.baseRepository());
+                assertThat(git(base, "rev-parse", "--is-bare-repository").trim()).isEqualTo("true");
+                assertThat(git(base, "worktree", "list")).contains(main.id(), feature.id());
+                Path repository = workspaceService.getReposRoot().resolve(main.id());
+                assertThat(repository.resolve(".git")).isRegularFile();
+                assertThat(repository.resolve("README.md")).exists();
+                assertThat(git(origin, "branch", "--list", "feature")).contains("feature");
+
+                RepoMetadataIndex reloaded = newIndex();
+                reloaded.rebuild();
+                assertThat(reloaded.entries()).containsOnlyKeys(main.id(), feature.id());
+                for (String repoId : List.of(main.id(), feature.id())) {
+                        RepoMetadata metadata = reloaded.get(repoId).orElseThrow();
+                        assertThat(metadata).isEqualTo(index.get(repoId).orElseThrow());
+                        assertThat(metadata.cloneMode()).isEqualTo(CloneMode.WORKTREE);
+                        assertThat(metadata.baseRepository()).isEqualTo(main.baseRepository());
+                }
+
+                configureIdentity(repository);
+                Files.writeString(repository.resolve(SCOPE).resolve("report.txt"), "report\n");
+                assertThat(repoService.commitAndPush(main.id(), new CommitRequest("worktree commit")).committed()).isTrue();
+                assertThat(git(origin, "ls-tree", "-r", "--name-only", "main")).contains(SCOPE + "/report.txt");
+        }
+
+        @Test
+        void worktreeUploadsShouldStageInsideWorktreeGitDirectory() throws Exception {
+                RepoService repoService = newService(Duration.ZERO);
+                String repoId = repoService
+                                .addRepository(new CreateRepoRequest(origin.toString(), "main", CloneMode.WORKTREE, null)).id();
+                Path repository = workspaceService.getReposRoot().resolve(repoId);
+                UploadService uploadService = new UploadService(repoService,
+                                new RepoLockRegistry(Duration.ofSeconds(5), TestServices.fileLockService(workspaceService)),
+                                new ContentHashIndex(), DataSize.ofMegabytes(1));
+                byte[] content = "uploaded\n".getBytes(StandardCharsets.UTF_8);
+
+                uploadService.upload(repoId, "single.txt", content.length, new ByteArrayInputStream(content));
+                UploadSessionService sessionService = new UploadSessionService(uploadService, repoService, objectMapper,
+                                Duration.ofHours(1));
+                String uploadId = sessionService.start(repoId, new StartUploadRequest("chunked.txt", (long) content.length,
+                                null)).id();
+                sessionService.writeChunk(repoId, uploadId, 0, content.length, new ByteArrayInputStream(content));
+                sessionService.complete(repoId, uploadId);
+
+                assertThat(repository.resolve(SCOPE).resolve("single.txt")).hasBinaryContent(content);
+                assertThat(repository.resolve(SCOPE).resolve("chunked.txt")).hasBinaryContent(content);
+                Path gitDirectory = Path.of(git(repository, "rev-parse", "--absolute-git-dir").trim());
+                assertThat(uploadService.stagingDirectory(repository)).isEqualTo(
+                                gitDirectory.resolve("git-uploader-uploads")).isDirectory();
+                assertThat(git(repository, "status", "--porcelain")).doesNotContain("git-uploader-uploads");
+        }
+
+        @Test
+        void rejectedPushShouldBeReplayedOntoRemoteTipOnce() throws Exception {
+                RepoService repoService = newService(Duration.ofHours(1));
+                String repoId = repoService.addRepository(new CreateRepoRequest(origin.toString(), "main", null, null)).id();
+                Path repository = workspaceService.getReposRoot().resolve(repoId);
+                configureIdentity(repository);
+                Path other = root.resolve("other");
+                git(root, "clone", "-b", "main", origin.toString(), other.toString());
+                Files.writeString(other.resolve("concurrent.txt"), "concurrent\n");
+                git(other, "add", ".");
+                git(other, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-m", "concurrent");
+                git(other, "push", "origin", "main");
+
+                Files.writeString(repository.resolve(SCOPE).resolve("report.txt"), "report\n");
+                CommitResponse response = repoService.commitAndPush(repoId, new CommitRequest("after concurrent push"));
+
+                assertThat(response.pushAttempts()).isEqualTo(2);
+                assertThat(response.steps()).extracting(StepTiming::name).contains("undo-commit", "fetch");
+                assertThat(git(origin, "ls-tree", "-r", "--name-only", "main")).contains("concurrent.txt",
+                                SCOPE + "/report.txt");
+        }
+
+        @Test
+        void pushFailureOtherThanRejectionShouldNotBeRetried() throws Exception {
+                RepoService repoService = newService(Duration.ofHours(1));
+                String repoId = repoService.addRepository(new CreateRepoRequest(origin.toString(), "main", null, null)).id();
+                Path repository = workspaceService.getReposRoot().resolve(repoId);
+                configureIdentity(repository);
+                git(repository, "config", "remote.origin.pushurl", root.resolve("missing.git").toString());
+                Files.writeString(repository.resolve(SCOPE).resolve("report.txt"), "report\n");
+                String head = git(repository, "rev-parse", "HEAD");
+                OperationTracker tracker = new OperationTracker();
+
+                assertThatThrownBy(() -> repoService.commitAndPush(repoId, new CommitRequest("unreachable"), tracker))
+                                .isInstanceOf(GitOperationException.class).hasMessage("Push 失敗");
+                assertThat(tracker.getSteps()).extracting(StepTiming::name).containsOnlyOnce("push", "commit")
+                                .doesNotContain("undo-commit", "fetch");
+                assertThat(git(repository, "rev-list", "--count", head.trim() + "..HEAD").trim()).isEqualTo("1");
+        }
+
+        @Test
+        void batchShouldReportFailingRepositoryWithoutStoppingOthers() throws Exception {
+                RepoService repoService = newService(Duration.ZERO);
+                String main = repoService.addRepository(new CreateRepoRequest(origin.toString(), "main", null, null)).id();
+                String dev = repoService.addRepository(new CreateRepoRequest(origin.toString(), "dev", null, null)).id();
+                for (String repoId : List.of(main, dev)) {
+                        Path repository = workspaceService.getReposRoot().resolve(repoId);
+                        configureIdentity(repository);
+                        Files.writeString(repository.resolve(repoService.resolveCommitScope(repoId)).resolve("batch.txt"),
+                                        repoId + "\n");
+                }
+                git(workspaceService.getReposRoot().resolve(dev), "config", "remote.origin.pushurl",
+                                root.resolve("missing.git").toString());
+                BatchCommitService batchCommitService = new BatchCommitService(repoService, index,
+                                new OperationHistory(workspaceService, objectMapper, false, DataSize.ofMegabytes(1), 1, 10), 2, 4);
+                BatchCommitRequest request = new BatchCommitRequest(null, "proj", null, "batch commit", 2);
+
+                List<String> targets = batchCommitService.resolveTargets(request);
+                assertThat(targets).containsExactlyInAnyOrder(main, dev);
+                BatchCommitResponse response = batchCommitService.commitAndPush(
+                                Stream.concat(targets.stream(), Stream.of("proj_repo_missing")).toList(), request,
+                                new OperationTracker());
+
+                assertThat(response.total()).isEqualTo(3);
+                assertThat(response.succeeded()).isEqualTo(1);
+                assertThat(response.failed()).isEqualTo(2);
+                Map<String, BatchCommitItem> results = response.results().stream()
+                                .collect(Collectors.toMap(BatchCommitItem::repoId, Function.identity()));
+                assertThat(results.get(main).success()).isTrue();
+                assertThat(results.get(main).committed()).isTrue();
+                assertThat(results.get(dev).success()).isFalse();
+                assertThat(results.get(dev).message()).contains("Push 失敗");
+                assertThat(results.get("proj_repo_missing").message()).contains("找不到指定的 Repository");
+                assertThat(git(origin, "ls-tree", "-r", "--name-only", "main")).contains(SCOPE + "/batch.txt");
+        }
+
+        @Test
+        void listRepositoriesShouldFilterSortAndPage() throws Exception {
+                RepoService repoService = newService(Duration.ZERO);
+                index(repoService, "proj", "repo", "main");
+                index(repoService, "proj", "repo", "dev");
+                index(repoService, "proj", "other", "main");
+                index(repoService, "team", "tool", "main");
+                index(repoService, "team", "tool", "release");
+
+                RepoPageResponse first = repoService.listRepositories(new RepoQuery(null, null, null, null, null, 0, 2));
+                assertThat(first.items()).extracting(RepoSummaryResponse::id).containsExactly("proj_other_main",
+                                "proj_repo_dev");
+                assertThat(first.totalItems()).isEqualTo(5);
+                assertThat(first.totalPages()).isEqualTo(3);
+                assertThat(repoService.listRepositories(new RepoQuery(null, null, null, null, "id", 2, 2)).items())
+                                .extracting(RepoSummaryResponse::id).containsExactly("team_tool_release");
+                RepoPageResponse beyond = repoService.listRepositories(new RepoQuery(null, null, null, null, null, 9, 2));
+                assertThat(beyond.items()).isEmpty();
+                assertThat(beyond.totalItems()).isEqualTo(5);
+
+                assertThat(repoService.listRepositories(new RepoQuery(" PROJ ", "repo", null, null, null, 0, 10)).items())
+                                .extracting(RepoSummaryResponse::id).containsExactly("proj_repo_dev", "proj_repo_main");
+                RepoPageResponse mainBranches = repoService
+                                .listRepositories(new RepoQuery(null, null, "MAIN", null, "project,desc", 0, 2));
+                assertThat(mainBranches.items()).extracting(RepoSummaryResponse::id).containsExactly("team_tool_main",
+                                "proj_repo_main");
+                assertThat(mainBranches.totalItems()).isEqualTo(3);
+                assertThat(mainBranches.totalPages()).isEqualTo(2);
+                assertThat(repoService.listRepositories(new RepoQuery(null, null, null, "TOOL", "branch", 0, 10)).items())
+                                .extracting(RepoSummaryResponse::branch).containsExactly("main", "release");
+
+                assertThatThrownBy(() -> repoService.listRepositories(new RepoQuery(null, null, null, null, null, 0, 0)))
+                                .isInstanceOf(InvalidRequestException.class).hasMessageContaining("每頁筆數");
+                assertThatThrownBy(() -> repoService.listRepositories(new RepoQuery(null, null, null, null, null, -1, 10)))
+                                .isInstanceOf(InvalidRequestException.class).hasMessage("頁碼不可小於 0");
+                assertThatThrownBy(() -> repoService
+                                .listRepositories(new RepoQuery(null, null, null, null, "url,sideways", 0, 10)))
+                                .isInstanceOf(InvalidRequestException.class).hasMessageContaining("不支援的排序方式");
+        }
+
+        @Test
+        void listVersionShouldChangeOnlyWhenRepositoriesChange() throws Exception {
+                RepoService repoService = newService(Duration.ZERO);
+                index(repoService, "proj", "repo", "main");
+                String version = repoService.repositoryListVersion();
+
+                RepoPageResponse page = repoService.listRepositories(new RepoQuery(null, null, null, null, null, 0, 10));
+                assertThat(page.version()).isEqualTo(version).endsWith("-" + Year.now().getValue());
+                assertThat(repoService.repositoryListVersion()).isEqualTo(version);
+
+                index(repoService, "proj", "repo", "dev");
+
+                assertThat(repoService.repositoryListVersion()).isNotEqualTo(version);
+                assertThat(repoService.listRepositories(new RepoQuery(null, null, null, null, null, 0, 10)).totalItems())
+                                .isEqualTo(2);
+        }
+
+        private void index(RepoService repoService, String project, String repository, String branch) throws Exception {
+                Path directory = Files.createDirectories(
+                                workspaceService.getReposRoot().resolve(project + "_" + repository + "_" + branch));
+                index.write(directory, new RepoMetadata("https://dev.azure.com/org/" + project + "/_git/" + repository, project,
+                                repository, branch, branch, Instant.parse("2026-01-01T00:00:00Z"), CloneMode.FULL, List.of(),
+                                PerformanceProfile.STANDARD, null));
+        }
+
+        private RepoService newService(Duration fetchFreshWindow) {
+                PatService patService = new LocalPatService(workspaceService);
+                FileLockService fileLockService = TestServices.fileLockService(workspaceService);
+                return new RepoService(workspaceService, patService, cliGitEngine, cliGitEngine,
+                                new RepoLockRegistry(Duration.ofSeconds(5), fileLockService), index, new FetchStateRegistry(),
+                                new LfsRouter(cliGitEngine, false, DataSize.ofMegabytes(50), List.of(), 8),
+                                new RepoProfileService(cliGitEngine, 3), PushRetryPolicy.disabled(), CloneMode.FULL,
+                                PerformanceProfile.STANDARD, fetchFreshWindow);
+        }
+
+        private RepoMetadataIndex newIndex() {
+                return new RepoMetadataIndex(workspaceService, objectMapper, TestServices.fileLockService(workspaceService),
+                                Duration.ofMinutes(1));
+        }
+
+        private Path createOrigin() throws Exception {
+                Path bare = root.resolve("origin").resolve("proj").resolve("_git").resolve("repo");
+                Path seed = root.resolve("seed");
+                Files.createDirectories(bare.getParent());
+                git(root, "init", "--bare", "-b", "main", bare.toString());
+                git(root, "clone", bare.toString(), seed.toString());
+                Files.writeString(seed.resolve("README.md"), "seed\n");
+                Files.createDirectories(seed.resolve("archive"));
+                Files.writeString(seed.resolve("archive/old.txt"), "old\n");
+                git(seed, "add", ".");
+                git(seed, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-m", "seed");
+                git(seed, "push", "origin", "HEAD:main", "HEAD:master");
+                return bare;
+        }
+
+        private void configureIdentity(Path repository) {
+                git(repository, "config", "user.name", "test");
+                git(repository, "config", "user.email", "test@example.com");
+        }
+
+        private String git(Path directory, String... arguments) {
+                List<String> command = Stream.concat(Stream.of("git"), Stream.of(arguments)).toList();
+                GitCommandRunner.CommandResult result = gitCommandRunner.run(directory, command, Map.of());
+                if (!result.isSuccess()) {
+                        throw gitCommandRunner.failure(result, "git " + arguments[0] + " 失敗");
+                }
+                return result.stdout();
+        }
+
+        private static final class LocalPatService extends PatService {
+
+                private LocalPatService(WorkspaceService workspaceService) {
+                        super(workspaceService, TestServices.fileLockService(workspaceService), true);
+                }
+
+                @Override
+                public String requirePat() {
+                        return "local";
+                }
+
+                @Override
+                public Map<String, String> buildGitEnvironment() {
+                        return Map.of();
+                }
+        }
+}
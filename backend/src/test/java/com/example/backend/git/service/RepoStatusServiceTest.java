@@ -0,0 +1,126 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.backend.git.engine.CliGitEngine;
+import com.example.backend.git.model.StatusSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RepoStatusServiceTest {
+
+        private static final String REPO_ID = "proj_repo_main";
+
+        @TempDir
+        Path root;
+
+        private Path repository;
+        private StubRepoService repoService;
+        private RepoMetadataIndex index;
+        private RepoLockRegistry repoLockRegistry;
+        private RepoStatusService statusService;
+
+        @BeforeEach
+        void setUp() throws Exception {
+                WorkspaceService workspaceService = new WorkspaceService(root.resolve("backend"));
+                workspaceService.ensureWorkspace();
+                FileLockService fileLockService = TestServices.fileLockService(workspaceService);
+                index = new RepoMetadataIndex(workspaceService, new ObjectMapper().findAndRegisterModules(),
+                                fileLockService, Duration.ofMinutes(1));
+                repoLockRegistry = new RepoLockRegistry(Duration.ofSeconds(5), fileLockService);
+                repository = Files.createDirectories(workspaceService.getReposRoot().resolve(REPO_ID));
+                Files.createDirectories(repository.resolve("2026/main/a/b"));
+                Files.createDirectories(repository.resolve("2026/release/c"));
+                repoService = new StubRepoService(repository, "2026/main");
+        }
+
+        @AfterEach
+        void tearDown() {
+                if (statusService != null) {
+                        statusService.stop();
+                }
+        }
+
+        @Test
+        void changingScopeShouldCancelWatchesOfPreviousScope() {
+                statusService = newStatusService(100);
+
+                assertThat(statusService.status(REPO_ID).cached()).isFalse();
+                // repo、2026 兩層上層目錄加上 main、a、b
+                assertThat(statusService.watchCount()).isEqualTo(5);
+                assertThat(statusService.status(REPO_ID).cached()).isTrue();
+
+                repoService.scope = "2026/release";
+                assertThat(statusService.status(REPO_ID).yearBranchPath()).isEqualTo("2026/release");
+                assertThat(statusService.watchCount()).isEqualTo(4);
+
+                repoService.scope = "2026/main";
+                statusService.status(REPO_ID);
+                assertThat(statusService.watchCount()).isEqualTo(5);
+        }
+
+        @Test
+        void scopesBeyondWatchLimitShouldFallBackToCacheTtl() {
+                statusService = newStatusService(3);
+
+                assertThat(statusService.status(REPO_ID).cached()).isFalse();
+                assertThat(statusService.watchCount()).isZero();
+                assertThat(statusService.status(REPO_ID).cached()).isTrue();
+
+                repoService.scope = "2026/release";
+                statusService.status(REPO_ID);
+                assertThat(statusService.watchCount()).isZero();
+        }
+
+        private RepoStatusService newStatusService(int maxWatches) {
+                RepoStatusService service = new RepoStatusService(repoService, index, new StubEngine(),
+                                new FetchStateRegistry(), repoLockRegistry, Duration.ofMinutes(10), 2, maxWatches);
+                service.start();
+                return service;
+        }
+
+        private static final class StubRepoService extends RepoService {
+
+                private final Path repository;
+                private volatile String scope;
+
+                private StubRepoService(Path repository, String scope) {
+                        super(null, null, null, null, null, null, null, null, null, null, null, null, null);
+                        this.repository = repository;
+                        this.scope = scope;
+                }
+
+                @Override
+                public Path requireRepository(String repoId) {
+                        return repository;
+                }
+
+                @Override
+                public String resolveCommitScope(String repoId) {
+                        return scope;
+                }
+        }
+
+        private static final class StubEngine extends CliGitEngine {
+
+                private StubEngine() {
+                        super(TestServices.gitCommandRunner(), null);
+                }
+
+                @Override
+                public StatusSummary statusSummary(Path repository, String pathspec) {
+                        return new StatusSummary("main", "origin/main", 0, 0, 0, 0, 0, 0, 0);
+                }
+
+                @Override
+                public long objectStoreBytes(Path repository) {
+                        return 0;
+                }
+        }
+}
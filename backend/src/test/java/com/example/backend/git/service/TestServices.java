@@ -0,0 +1,29 @@
+package com.example.backend.git.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+
+/**
+ * 測試用的服務組裝：明確列出單機測試採用的設定（不啟用租約、預設逾時），避免各測試各自猜測預設值。
+ */
+final class TestServices {
+
+        private TestServices() {
+        }
+
+        static FileLockService fileLockService(WorkspaceService workspaceService) {
+                return new FileLockService(workspaceService, false, Duration.ofMinutes(2), Duration.ofSeconds(30));
+        }
+
+        static PatService patService(WorkspaceService workspaceService) {
+                return new PatService(workspaceService, fileLockService(workspaceService), true);
+        }
+
+        static GitCommandRunner gitCommandRunner() {
+                return gitCommandRunner(32768, new GitMetrics(new SimpleMeterRegistry()));
+        }
+
+        static GitCommandRunner gitCommandRunner(int captureBytes, GitMetrics gitMetrics) {
+                return new GitCommandRunner(captureBytes, gitMetrics, GitTimeouts.defaults());
+        }
+}
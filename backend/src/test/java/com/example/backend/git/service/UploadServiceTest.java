@@ -0,0 +1,111 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.backend.error.InvalidRequestException;
+import com.example.backend.git.dto.UploadResponse;
+import com.example.backend.git.engine.CliGitEngine;
+import com.example.backend.git.model.CloneMode;
+import com.example.backend.git.model.PerformanceProfile;
+import com.example.backend.git.model.RepoMetadata;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.Year;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class UploadServiceTest {
+
+        private static final String REPO_ID = "proj_repo_main";
+        private static final byte[] CONTENT = "content".getBytes(StandardCharsets.UTF_8);
+
+        @TempDir
+        Path root;
+
+        private UploadService uploadService;
+        private Path repository;
+        private Path commitFolder;
+
+        @BeforeEach
+        void setUp() throws Exception {
+                WorkspaceService workspaceService = new WorkspaceService(root.resolve("backend"));
+                workspaceService.ensureWorkspace();
+                FileLockService fileLockService = TestServices.fileLockService(workspaceService);
+                RepoMetadataIndex index = new RepoMetadataIndex(workspaceService, new ObjectMapper().findAndRegisterModules(),
+                                fileLockService, Duration.ofMinutes(1));
+                index.rebuild();
+                repository = Files.createDirectories(workspaceService.getReposRoot().resolve(REPO_ID));
+                index.write(repository, new RepoMetadata("https://dev.azure.com/org/proj/_git/repo", "proj", "repo", "main",
+                                "main", Instant.now(), CloneMode.FULL, List.of(), PerformanceProfile.STANDARD, null));
+
+                PatService patService = TestServices.patService(workspaceService);
+                CliGitEngine cliGitEngine = new CliGitEngine(TestServices.gitCommandRunner(), patService);
+                RepoLockRegistry repoLockRegistry = new RepoLockRegistry(Duration.ofSeconds(5), fileLockService);
+                RepoService repoService = new RepoService(workspaceService, patService, cliGitEngine, cliGitEngine,
+                                repoLockRegistry, index, new FetchStateRegistry(),
+                                new LfsRouter(cliGitEngine, false, DataSize.ofMegabytes(50), List.of(), 8),
+                                new RepoProfileService(cliGitEngine, 3), PushRetryPolicy.disabled(), CloneMode.FULL,
+                                PerformanceProfile.STANDARD, Duration.ZERO);
+                uploadService = new UploadService(repoService, repoLockRegistry, new ContentHashIndex(),
+                                DataSize.ofMegabytes(1));
+                commitFolder = repository.resolve(Year.now().getValue() + "/main");
+        }
+
+        @Test
+        void dotSegmentsAndGitDirectoriesShouldBeRejected() {
+                for (String path : List.of("../escape.txt", "a/../../escape.txt", "./file.txt", ".git/config",
+                                "docs/.GIT/hooks/pre-commit", "..\\escape.txt", "", "/", "folder/")) {
+                        assertThatThrownBy(() -> uploadService.resolveTarget(REPO_ID, path)).as(path)
+                                        .isInstanceOf(InvalidRequestException.class);
+                }
+                assertThat(repository.getParent().resolve("escape.txt")).doesNotExist();
+        }
+
+        @Test
+        void leadingSlashAndBackslashesShouldResolveInsideCommitFolder() {
+                assertThat(uploadService.resolveTarget(REPO_ID, "/docs/a.txt")).isEqualTo(commitFolder.resolve("docs/a.txt"));
+                assertThat(uploadService.resolveTarget(REPO_ID, "//b.txt")).isEqualTo(commitFolder.resolve("b.txt"));
+                assertThat(uploadService.resolveTarget(REPO_ID, "docs\\sub\\c.txt"))
+                                .isEqualTo(commitFolder.resolve("docs/sub/c.txt"));
+                // 只驗證路徑，不建立目錄
+                assertThat(commitFolder.resolve("docs")).doesNotExist();
+        }
+
+        @Test
+        void uploadShouldCreateMissingDirectoriesInsideCommitFolder() throws Exception {
+                UploadResponse response = uploadService.upload(REPO_ID, "nested/dir/file.txt", CONTENT.length,
+                                new ByteArrayInputStream(CONTENT));
+
+                assertThat(response.path()).isEqualTo(Year.now().getValue() + "/main/nested/dir/file.txt");
+                assertThat(Files.readAllBytes(commitFolder.resolve("nested/dir/file.txt"))).isEqualTo(CONTENT);
+        }
+
+        @Test
+        void symlinkedDirectoryShouldNotLetUploadLeaveCommitFolder() throws Exception {
+                Path outside = Files.createDirectories(root.resolve("outside"));
+                Files.createDirectories(commitFolder.resolve("docs"));
+                Files.createSymbolicLink(commitFolder.resolve("link"), outside);
+                Files.createSymbolicLink(commitFolder.resolve("docs/inner"), commitFolder.resolve("docs"));
+
+                for (String path : List.of("link/new/file.txt", "link/file.txt", "docs/inner/file.txt")) {
+                        assertThatThrownBy(() -> uploadService.resolveTarget(REPO_ID, path)).as(path)
+                                        .isInstanceOf(InvalidRequestException.class)
+                                        .hasMessageContaining("符號連結");
+                        assertThatThrownBy(() -> uploadService.upload(REPO_ID, path, CONTENT.length,
+                                        new ByteArrayInputStream(CONTENT))).as(path).isInstanceOf(InvalidRequestException.class);
+                }
+                try (Stream<Path> entries = Files.list(outside)) {
+                        assertThat(entries).isEmpty();
+                }
+        }
+}
@@ -0,0 +1,204 @@
+package com.example.backend.git.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.backend.error.InvalidRequestException;
+import com.example.backend.error.UploadNotFoundException;
+import com.example.backend.git.dto.StartUploadRequest;
+import com.example.backend.git.dto.UploadResponse;
+import com.example.backend.git.dto.UploadSessionResponse;
+import com.example.backend.git.engine.CliGitEngine;
+import com.example.backend.git.model.ByteRange;
+import com.example.backend.git.model.CloneMode;
+import com.example.backend.git.model.PerformanceProfile;
+import com.example.backend.git.model.RepoMetadata;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.Year;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class UploadSessionServiceTest {
+
+        private static final String REPO_ID = "proj_repo_main";
+        private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+
+        @TempDir
+        Path root;
+
+        private WorkspaceService workspaceService;
+        private ObjectMapper objectMapper;
+        private UploadService uploadService;
+        private RepoService repoService;
+        private Path repository;
+
+        @BeforeEach
+        void setUp() throws Exception {
+                workspaceService = new WorkspaceService(root.resolve("backend"));
+                workspaceService.ensureWorkspace();
+                objectMapper = new ObjectMapper().findAndRegisterModules()
+                                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+                FileLockService fileLockService = TestServices.fileLockService(workspaceService);
+                RepoMetadataIndex index = new RepoMetadataIndex(workspaceService, objectMapper, fileLockService,
+                                Duration.ofMinutes(1));
+                index.rebuild();
+                repository = Files.createDirectories(workspaceService.getReposRoot().resolve(REPO_ID));
+                index.write(repository, new RepoMetadata("https://dev.azure.com/org/proj/_git/repo", "proj", "repo", "main",
+                                "main", Instant.now(), CloneMode.FULL, List.of(), PerformanceProfile.STANDARD, null));
+
+                PatService patService = TestServices.patService(workspaceService);
+                CliGitEngine cliGitEngine = new CliGitEngine(TestServices.gitCommandRunner(), patService);
+                RepoLockRegistry repoLockRegistry = new RepoLockRegistry(Duration.ofSeconds(5), fileLockService);
+                repoService = new RepoService(workspaceService, patService, cliGitEngine, cliGitEngine, repoLockRegistry,
+                                index, new FetchStateRegistry(),
+                                new LfsRouter(cliGitEngine, false, DataSize.ofMegabytes(50), List.of(), 8),
+                                new RepoProfileService(cliGitEngine, 3), PushRetryPolicy.disabled(), CloneMode.FULL,
+                                PerformanceProfile.STANDARD, Duration.ZERO);
+                uploadService = new UploadService(repoService, repoLockRegistry, new ContentHashIndex(),
+                                DataSize.ofMegabytes(1));
+        }
+
+        @Test
+        void mergeShouldCoalesceOverlappingAndAdjacentRanges() {
+                List<ByteRange> ranges = UploadSessionService.merge(List.of(new ByteRange(0, 10), new ByteRange(20, 30)),
+                                new ByteRange(10, 15));
+                assertThat(ranges).containsExactly(new ByteRange(0, 15), new ByteRange(20, 30));
+
+                ranges = UploadSessionService.merge(ranges, new ByteRange(12, 25));
+                assertThat(ranges).containsExactly(new ByteRange(0, 30));
+        }
+
+        @Test
+        void outOfOrderAndDuplicateChunksShouldAssembleFile() throws Exception {
+                UploadSessionService sessionService = newSessionService(Duration.ofHours(1));
+                String uploadId = sessionService.start(REPO_ID, request("data/file.bin", sha256(CONTENT))).id();
+
+                UploadSessionResponse tail = sessionService.writeChunk(REPO_ID, uploadId, 10, 10, chunk(10, 20));
+                assertThat(tail.received()).containsExactly(new ByteRange(10, 20));
+                assertThat(tail.chunkSha256()).isEqualTo(sha256(Arrays.copyOfRange(CONTENT, 10, 20)));
+                sessionService.writeChunk(REPO_ID, uploadId, 0, 10, chunk(0, 10));
+                UploadSessionResponse duplicate = sessionService.writeChunk(REPO_ID, uploadId, 0, 10, chunk(0, 10));
+                assertThat(duplicate.receivedBytes()).isEqualTo(CONTENT.length);
+                assertThat(duplicate.received()).containsExactly(new ByteRange(0, CONTENT.length));
+
+                UploadResponse result = sessionService.complete(REPO_ID, uploadId);
+
+                assertThat(result.sha256()).isEqualTo(sha256(CONTENT));
+                assertThat(Files.readAllBytes(target("data/file.bin"))).isEqualTo(CONTENT);
+                assertThatThrownBy(() -> sessionService.status(REPO_ID, uploadId))
+                                .isInstanceOf(UploadNotFoundException.class);
+        }
+
+        @Test
+        void uploadShouldResumeAfterPartialChunk() throws Exception {
+                UploadSessionService sessionService = newSessionService(Duration.ofHours(1));
+                String uploadId = sessionService.start(REPO_ID, request("resume.bin", sha256(CONTENT))).id();
+
+                assertThatThrownBy(() -> sessionService.writeChunk(REPO_ID, uploadId, 0, CONTENT.length,
+                                failingAfter(Arrays.copyOfRange(CONTENT, 0, 7))))
+                                .isInstanceOf(InvalidRequestException.class).hasMessageContaining("無法寫入上傳分段");
+                assertThat(sessionService.status(REPO_ID, uploadId).received()).containsExactly(new ByteRange(0, 7));
+
+                // 重新啟動後從暫存的 metadata 接續上傳
+                UploadSessionService restarted = newSessionService(Duration.ofHours(1));
+                assertThat(restarted.status(REPO_ID, uploadId).receivedBytes()).isEqualTo(7);
+                restarted.writeChunk(REPO_ID, uploadId, 7, CONTENT.length - 7, chunk(7, CONTENT.length));
+                UploadResponse result = restarted.complete(REPO_ID, uploadId);
+
+                assertThat(result.sha256()).isEqualTo(sha256(CONTENT));
+                assertThat(Files.readAllBytes(target("resume.bin"))).isEqualTo(CONTENT);
+        }
+
+        @Test
+        void completeShouldRejectMismatchedHashAndDiscardUpload() throws Exception {
+                UploadSessionService sessionService = newSessionService(Duration.ofHours(1));
+                String expected = sha256("something else".getBytes(StandardCharsets.UTF_8));
+                String uploadId = sessionService.start(REPO_ID, request("mismatch.bin", expected)).id();
+                sessionService.writeChunk(REPO_ID, uploadId, 0, CONTENT.length, chunk(0, CONTENT.length));
+
+                assertThatThrownBy(() -> sessionService.complete(REPO_ID, uploadId))
+                                .isInstanceOf(InvalidRequestException.class).hasMessageContaining("SHA-256 不符");
+                assertThat(target("mismatch.bin")).doesNotExist();
+                assertThat(staging().resolve(uploadId + ".part")).doesNotExist();
+                assertThatThrownBy(() -> sessionService.status(REPO_ID, uploadId))
+                                .isInstanceOf(UploadNotFoundException.class);
+        }
+
+        @Test
+        void expiredUploadsShouldBeEvictedOnNextStart() throws Exception {
+                UploadSessionService sessionService = newSessionService(Duration.ofHours(1));
+                String expired = sessionService.start(REPO_ID, request("old.bin", null)).id();
+                FileTime twoHoursAgo = FileTime.from(Instant.now().minus(Duration.ofHours(2)));
+                Files.setLastModifiedTime(staging().resolve(expired + ".part"), twoHoursAgo);
+                Files.setLastModifiedTime(staging().resolve(expired + ".json"), twoHoursAgo);
+
+                String fresh = sessionService.start(REPO_ID, request("new.bin", null)).id();
+
+                assertThat(staging().resolve(expired + ".part")).doesNotExist();
+                assertThat(staging().resolve(expired + ".json")).doesNotExist();
+                assertThatThrownBy(() -> sessionService.status(REPO_ID, expired))
+                                .isInstanceOf(UploadNotFoundException.class);
+                assertThat(sessionService.status(REPO_ID, fresh).receivedBytes()).isZero();
+        }
+
+        private UploadSessionService newSessionService(Duration sessionTtl) {
+                return new UploadSessionService(uploadService, repoService, objectMapper, sessionTtl);
+        }
+
+        private Path target(String path) {
+                return repository.resolve(Year.now().getValue() + "/main").resolve(path);
+        }
+
+        private Path staging() throws IOException {
+                return uploadService.stagingDirectory(repository);
+        }
+
+        private static StartUploadRequest request(String path, String sha256) {
+                return new StartUploadRequest(path, (long) CONTENT.length, sha256);
+        }
+
+        private static InputStream chunk(int from, int to) {
+                return new ByteArrayInputStream(Arrays.copyOfRange(CONTENT, from, to));
+        }
+
+        private static InputStream failingAfter(byte[] data) {
+                InputStream delegate = new ByteArrayInputStream(data);
+                return new InputStream() {
+
+                        @Override
+                        public int read() throws IOException {
+                                byte[] single = new byte[1];
+                                return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+                        }
+
+                        @Override
+                        public int read(byte[] buffer, int offset, int length) throws IOException {
+                                int read = delegate.read(buffer, offset, length);
+                                if (read == -1) {
+                                        throw new IOException("connection reset");
+                                }
+                                return read;
+                        }
+                };
+        }
+
+        private static String sha256(byte[] data) throws Exception {
+                return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        }
+}
@@ -27,4 +27,10 @@ class AzureRepoUrlParserTest {
                 String folderName = AzureRepoUrlParser.createFolderName("Sample Project", "Repo.Name", "feature/demo");
                 assertThat(folderName).isEqualTo("sample-project_repo.name_feature-demo");
         }
+
+        @Test
+        void createBaseNameShouldOmitBranch() {
+                String baseName = AzureRepoUrlParser.createBaseName("Sample Project", "Repo.Name");
+                assertThat(baseName).isEqualTo("sample-project_repo.name.git");
+        }
 }
@@ -0,0 +1,24 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+BENCH_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+BACKEND_DIR="$BENCH_DIR/../backend"
+RESULTS_DIR="$BENCH_DIR/results"
+
+echo "==> 安裝後端 jar 至本機 Maven repository"
+pushd "$BACKEND_DIR" >/dev/null
+./mvnw -q install -DskipTests
+popd >/dev/null
+
+echo "==> 建置 benchmarks.jar"
+pushd "$BENCH_DIR" >/dev/null
+"$BACKEND_DIR/mvnw" -q package
+popd >/dev/null
+
+mkdir -p "$RESULTS_DIR"
+RESULT_FILE="$RESULTS_DIR/jmh-$(git -C "$BENCH_DIR" rev-parse --short HEAD 2>/dev/null || echo local)-$(date +%Y%m%d-%H%M%S).json"
+
+echo "==> 執行 JMH（額外參數會直接傳給 JMH，例如只跑 RepoListing：./run.sh RepoListing）"
+java -jar "$BENCH_DIR/target/benchmarks.jar" -rf json -rff "$RESULT_FILE" "$@"
+
+echo "結果已輸出至 $RESULT_FILE"
@@ -0,0 +1,44 @@
+package com.example.benchmarks;
+
+import com.example.backend.git.util.AzureRepoUrlParser;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AzureRepoUrlParserBenchmark {
+
+        @Benchmark
+        public Optional<AzureRepoUrlParser.Result> parse(Urls urls) {
+                return AzureRepoUrlParser.parse(urls.url);
+        }
+
+        @Benchmark
+        public String createFolderName() {
+                return AzureRepoUrlParser.createFolderName("My Project", "My.Repo", "feature/batch-upload");
+        }
+
+        @State(Scope.Benchmark)
+        public static class Urls {
+
+                @Param({
+                        "https://dev.azure.com/org/Project/_git/Repository",
+                        "https://org@dev.azure.com/org/My%20Project/_git/My.Repo?version=GBfeature%2Fbatch-upload",
+                        "https://org.visualstudio.com/DefaultCollection/Project/_git/Repository?path=%2F&version=GBmain"
+                })
+                public String url;
+        }
+}
@@ -0,0 +1,102 @@
+package com.example.benchmarks;
+
+import com.example.backend.git.service.FileLockService;
+import com.example.backend.git.service.GitCommandRunner;
+import com.example.backend.git.service.GitMetrics;
+import com.example.backend.git.service.GitTimeouts;
+import com.example.backend.git.service.PatService;
+import com.example.backend.git.service.WorkspaceService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+final class BenchmarkWorkspace implements AutoCloseable {
+
+        private final Path root;
+        private final WorkspaceService workspaceService;
+        private final GitCommandRunner gitCommandRunner;
+
+        BenchmarkWorkspace() {
+                try {
+                        this.root = Files.createTempDirectory("git-uploader-bench");
+                        Files.createDirectories(root.resolve("backend"));
+                } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                }
+                this.workspaceService = new WorkspaceService(root.resolve("backend"));
+                workspaceService.ensureWorkspace();
+                this.gitCommandRunner = new GitCommandRunner(32768, new GitMetrics(new SimpleMeterRegistry()),
+                                GitTimeouts.defaults());
+        }
+
+        static ObjectMapper objectMapper() {
+                return new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        }
+
+        Path root() {
+                return root;
+        }
+
+        WorkspaceService workspaceService() {
+                return workspaceService;
+        }
+
+        GitCommandRunner gitCommandRunner() {
+                return gitCommandRunner;
+        }
+
+        /**
+         * 基準測試只在單一行程內執行，不啟用跨節點租約。
+         */
+        FileLockService fileLockService() {
+                return new FileLockService(workspaceService, false, Duration.ofMinutes(2), Duration.ofSeconds(30));
+        }
+
+        PatService patService() {
+                return new PatService(workspaceService, fileLockService(), true) {
+                        @Override
+                        public String requirePat() {
+                                return "local";
+                        }
+
+                        @Override
+                        public Map<String, String> buildGitEnvironment() {
+                                return Map.of();
+                        }
+                };
+        }
+
+        Path createOrigin(String project, String repository) throws IOException {
+                Path origin = root.resolve("origin").resolve(project).resolve("_git").resolve(repository);
+                Path seed = root.resolve("seed-" + repository);
+                Files.createDirectories(origin.getParent());
+                git(root, "init", "--bare", "-b", "main", origin.toString());
+                git(root, "clone", origin.toString(), seed.toString());
+                Files.writeString(seed.resolve("README.md"), "seed\n");
+                git(seed, "add", "README.md");
+                git(seed, "-c", "user.name=bench", "-c", "user.email=bench@example.com", "commit", "-m", "seed");
+                git(seed, "push", "origin", "HEAD:main");
+                return origin;
+        }
+
+        void git(Path directory, String... arguments) {
+                List<String> command = Stream.concat(Stream.of("git"), Stream.of(arguments)).toList();
+                gitCommandRunner.runAndEnsureSuccess(directory, command, Map.of(), "git " + arguments[0] + " 失敗");
+        }
+
+        @Override
+        public void close() throws IOException {
+                try (Stream<Path> paths = Files.walk(root)) {
+                        paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+                }
+        }
+}
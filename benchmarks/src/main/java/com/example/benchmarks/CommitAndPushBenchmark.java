@@ -0,0 +1,120 @@
+package com.example.benchmarks;
+
+import com.example.backend.git.dto.CommitRequest;
+import com.example.backend.git.dto.CommitResponse;
+import com.example.backend.git.dto.CreateRepoRequest;
+import com.example.backend.git.dto.RepoSummaryResponse;
+import com.example.backend.git.engine.CliGitEngine;
+import com.example.backend.git.engine.GitEngine;
+import com.example.backend.git.engine.JGitEngine;
+import com.example.backend.git.model.CloneMode;
+import com.example.backend.git.model.PerformanceProfile;
+import com.example.backend.git.service.FetchStateRegistry;
+import com.example.backend.git.service.FileLockService;
+import com.example.backend.git.service.GitTimeouts;
+import com.example.backend.git.service.LfsRouter;
+import com.example.backend.git.service.PatService;
+import com.example.backend.git.service.PushRetryPolicy;
+import com.example.backend.git.service.RepoLockRegistry;
+import com.example.backend.git.service.RepoMetadataIndex;
+import com.example.backend.git.service.RepoProfileService;
+import com.example.backend.git.service.RepoService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Year;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class CommitAndPushBenchmark {
+
+        @Param({ "cli", "jgit" })
+        public String engine;
+
+        @Param({ "FULL", "SPARSE" })
+        public CloneMode cloneMode;
+
+        @Param({ "STANDARD", "LARGE" })
+        public PerformanceProfile profile;
+
+        private BenchmarkWorkspace workspace;
+        private RepoService repoService;
+        private String repoId;
+        private Path commitFolder;
+        private CommitRequest request;
+
+        @Setup
+        public void setUp() throws IOException {
+                workspace = new BenchmarkWorkspace();
+                Path origin = workspace.createOrigin("Project", "Repository");
+                PatService patService = workspace.patService();
+                CliGitEngine cliGitEngine = new CliGitEngine(workspace.gitCommandRunner(), patService);
+                GitEngine gitEngine = "jgit".equals(engine) ? new JGitEngine(patService, GitTimeouts.defaults()) : cliGitEngine;
+                FileLockService fileLockService = workspace.fileLockService();
+                RepoMetadataIndex index = new RepoMetadataIndex(workspace.workspaceService(),
+                                BenchmarkWorkspace.objectMapper(), fileLockService, Duration.ofMinutes(1));
+                index.rebuild();
+                repoService = new RepoService(workspace.workspaceService(), patService, gitEngine, cliGitEngine,
+                                new RepoLockRegistry(Duration.ofMinutes(5), fileLockService), index, new FetchStateRegistry(),
+                                new LfsRouter(cliGitEngine, false, DataSize.ofMegabytes(50), List.of(), 8),
+                                new RepoProfileService(cliGitEngine, 3), PushRetryPolicy.disabled(), CloneMode.FULL,
+                                PerformanceProfile.STANDARD, Duration.ZERO);
+
+                RepoSummaryResponse summary = repoService
+                                .addRepository(new CreateRepoRequest(origin.toString(), "main", cloneMode, profile));
+                repoId = summary.id();
+                Path repository = workspace.workspaceService().getReposRoot().resolve(repoId);
+                workspace.git(repository, "config", "user.name", "bench");
+                workspace.git(repository, "config", "user.email", "bench@example.com");
+                commitFolder = repository.resolve(String.valueOf(Year.now().getValue())).resolve("main");
+                request = new CommitRequest("benchmark");
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+                workspace.close();
+        }
+
+        @Benchmark
+        public CommitResponse commitAndPush(PendingChange change) {
+                return repoService.commitAndPush(repoId, request);
+        }
+
+        @Benchmark
+        public CommitResponse commitAndPushWithoutChanges() {
+                return repoService.commitAndPush(repoId, request);
+        }
+
+        @State(Scope.Benchmark)
+        public static class PendingChange {
+
+                private int round;
+
+                @Setup(Level.Invocation)
+                public void write(CommitAndPushBenchmark benchmark) throws IOException {
+                        round++;
+                        Files.writeString(benchmark.commitFolder.resolve("file-" + (round % 64) + ".txt"), "round " + round + "\n");
+                }
+        }
+}
@@ -0,0 +1,48 @@
+package com.example.benchmarks;
+
+import com.example.backend.git.service.GitCommandRunner;
+import com.example.backend.git.service.GitMetrics;
+import com.example.backend.git.service.GitTimeouts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GitCommandRunnerBenchmark {
+
+        private static final List<String> VERSION = List.of("git", "--version");
+        private static final List<String> LARGE_OUTPUT = List.of("sh", "-c", "head -c 4000000 /dev/zero | tr '\\0' x");
+
+        private GitCommandRunner runner;
+
+        @Setup
+        public void setUp() {
+                runner = new GitCommandRunner(32768, new GitMetrics(new SimpleMeterRegistry()), GitTimeouts.defaults());
+        }
+
+        @Benchmark
+        public GitCommandRunner.CommandResult spawnGitVersion() {
+                return runner.run(null, VERSION, Map.of());
+        }
+
+        @Benchmark
+        public GitCommandRunner.CommandResult drainLargeOutput() {
+                return runner.run(null, LARGE_OUTPUT, Map.of());
+        }
+}
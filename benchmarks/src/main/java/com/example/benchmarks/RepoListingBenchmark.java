@@ -0,0 +1,103 @@
+package com.example.benchmarks;
+
+import com.example.backend.git.dto.RepoPageResponse;
+import com.example.backend.git.dto.RepoQuery;
+import com.example.backend.git.dto.RepoSummaryResponse;
+import com.example.backend.git.engine.CliGitEngine;
+import com.example.backend.git.model.CloneMode;
+import com.example.backend.git.model.PerformanceProfile;
+import com.example.backend.git.model.RepoMetadata;
+import com.example.backend.git.service.FetchStateRegistry;
+import com.example.backend.git.service.FileLockService;
+import com.example.backend.git.service.LfsRouter;
+import com.example.backend.git.service.PatService;
+import com.example.backend.git.service.PushRetryPolicy;
+import com.example.backend.git.service.RepoLockRegistry;
+import com.example.backend.git.service.RepoMetadataIndex;
+import com.example.backend.git.service.RepoProfileService;
+import com.example.backend.git.service.RepoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepoListingBenchmark {
+
+        @Param({ "10", "100", "1000", "5000" })
+        public int repoCount;
+
+        private BenchmarkWorkspace workspace;
+        private RepoMetadataIndex index;
+        private RepoService repoService;
+
+        @Setup
+        public void setUp() throws IOException {
+                workspace = new BenchmarkWorkspace();
+                ObjectMapper objectMapper = BenchmarkWorkspace.objectMapper();
+                Path reposRoot = workspace.workspaceService().getReposRoot();
+                for (int index = 0; index < repoCount; index++) {
+                        String repository = "repo-" + index;
+                        String branch = "feature/" + (index % 17);
+                        Path directory = Files.createDirectories(reposRoot.resolve("Project_" + repository + "_" + index));
+                        RepoMetadata metadata = new RepoMetadata("https://dev.azure.com/org/Project/_git/" + repository,
+                                        "Project", repository, branch, branch.replace('/', '-'), Instant.now(), CloneMode.FULL,
+                                        List.of(), PerformanceProfile.STANDARD, null);
+                        objectMapper.writeValue(directory.resolve(RepoMetadataIndex.METADATA_FILE).toFile(), metadata);
+                }
+                FileLockService fileLockService = workspace.fileLockService();
+                index = new RepoMetadataIndex(workspace.workspaceService(), objectMapper, fileLockService,
+                                Duration.ofMinutes(1));
+                index.rebuild();
+                PatService patService = workspace.patService();
+                CliGitEngine cliGitEngine = new CliGitEngine(workspace.gitCommandRunner(), patService);
+                repoService = new RepoService(workspace.workspaceService(), patService, cliGitEngine, cliGitEngine,
+                                new RepoLockRegistry(Duration.ofMinutes(5), fileLockService), index, new FetchStateRegistry(),
+                                new LfsRouter(cliGitEngine, false, DataSize.ofMegabytes(50), List.of(), 8),
+                                new RepoProfileService(cliGitEngine, 3), PushRetryPolicy.disabled(), CloneMode.FULL,
+                                PerformanceProfile.STANDARD, Duration.ZERO);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+                workspace.close();
+        }
+
+        @Benchmark
+        public List<RepoSummaryResponse> listRepositories() {
+                return repoService.listRepositories();
+        }
+
+        @Benchmark
+        public RepoPageResponse listRepositoryPage() {
+                return repoService.listRepositories(new RepoQuery(null, null, "feature/3", "repo-1", "repository,desc", 0, 50));
+        }
+
+        @Benchmark
+        public int rebuildIndex() {
+                index.rebuild();
+                return index.entries().size();
+        }
+}
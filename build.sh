@@ -40,7 +40,7 @@ pushd "$BACKEND_DIR" >/dev/null
 ./mvnw clean package -DskipTests
 popd >/dev/null
 
-JAR_SOURCE=$(find "$BACKEND_DIR/target" -maxdepth 1 -type f -name "*.jar" ! -name "*original*.jar" | head -n 1)
+JAR_SOURCE=$(find "$BACKEND_DIR/target" -maxdepth 1 -type f -name "*-exec.jar" | head -n 1)
 if [ -z "$JAR_SOURCE" ]; then
   echo "[錯誤] 無法在 backend/target 找到 jar 檔" >&2
   exit 1
@@ -3,14 +3,16 @@ import { Component, inject, signal } from '@angular/core';
 import { FormBuilder, FormControl, ReactiveFormsModule, Validators } from '@angular/forms';
 import { MatButtonModule } from '@angular/material/button';
 import { MatCardModule } from '@angular/material/card';
+import { MatCheckboxModule } from '@angular/material/checkbox';
 import { MatFormFieldModule } from '@angular/material/form-field';
 import { MatIconModule } from '@angular/material/icon';
 import { MatInputModule } from '@angular/material/input';
 import { MatListModule } from '@angular/material/list';
+import { MatPaginatorModule, PageEvent } from '@angular/material/paginator';
 import { MatProgressBarModule } from '@angular/material/progress-bar';
 import { MatTabsModule } from '@angular/material/tabs';
 import { MatToolbarModule } from '@angular/material/toolbar';
-import { GitService, PatStatus, RepoSummary } from './git.service';
+import { GitService, PatStatus, RepoStatus, RepoSummary } from './git.service';
 
 @Component({
   selector: 'app-root',
@@ -23,10 +25,12 @@ import { GitService, PatStatus, RepoSummary } from './git.service';
     MatToolbarModule,
     MatTabsModule,
     MatCardModule,
+    MatCheckboxModule,
     MatFormFieldModule,
     MatInputModule,
     MatButtonModule,
     MatListModule,
+    MatPaginatorModule,
     MatIconModule,
     MatProgressBarModule
   ],
@@ -39,6 +43,11 @@ export class App {
 
   protected readonly patStatus = signal<PatStatus | null>(null);
   protected readonly repos = signal<RepoSummary[]>([]);
+  protected readonly repoTotal = signal(0);
+  protected readonly repoStatuses = signal<Record<string, RepoStatus>>({});
+  protected readonly repoPageIndex = signal(0);
+  protected readonly repoPageSize = signal(20);
+  protected readonly repoFilter = new FormControl('', { nonNullable: true });
   protected readonly patLoading = signal(false);
   protected readonly repoListLoading = signal(false);
   protected readonly addRepoLoading = signal(false);
@@ -52,7 +61,9 @@ export class App {
 
   protected readonly repoForm = this.formBuilder.nonNullable.group({
     url: ['', [Validators.required]],
-    branch: ['']
+    branch: [''],
+    sparse: [false],
+    worktree: [false]
   });
 
   private readonly commitControls = new Map<string, FormControl<string>>();
@@ -99,11 +110,12 @@ export class App {
     this.gitService
       .addRepo({
         url: payload.url.trim(),
-        branch: payload.branch?.trim() ? payload.branch.trim() : undefined
+        branch: payload.branch?.trim() ? payload.branch.trim() : undefined,
+        cloneMode: payload.sparse ? 'SPARSE' : payload.worktree ? 'WORKTREE' : undefined
       })
       .subscribe({
         next: (repo) => {
-          this.repos.set([...this.repos(), repo]);
+          this.loadRepos();
           this.repoForm.reset();
           this.infoMessage.set(`已新增 ${repo.project}/${repo.repository} (${repo.branch})。`);
           this.addRepoLoading.set(false);
@@ -144,6 +156,7 @@ export class App {
         if (response.committed) {
           control.reset();
         }
+        this.loadRepoStatuses([repo.id]);
         this.commitLoading.set(null);
       },
       error: (error) => {
@@ -153,6 +166,17 @@ export class App {
     });
   }
 
+  protected searchRepos(): void {
+    this.repoPageIndex.set(0);
+    this.loadRepos();
+  }
+
+  protected changeRepoPage(event: PageEvent): void {
+    this.repoPageIndex.set(event.pageIndex);
+    this.repoPageSize.set(event.pageSize);
+    this.loadRepos();
+  }
+
   protected trackById(_: number, repo: RepoSummary): string {
     return repo.id;
   }
@@ -173,15 +197,41 @@ export class App {
 
   private loadRepos(): void {
     this.repoListLoading.set(true);
-    this.gitService.listRepos().subscribe({
-      next: (repos) => {
-        this.repos.set(repos);
-        this.repoListLoading.set(false);
+    this.gitService
+      .listRepos({ page: this.repoPageIndex(), size: this.repoPageSize(), q: this.repoFilter.value })
+      .subscribe({
+        next: (page) => {
+          if (page.totalPages > 0 && page.page >= page.totalPages) {
+            this.repoPageIndex.set(page.totalPages - 1);
+            this.loadRepos();
+            return;
+          }
+          this.repos.set(page.items);
+          this.repoTotal.set(page.totalItems);
+          this.repoListLoading.set(false);
+          this.loadRepoStatuses(page.items.map((repo) => repo.id));
+        },
+        error: (error) => {
+          this.handleError(error);
+          this.repoListLoading.set(false);
+        }
+      });
+  }
+
+
+  private loadRepoStatuses(repoIds: string[]): void {
+    if (repoIds.length === 0) {
+      return;
+    }
+    this.gitService.repoStatuses(repoIds).subscribe({
+      next: (statuses) => {
+        const updated = { ...this.repoStatuses() };
+        for (const status of statuses) {
+          updated[status.repoId] = status;
+        }
+        this.repoStatuses.set(updated);
       },
-      error: (error) => {
-        this.handleError(error);
-        this.repoListLoading.set(false);
-      }
+      error: (error) => this.handleError(error)
     });
   }
 
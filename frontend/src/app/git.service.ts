@@ -1,15 +1,21 @@
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpErrorResponse, HttpHeaders, HttpParams } from '@angular/common/http';
 import { Injectable } from '@angular/core';
-import { Observable } from 'rxjs';
+import { Observable, catchError, filter, map, of, switchMap, take, throwError, timer } from 'rxjs';
 
 export interface PatStatus {
   configured: boolean;
   maskedPat: string | null;
 }
 
+export type CloneMode = 'FULL' | 'SPARSE' | 'WORKTREE';
+
+export type PerformanceProfile = 'STANDARD' | 'LARGE';
+
 export interface CreateRepoRequest {
   url: string;
   branch?: string | null;
+  cloneMode?: CloneMode;
+  profile?: PerformanceProfile;
 }
 
 export interface RepoSummary {
@@ -20,16 +26,116 @@ export interface RepoSummary {
   url: string;
   path: string;
   yearBranchPath: string;
+  cloneMode: CloneMode;
+  profile: PerformanceProfile;
+  baseRepository: string | null;
+}
+
+export interface RepoQuery {
+  page: number;
+  size: number;
+  sort?: string;
+  project?: string;
+  repository?: string;
+  branch?: string;
+  q?: string;
+}
+
+export interface RepoPage {
+  items: RepoSummary[];
+  page: number;
+  size: number;
+  totalItems: number;
+  totalPages: number;
+  version: string;
+}
+
+export interface RepoStatus {
+  repoId: string;
+  yearBranchPath: string | null;
+  branch: string | null;
+  upstream: string | null;
+  ahead: number | null;
+  behind: number | null;
+  clean: boolean;
+  changedFiles: number;
+  staged: number;
+  unstaged: number;
+  untracked: number;
+  conflicted: number;
+  objectBytes: number;
+  lastFetchedAt: string | null;
+  checkedAt: string | null;
+  cached: boolean;
+  error: string | null;
 }
 
 export interface CommitResponse {
   committed: boolean;
   message: string;
+  remoteAgeMillis: number;
+  lfsFiles: string[];
+  lfsBytes: number;
+  pushAttempts: number;
+  coalescedRequests: number;
+  steps: StepTiming[];
+  skippedSteps: string[];
+}
+
+export interface BatchCommitRequest {
+  repoIds?: string[];
+  project?: string;
+  branch?: string;
+  message: string;
+  parallelism?: number;
+}
+
+export interface BatchCommitItem {
+  repoId: string;
+  success: boolean;
+  committed: boolean;
+  message: string;
+  durationMillis: number;
+  steps: StepTiming[];
+}
+
+export interface BatchCommitResponse {
+  total: number;
+  succeeded: number;
+  failed: number;
+  parallelism: number;
+  durationMillis: number;
+  results: BatchCommitItem[];
+}
+
+export type JobState = 'QUEUED' | 'RUNNING' | 'SUCCEEDED' | 'FAILED' | 'CANCELLED';
+
+export interface StepTiming {
+  name: string;
+  durationMillis: number;
+}
+
+export interface Job<T> {
+  id: string;
+  type: string;
+  repoId: string | null;
+  state: JobState;
+  currentStep: string | null;
+  steps: StepTiming[];
+  result: T | null;
+  error: string | null;
+  errorDetails: Record<string, string>;
+  submittedAt: string;
+  startedAt: string | null;
+  finishedAt: string | null;
+  stuck: boolean;
 }
 
 @Injectable({ providedIn: 'root' })
 export class GitService {
   private readonly baseUrl = '/api';
+  private readonly jobPollIntervalMs = 1000;
+  private readonly repoPageCache = new Map<string, { etag: string; page: RepoPage }>();
 
   constructor(private readonly http: HttpClient) {}
 
@@ -41,17 +147,72 @@ export class GitService {
     return this.http.post<PatStatus>(`${this.baseUrl}/pat`, { pat });
   }
 
-  listRepos(): Observable<RepoSummary[]> {
-    return this.http.get<RepoSummary[]>(`${this.baseUrl}/repos`);
+  listRepos(query: RepoQuery): Observable<RepoPage> {
+    let params = new HttpParams().set('page', query.page).set('size', query.size);
+    for (const key of ['sort', 'project', 'repository', 'branch', 'q'] as const) {
+      const value = query[key]?.trim();
+      if (value) {
+        params = params.set(key, value);
+      }
+    }
+    const cacheKey = params.toString();
+    const cached = this.repoPageCache.get(cacheKey);
+    const headers = cached ? new HttpHeaders({ 'If-None-Match': cached.etag }) : undefined;
+    return this.http.get<RepoPage>(`${this.baseUrl}/repos`, { params, headers, observe: 'response' }).pipe(
+      map((response) => {
+        const page = response.body as RepoPage;
+        const etag = response.headers.get('ETag');
+        if (etag) {
+          this.repoPageCache.set(cacheKey, { etag, page });
+        }
+        return page;
+      }),
+      catchError((error: unknown) =>
+        error instanceof HttpErrorResponse && error.status === 304 && cached ? of(cached.page) : throwError(() => error)
+      )
+    );
+  }
+
+  repoStatuses(repoIds: string[]): Observable<RepoStatus[]> {
+    const params = new HttpParams().set('ids', repoIds.join(','));
+    return this.http.get<RepoStatus[]>(`${this.baseUrl}/repos/status`, { params });
   }
 
   addRepo(request: CreateRepoRequest): Observable<RepoSummary> {
-    return this.http.post<RepoSummary>(`${this.baseUrl}/repos`, request);
+    return this.awaitJob(this.http.post<Job<RepoSummary>>(`${this.baseUrl}/repos`, request));
+  }
+
+  commitAndPush(id: string, message: string, rebaseRetry?: boolean): Observable<CommitResponse> {
+    return this.awaitJob(
+      this.http.post<Job<CommitResponse>>(`${this.baseUrl}/repos/${encodeURIComponent(id)}/commit-and-push`, {
+        message,
+        rebaseRetry
+      })
+    );
+  }
+
+  batchCommitAndPush(request: BatchCommitRequest): Observable<BatchCommitResponse> {
+    return this.awaitJob(this.http.post<Job<BatchCommitResponse>>(`${this.baseUrl}/repos/batch/commit-and-push`, request));
+  }
+
+  getJob<T>(id: string): Observable<Job<T>> {
+    return this.http.get<Job<T>>(`${this.baseUrl}/jobs/${encodeURIComponent(id)}`);
   }
 
-  commitAndPush(id: string, message: string): Observable<CommitResponse> {
-    return this.http.post<CommitResponse>(`${this.baseUrl}/repos/${encodeURIComponent(id)}/commit-and-push`, {
-      message
-    });
+  private awaitJob<T>(submission: Observable<Job<T>>): Observable<T> {
+    return submission.pipe(
+      switchMap((job) => timer(0, this.jobPollIntervalMs).pipe(switchMap(() => this.getJob<T>(job.id)))),
+      filter((job) => job.state === 'SUCCEEDED' || job.state === 'FAILED' || job.state === 'CANCELLED'),
+      take(1),
+      map((job) => {
+        if (job.state === 'CANCELLED') {
+          throw new Error(job.error ?? '背景工作已取消。');
+        }
+        if (job.state === 'FAILED') {
+          throw new Error(job.error ?? '背景工作執行失敗。');
+        }
+        return job.result as T;
+      })
+    );
   }
 }